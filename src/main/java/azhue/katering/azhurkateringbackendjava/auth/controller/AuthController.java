@@ -4,11 +4,13 @@ import azhue.katering.azhurkateringbackendjava.auth.model.dto.request.ChangePass
 import azhue.katering.azhurkateringbackendjava.auth.model.dto.request.LoginRequest;
 import azhue.katering.azhurkateringbackendjava.auth.model.dto.request.RegisterRequest;
 import azhue.katering.azhurkateringbackendjava.auth.model.dto.response.AuthResponse;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.response.CurrentUserResponse;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.AuthService;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.CurrentUserService;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.EmailService;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.CookieService;
 import azhue.katering.azhurkateringbackendjava.common.util.contract.HttpUtils;
+import azhue.katering.azhurkateringbackendjava.common.annotation.ConcurrencyLimit;
 import azhue.katering.azhurkateringbackendjava.common.annotation.RateLimit;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -79,6 +81,7 @@ public class AuthController {
     @PostMapping("/register")
     @RateLimit(value = "authRateLimiter",
                 message = "Слишком много попыток регистрации, попробуйте позже!")
+    @ConcurrencyLimit("authConcurrencyLimiter")
     @Operation(
         summary = "Регистрация пользователя",
         description = "Регистрирует нового пользователя и отправляет код подтверждения на email. " +
@@ -157,7 +160,9 @@ public class AuthController {
      */
     @PostMapping("/login")
     @RateLimit(value = "authRateLimiter",
+                key = {RateLimit.KeyStrategy.IP, RateLimit.KeyStrategy.EMAIL},
                 message = "Слишком много попыток входа, попробуйте позже!")
+    @ConcurrencyLimit("authConcurrencyLimiter")
     @Operation(
         summary = "Вход пользователя",
         description = "Аутентифицирует пользователя и возвращает JWT токены. " +
@@ -308,6 +313,7 @@ public class AuthController {
      */
     @PostMapping("/send-verification")
     @RateLimit(value = "emailVerificationRateLimiter",
+            key = RateLimit.KeyStrategy.EMAIL,
             message = "Слишком много попыток запроса, попробуйте позже!")
     @Operation(
         summary = "Отправка кода подтверждения",
@@ -367,6 +373,7 @@ public class AuthController {
      */
     @PostMapping("/verify-email")
     @RateLimit(value = "emailVerificationRateLimiter",
+            key = RateLimit.KeyStrategy.EMAIL,
             message = "Слишком много попыток, попробуйте позже!")
     @Operation(
         summary = "Подтверждение email",
@@ -476,7 +483,9 @@ public class AuthController {
      */
     @PostMapping("/change-password")
     @RateLimit(value = "passwordChangeRateLimiter",
+        key = RateLimit.KeyStrategy.USER,
         message = "Много попыток, попробуйте позже!")
+    @ConcurrencyLimit("authConcurrencyLimiter")
     @Operation(
         summary = "Смена пароля",
         description = "Изменяет пароль текущего пользователя. " +
@@ -550,7 +559,9 @@ public class AuthController {
     /**
      * Получает информацию о текущем аутентифицированном пользователе.
      * 
-     * <p>Возвращает данные пользователя, включая роли и права доступа.</p>
+     * <p>Возвращает данные пользователя, включая роли и права доступа. Principal
+     * собирается из токена без обращения к базе данных, поэтому полные данные
+     * пользователя загружаются здесь одним запросом.</p>
      */
     @GetMapping("/me")
     @Operation(
@@ -571,7 +582,17 @@ public class AuthController {
                             "id": "123e4567-e89b-12d3-a456-426614174000",
                             "email": "ivan@example.com",
                             "username": "ivan_petrov",
-                            "role": "USER"
+                            "role": "USER",
+                            "isActive": true,
+                            "isVerified": true,
+                            "isAccountNonLocked": true,
+                            "failedAttempts": 0,
+                            "lockTime": null,
+                            "lastLogin": "2025-01-15T10:30:00",
+                            "emailVerifiedAt": "2025-01-10T12:00:00",
+                            "passwordChangedAt": null,
+                            "createdAt": "2025-01-10T11:55:00",
+                            "updatedAt": "2025-01-15T10:30:00"
                         },
                         "authorities": ["ROLE_USER"]
                     }
@@ -606,7 +627,7 @@ public class AuthController {
         
         return ResponseEntity.ok(Map.of(
             "authenticated", true,
-            "user", authentication.getPrincipal(),
+            "user", CurrentUserResponse.from(currentUserService.getCurrentUser(authentication)),
             "authorities", authentication.getAuthorities()
         ));
     }
@@ -0,0 +1,15 @@
+package azhue.katering.azhurkateringbackendjava.auth.event;
+
+import java.util.UUID;
+
+/**
+ * Событие добавления письма в outbox.
+ *
+ * <p>После фиксации транзакции будит отправителей, чтобы письмо ушло
+ * без ожидания следующего опроса outbox.</p>
+ *
+ * @param messageId идентификатор письма
+ * @version 1.0.0
+ */
+public record EmailEnqueuedEvent(UUID messageId) {
+}
@@ -0,0 +1,16 @@
+package azhue.katering.azhurkateringbackendjava.auth.event;
+
+import java.util.UUID;
+
+/**
+ * Событие изменения security-данных пользователя.
+ *
+ * <p>Публикуется при смене пароля, блокировке аккаунта, верификации email,
+ * изменении роли и других изменениях, влияющих на аутентификацию. По этому
+ * событию сбрасывается закэшированный {@code SecurityStamp} пользователя.</p>
+ *
+ * @param userId идентификатор пользователя
+ * @version 1.0.0
+ */
+public record UserSecurityChangedEvent(UUID userId) {
+}
@@ -0,0 +1,23 @@
+package azhue.katering.azhurkateringbackendjava.auth.model.dto.projection;
+
+import java.util.UUID;
+
+/**
+ * Проекция владельца refresh токена, возвращаемая при ротации токена.
+ *
+ * <p>Содержит только данные, нужные для выпуска новой пары токенов и ответа клиенту.</p>
+ *
+ * @version 1.0.0
+ */
+public interface RefreshTokenOwner {
+
+    UUID getId();
+
+    String getEmail();
+
+    String getUsername();
+
+    String getRole();
+
+    Boolean getIsVerified();
+}
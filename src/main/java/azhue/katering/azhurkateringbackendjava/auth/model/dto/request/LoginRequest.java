@@ -1,5 +1,6 @@
 package azhue.katering.azhurkateringbackendjava.auth.model.dto.request;
 
+import azhue.katering.azhurkateringbackendjava.common.model.dto.EmailAware;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -32,7 +33,7 @@ import lombok.NoArgsConstructor;
     }
     """
 )
-public class LoginRequest {
+public class LoginRequest implements EmailAware {
 
     @NotBlank(message = "Email обязателен для заполнения")
     @Email(message = "Некорректный формат email адреса")
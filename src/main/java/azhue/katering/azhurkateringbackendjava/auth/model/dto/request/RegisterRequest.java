@@ -1,5 +1,6 @@
 package azhue.katering.azhurkateringbackendjava.auth.model.dto.request;
 
+import azhue.katering.azhurkateringbackendjava.common.model.dto.EmailAware;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -33,7 +34,7 @@ import lombok.NoArgsConstructor;
     }
     """
 )
-public class RegisterRequest {
+public class RegisterRequest implements EmailAware {
 
     @NotBlank(message = "Имя пользователя обязательно для заполнения")
     @Size(min = 3, max = 30, message = "Имя пользователя должно содержать от 3 до 30 символов")
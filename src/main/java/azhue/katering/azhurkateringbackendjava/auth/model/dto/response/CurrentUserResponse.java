@@ -0,0 +1,94 @@
+package azhue.katering.azhurkateringbackendjava.auth.model.dto.response;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO с данными текущего пользователя для {@code GET /api/v1/auth/me}.
+ *
+ * <p>Сохраняет набор полей, который эндпоинт возвращал при сериализации
+ * сущности {@link User}, без хэша пароля и служебных полей.</p>
+ *
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(
+    name = "CurrentUserResponse",
+    description = "Данные текущего аутентифицированного пользователя"
+)
+public class CurrentUserResponse {
+
+    @Schema(description = "Уникальный идентификатор пользователя", format = "uuid")
+    private UUID id;
+
+    @Schema(description = "Email адрес пользователя", example = "ivan@example.com", format = "email")
+    private String email;
+
+    @Schema(description = "Имя пользователя", example = "ivan_petrov")
+    private String username;
+
+    @Schema(description = "Роль пользователя в системе", example = "USER", allowableValues = {"USER", "ADMIN"})
+    private User.Role role;
+
+    @Schema(description = "Активен ли аккаунт", example = "true")
+    private Boolean isActive;
+
+    @Schema(description = "Статус подтверждения email адреса", example = "true")
+    private Boolean isVerified;
+
+    @Schema(description = "Флаг блокировки аккаунта", example = "true")
+    private Boolean isAccountNonLocked;
+
+    @Schema(description = "Количество неудачных попыток входа", example = "0")
+    private Integer failedAttempts;
+
+    @Schema(description = "Время окончания блокировки")
+    private LocalDateTime lockTime;
+
+    @Schema(description = "Время последнего входа")
+    private LocalDateTime lastLogin;
+
+    @Schema(description = "Время подтверждения email")
+    private LocalDateTime emailVerifiedAt;
+
+    @Schema(description = "Время последней смены пароля")
+    private LocalDateTime passwordChangedAt;
+
+    @Schema(description = "Время регистрации")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Время последнего изменения")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Создает DTO из сущности пользователя
+     */
+    public static CurrentUserResponse from(User user) {
+        return CurrentUserResponse.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .username(user.getUsername())
+                .role(user.getRole())
+                .isActive(user.getIsActive())
+                .isVerified(user.getIsVerified())
+                .isAccountNonLocked(user.getIsAccountNonLocked())
+                .failedAttempts(user.getFailedAttempts())
+                .lockTime(user.getLockTime())
+                .lastLogin(user.getLastLogin())
+                .emailVerifiedAt(user.getEmailVerifiedAt())
+                .passwordChangedAt(user.getPasswordChangedAt())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package azhue.katering.azhurkateringbackendjava.auth.model.dto.security;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal аутентифицированного пользователя.
+ *
+ * <p>Собирается из claims access токена и {@link SecurityStamp} без загрузки
+ * сущности {@link User} из базы данных. Не содержит хэш пароля.</p>
+ *
+ * @param id идентификатор пользователя
+ * @param email email пользователя
+ * @param username имя пользователя
+ * @param role роль пользователя
+ * @param enabled активен и верифицирован ли аккаунт
+ * @param accountNonLocked не заблокирован ли аккаунт
+ * @version 1.0.0
+ */
+public record AuthenticatedUser(
+        UUID id,
+        String email,
+        String username,
+        User.Role role,
+        boolean enabled,
+        boolean accountNonLocked
+) implements UserDetails {
+
+    /**
+     * Создает principal из security stamp
+     */
+    public static AuthenticatedUser from(SecurityStamp stamp) {
+        return new AuthenticatedUser(
+                stamp.userId(),
+                stamp.email(),
+                stamp.username(),
+                stamp.role(),
+                Boolean.TRUE.equals(stamp.isActive()) && Boolean.TRUE.equals(stamp.isVerified()),
+                !stamp.isAccountLocked()
+        );
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    @JsonIgnore
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
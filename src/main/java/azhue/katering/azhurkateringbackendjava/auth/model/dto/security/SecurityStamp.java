@@ -0,0 +1,65 @@
+package azhue.katering.azhurkateringbackendjava.auth.model.dto.security;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Security stamp пользователя.
+ *
+ * <p>Минимальный набор полей, по которым проверяется access токен без загрузки
+ * полной сущности {@link User}: роль, состояние аккаунта и время последней смены пароля.</p>
+ *
+ * @param userId идентификатор пользователя
+ * @param email email пользователя
+ * @param username имя пользователя
+ * @param role роль пользователя
+ * @param isActive активен ли аккаунт
+ * @param isVerified верифицирован ли email
+ * @param isAccountNonLocked флаг блокировки аккаунта
+ * @param lockTime время окончания блокировки
+ * @param passwordChangedAt время последней смены пароля
+ * @version 1.0.0
+ */
+public record SecurityStamp(
+        UUID userId,
+        String email,
+        String username,
+        User.Role role,
+        Boolean isActive,
+        Boolean isVerified,
+        Boolean isAccountNonLocked,
+        LocalDateTime lockTime,
+        LocalDateTime passwordChangedAt
+) {
+
+    /**
+     * Проверяет, заблокирован ли аккаунт
+     */
+    public boolean isAccountLocked() {
+        return lockTime != null && LocalDateTime.now().isBefore(lockTime);
+    }
+
+    /**
+     * Проверяет, выпущен ли токен до последней смены пароля.
+     *
+     * <p>Время выпуска JWT хранится с точностью до секунды, поэтому
+     * время смены пароля тоже округляется до секунды.</p>
+     */
+    public boolean isIssuedBeforePasswordChange(Instant issuedAt) {
+        if (passwordChangedAt == null) {
+            return false;
+        }
+        if (issuedAt == null) {
+            return true;
+        }
+        Instant changedAt = passwordChangedAt.atZone(ZoneId.systemDefault())
+                .toInstant()
+                .truncatedTo(ChronoUnit.SECONDS);
+        return issuedAt.isBefore(changedAt);
+    }
+}
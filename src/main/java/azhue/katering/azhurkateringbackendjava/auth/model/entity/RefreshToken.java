@@ -26,8 +26,11 @@ public class RefreshToken extends BaseEntity {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
-    @Column(name = "token", unique = true, nullable = false, length = 1000)
-    private String token;
+    /**
+     * SHA-256 дайджест refresh токена, сам токен в базе данных не хранится
+     */
+    @Column(name = "token_hash", unique = true, nullable = false, columnDefinition = "bytea")
+    private byte[] tokenHash;
     
     @Column(name = "expires_at", nullable = false)
     private LocalDateTime expiresAt;
@@ -0,0 +1,76 @@
+package azhue.katering.azhurkateringbackendjava.auth.repository;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Репозиторий outbox исходящих писем
+ *
+ * @version 1.0.0
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+    /**
+     * Захват пачки писем, готовых к отправке.
+     *
+     * <p>Время следующей попытки захваченных писем переносится на {@code leaseUntil}:
+     * если отправитель не сообщит результат, письмо будет отправлено повторно после
+     * истечения аренды. Строки, захваченные другими инстансами, пропускаются.</p>
+     */
+    @Transactional
+    @Query(value = """
+            WITH claimed AS (
+                UPDATE email_outbox
+                SET next_attempt_at = :leaseUntil, updated_at = :now, version = version + 1
+                WHERE id IN (
+                    SELECT id FROM email_outbox
+                    WHERE status = 'PENDING' AND next_attempt_at <= :now
+                    ORDER BY next_attempt_at
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING *
+            )
+            SELECT * FROM claimed
+            """, nativeQuery = true)
+    List<EmailOutboxMessage> claimBatch(@Param("now") LocalDateTime now,
+                                        @Param("leaseUntil") LocalDateTime leaseUntil,
+                                        @Param("limit") int limit);
+
+    /**
+     * Удаление доставленных писем
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.id IN :ids")
+    void deleteDelivered(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Перенос письма на следующую попытку или перевод в FAILED
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.attempts = m.attempts + 1, m.nextAttemptAt = :nextAttemptAt, " +
+           "m.lastError = :lastError, m.status = :status, m.updatedAt = :now WHERE m.id = :id")
+    void recordFailure(@Param("id") UUID id,
+                       @Param("status") EmailOutboxMessage.Status status,
+                       @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                       @Param("lastError") String lastError,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Подсчет писем в очереди
+     */
+    long countByStatus(EmailOutboxMessage.Status status);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -46,16 +47,48 @@ public interface EmailVerificationRepository extends JpaRepository<EmailVerifica
     List<EmailVerification> findByIsUsedTrue();
 
     /**
-     * Удаление истекших верификаций
+     * Удаление пачки истекших верификаций в отдельной транзакции
+     *
+     * @return число удаленных строк
      */
+    @Transactional
     @Modifying
-    @Query("DELETE FROM EmailVerification ev WHERE ev.expiresAt < :now")
-    void deleteExpiredVerifications(@Param("now") LocalDateTime now);
-    
+    @Query(value = """
+            DELETE FROM email_verifications
+            WHERE id IN (
+                SELECT id FROM email_verifications
+                WHERE expires_at < :now
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteExpiredVerificationsBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
     /**
-     * Удаление использованных верификаций
+     * Удаление пачки использованных верификаций в отдельной транзакции
+     *
+     * @return число удаленных строк
      */
+    @Transactional
     @Modifying
-    @Query("DELETE FROM EmailVerification ev WHERE ev.isUsed = true")
-    void deleteUsedVerifications();
+    @Query(value = """
+            DELETE FROM email_verifications
+            WHERE id IN (
+                SELECT id FROM email_verifications
+                WHERE is_used = true
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteUsedVerificationsBatch(@Param("limit") int limit);
+
+    /**
+     * Подсчет истекших верификаций, ожидающих удаления
+     */
+    long countByExpiresAtBefore(LocalDateTime now);
+
+    /**
+     * Подсчет использованных верификаций, ожидающих удаления
+     */
+    long countByIsUsedTrue();
 }
\ No newline at end of file
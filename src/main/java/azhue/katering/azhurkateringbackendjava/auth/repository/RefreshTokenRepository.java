@@ -1,5 +1,6 @@
 package azhue.katering.azhurkateringbackendjava.auth.repository;
 
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.projection.RefreshTokenOwner;
 import azhue.katering.azhurkateringbackendjava.auth.model.entity.RefreshToken;
 import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,9 +24,51 @@ import java.util.UUID;
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
     
     /**
-     * Поиск токена по значению
+     * Поиск токена по SHA-256 дайджесту значения
      */
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * Ротация refresh токена одним запросом.
+     *
+     * <p>Отзывает действующий токен пользователя и вставляет новый в одном операторе.
+     * Строка старого токена блокируется на время UPDATE, поэтому при параллельной
+     * ротации одного токена новый токен получает ровно один запрос, остальные
+     * получают пустой результат.</p>
+     *
+     * @return владелец токена или пустой результат, если токен не найден, отозван или истек
+     */
+    @Transactional
+    @Query(value = """
+            WITH revoked AS (
+                UPDATE refresh_tokens
+                SET is_revoked = true, revoked_at = :now, updated_at = :now, version = version + 1
+                WHERE token_hash = :oldTokenHash
+                  AND user_id = :userId
+                  AND is_revoked = false
+                  AND expires_at > :now
+                RETURNING user_id
+            ), inserted AS (
+                INSERT INTO refresh_tokens (id, user_id, token_hash, expires_at, is_revoked,
+                                            ip_address, user_agent, created_at, updated_at, version)
+                SELECT :newId, r.user_id, :newTokenHash, :newExpiresAt, false,
+                       :ipAddress, :userAgent, :now, :now, 0
+                FROM revoked r
+                RETURNING user_id
+            )
+            SELECT u.id AS id, u.email AS email, u.username AS username,
+                   u.role AS role, u.is_verified AS isVerified
+            FROM inserted i
+            JOIN users u ON u.id = i.user_id
+            """, nativeQuery = true)
+    Optional<RefreshTokenOwner> rotate(@Param("oldTokenHash") byte[] oldTokenHash,
+                                       @Param("userId") UUID userId,
+                                       @Param("newId") UUID newId,
+                                       @Param("newTokenHash") byte[] newTokenHash,
+                                       @Param("newExpiresAt") LocalDateTime newExpiresAt,
+                                       @Param("ipAddress") String ipAddress,
+                                       @Param("userAgent") String userAgent,
+                                       @Param("now") LocalDateTime now);
 
     /**
      * Поиск действительных токенов пользователя
@@ -51,9 +95,28 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
     void revokeAllUserTokens(@Param("user") User user, @Param("revokedAt") LocalDateTime revokedAt);
 
     /**
-     * Удаление истекших токенов
+     * Удаление пачки истекших токенов в отдельной транзакции.
+     *
+     * <p>Строки, заблокированные другими транзакциями, пропускаются, поэтому очистка
+     * не ждет ротацию и может выполняться параллельно на нескольких инстансах.</p>
+     *
+     * @return число удаленных строк
      */
+    @Transactional
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
-    void deleteExpiredTokens(@Param("now") LocalDateTime now);
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (
+                SELECT id FROM refresh_tokens
+                WHERE expires_at < :now
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteExpiredTokensBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Подсчет истекших токенов, ожидающих удаления
+     */
+    long countByExpiresAtBefore(LocalDateTime now);
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package azhue.katering.azhurkateringbackendjava.auth.repository;
 
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.projection.RefreshTokenOwner;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.security.SecurityStamp;
 import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -25,6 +27,22 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Загрузка security stamp пользователя без загрузки сущности
+     */
+    @Query("SELECT new azhue.katering.azhurkateringbackendjava.auth.model.dto.security.SecurityStamp(" +
+           "u.id, u.email, u.username, u.role, u.isActive, u.isVerified, u.isAccountNonLocked, u.lockTime, u.passwordChangedAt) " +
+           "FROM User u WHERE u.id = :userId")
+    Optional<SecurityStamp> findSecurityStampById(@Param("userId") UUID userId);
+
+    /**
+     * Загрузка данных владельца refresh токена без загрузки сущности
+     */
+    @Query(value = "SELECT u.id AS id, u.email AS email, u.username AS username, " +
+                   "u.role AS role, u.is_verified AS isVerified FROM users u WHERE u.id = :userId",
+           nativeQuery = true)
+    Optional<RefreshTokenOwner> findRefreshTokenOwnerById(@Param("userId") UUID userId);
+
     /**
      * Проверка существования пользователя по email
      */
@@ -1,5 +1,6 @@
 package azhue.katering.azhurkateringbackendjava.auth.service;
 
+import azhue.katering.azhurkateringbackendjava.auth.event.UserSecurityChangedEvent;
 import azhue.katering.azhurkateringbackendjava.auth.exception.account.AccountIsLockedException;
 import azhue.katering.azhurkateringbackendjava.auth.exception.account.IncorrectPasswordException;
 import azhue.katering.azhurkateringbackendjava.auth.exception.account.UserNotFoundException;
@@ -8,33 +9,42 @@ import azhue.katering.azhurkateringbackendjava.auth.exception.token.TokenExpired
 import azhue.katering.azhurkateringbackendjava.auth.exception.token.TokenNotFoundException;
 import azhue.katering.azhurkateringbackendjava.auth.exception.token.TokenNotValidException;
 import azhue.katering.azhurkateringbackendjava.auth.exception.token.TypeTokenException;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.projection.RefreshTokenOwner;
 import azhue.katering.azhurkateringbackendjava.auth.model.dto.request.LoginRequest;
 import azhue.katering.azhurkateringbackendjava.auth.model.dto.request.RegisterRequest;
 import azhue.katering.azhurkateringbackendjava.auth.model.dto.response.AuthResponse;
-import azhue.katering.azhurkateringbackendjava.auth.model.entity.RefreshToken;
 import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
-import azhue.katering.azhurkateringbackendjava.auth.repository.RefreshTokenRepository;
 import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.AuthService;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.EmailService;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.PasswordHashingService;
+import azhue.katering.azhurkateringbackendjava.auth.store.RefreshTokenStore;
 import azhue.katering.azhurkateringbackendjava.common.service.MetricsService;
 import azhue.katering.azhurkateringbackendjava.common.util.LogUtils;
+import azhue.katering.azhurkateringbackendjava.security.jwt.model.VerifiedToken;
 import azhue.katering.azhurkateringbackendjava.security.jwt.util.JwtUtil;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Основной сервис аутентификации и авторизации.
  * 
  * <p>Управляет регистрацией, входом, выходом, сменой пароля и обновлением токенов.
  * Обеспечивает безопасность через блокировку аккаунтов и верификацию email.</p>
+ *
+ * <p>Регистрация, вход и смена пароля хэшируют пароль вне транзакции: ожидание
+ * в очереди {@link PasswordHashingService} не держит соединение из пула JDBC.
+ * Изменения пользователя выполняются после хэширования в короткой транзакции
+ * по актуальному состоянию из БД.</p>
  * 
  * @version 1.0.0
  */
@@ -44,20 +54,22 @@ import java.util.UUID;
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final EmailService emailService;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final MetricsService metricsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     
     private static final int MAX_FAILED_ATTEMPTS = 5;
     private static final int LOCK_TIME_MINUTES = 30;
+    private static final int REFRESH_TOKEN_TTL_DAYS = 7;
 
     /**
      * Регистрирует нового пользователя
      */
     @Override
-    @Transactional
     public void register(RegisterRequest request, String ipAddress, String userAgent) {
         LogUtils.setOperationTags(LogUtils.OPERATION_REGISTER, null, request.getEmail(), ipAddress, LogUtils.STATUS_START);
         log.info("Начинаем регистрацию пользователя: email={}, username={}", request.getEmail(), request.getUsername());
@@ -77,26 +89,29 @@ public class AuthServiceImpl implements AuthService {
                 throw new UsernameExistsException("Пользователь с таким username уже существует");
             }
 
-            log.info("Создаем нового пользователя: email={}, username={}", request.getEmail(), request.getUsername());
-            // Создаем пользователя
-            User user = User.builder()
-                    .username(request.getUsername())
-                    .email(request.getEmail())
-                    .passwordHash(passwordEncoder.encode(request.getPassword()))
-                    .role(User.Role.USER)
-                    .isActive(true)
-                    .isVerified(false) // Требуется верификация email
-                    .isAccountNonLocked(true)
-                    .failedAttempts(0)
-                    .build();
-
-            user = userRepository.save(user);
-            LogUtils.setOperationTags(LogUtils.OPERATION_REGISTER, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_SUCCESS);
-            log.info("Пользователь сохранен: userId={}, email={}, username={}", user.getId(), user.getEmail(), user.getUsername());
+            String passwordHash = passwordHashingService.encode(request.getPassword());
 
-            log.info("Отправляем код верификации: userId={}, email={}", user.getId(), user.getEmail());
-            emailService.sendVerificationCodeAsync(user, ipAddress);
-            log.info("Код верификации отправлен: userId={}, email={}", user.getId(), user.getEmail());
+            log.info("Создаем нового пользователя: email={}, username={}", request.getEmail(), request.getUsername());
+            User user = transactionTemplate.execute(status -> {
+                // Создаем пользователя
+                User created = userRepository.save(User.builder()
+                        .username(request.getUsername())
+                        .email(request.getEmail())
+                        .passwordHash(passwordHash)
+                        .role(User.Role.USER)
+                        .isActive(true)
+                        .isVerified(false) // Требуется верификация email
+                        .isAccountNonLocked(true)
+                        .failedAttempts(0)
+                        .build());
+                LogUtils.setOperationTags(LogUtils.OPERATION_REGISTER, created.getId().toString(), created.getEmail(), ipAddress, LogUtils.STATUS_SUCCESS);
+                log.info("Пользователь сохранен: userId={}, email={}, username={}", created.getId(), created.getEmail(), created.getUsername());
+
+                log.info("Ставим код верификации в очередь: userId={}, email={}", created.getId(), created.getEmail());
+                emailService.enqueueVerificationCode(created, ipAddress);
+                log.info("Код верификации поставлен в очередь: userId={}, email={}", created.getId(), created.getEmail());
+                return created;
+            });
 
             log.info("Регистрация завершена успешно: userId={}, email={}, username={}", user.getId(), user.getEmail(), user.getUsername());
             
@@ -113,7 +128,6 @@ public class AuthServiceImpl implements AuthService {
      * Выполняет вход пользователя
      */
     @Override
-    @Transactional
     public AuthResponse login(LoginRequest request, String ipAddress, String userAgent) {
         LogUtils.setOperationTags(LogUtils.OPERATION_LOGIN, null, request.getEmail(), ipAddress, LogUtils.STATUS_START);
         log.info("Попытка входа: email={}", request.getEmail());
@@ -141,10 +155,10 @@ public class AuthServiceImpl implements AuthService {
             }
 
             // Проверяем пароль
-            if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+            if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
                 LogUtils.setOperationTags(LogUtils.OPERATION_LOGIN, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_FAILED);
                 log.warn("Неверный пароль: userId={}, email={}", user.getId(), user.getEmail());
-                handleFailedLogin(user);
+                inTransaction(user.getId(), this::handleFailedLogin);
                 metricsService.incrementFailedLogins();
                 throw new IncorrectPasswordException("Неверный пароль");
             }
@@ -155,9 +169,9 @@ public class AuthServiceImpl implements AuthService {
             if (!user.getIsVerified()) {
                 log.info("Попытка входа неверифицированного пользователя: userId={}, email={}, ip={}", user.getId(), user.getEmail(), ipAddress);
                 
-                // Отправляем новый код подтверждения
-                emailService.sendVerificationCodeAsync(user, ipAddress);
-                log.info("Новый код подтверждения отправлен: userId={}, email={}", user.getId(), user.getEmail());
+                // Ставим новый код подтверждения в очередь, письмо уйдет после фиксации транзакции
+                inTransaction(user.getId(), current -> emailService.enqueueVerificationCode(current, ipAddress));
+                log.info("Новый код подтверждения поставлен в очередь: userId={}, email={}", user.getId(), user.getEmail());
 
                 metricsService.incrementFailedLogins();
                 
@@ -173,18 +187,22 @@ public class AuthServiceImpl implements AuthService {
 
             log.info("Email верифицирован, сбрасываем счетчик неудачных попыток: userId={}, email={}", user.getId(), user.getEmail());
 
-            // Сбрасываем счетчик неудачных попыток
-            user.resetFailedAttempts();
-            userRepository.save(user);
-
             log.info("Генерируем токены: userId={}, email={}", user.getId(), user.getEmail());
 
             // Генерируем токены
             String accessToken = jwtUtil.generateAccessToken(user.getEmail(), user.getId().toString(), user.getRole().name());
             String refreshToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId().toString());
 
-            // Сохраняем refresh token
-            saveRefreshToken(user, refreshToken, ipAddress, userAgent);
+            inTransaction(user.getId(), current -> {
+                checkPasswordUnchanged(current, user.getPasswordHash(), "Неверный пароль");
+
+                // Сбрасываем счетчик неудачных попыток
+                current.resetFailedAttempts();
+                userRepository.save(current);
+
+                // Сохраняем refresh token
+                saveRefreshToken(current, refreshToken, ipAddress, userAgent);
+            });
 
             LogUtils.setOperationTags(LogUtils.OPERATION_LOGIN, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_SUCCESS);
             log.info("Вход выполнен успешно: userId={}, email={}, role={}", user.getId(), user.getEmail(), user.getRole());
@@ -221,45 +239,39 @@ public class AuthServiceImpl implements AuthService {
         Timer.Sample timer = metricsService.startRefreshTokenProcessingTimer();
         
         try {
-            // Проверяем, что это refresh token
-            if (!jwtUtil.isRefreshToken(refreshToken)) {
-                throw new TypeTokenException("Неверный тип токена");
-            }
+            // Проверяем подпись один раз и убеждаемся, что это refresh token
+            VerifiedToken verifiedToken = jwtUtil.verifyToken(refreshToken)
+                    .filter(VerifiedToken::isRefreshToken)
+                    .orElseThrow(() -> new TypeTokenException("Неверный тип токена"));
 
         log.info("Получаем email из refresh token");
-        String email = jwtUtil.extractEmail(refreshToken);
+        String email = verifiedToken.subject();
         LogUtils.setEmail(email);
 
-        if (jwtUtil.isTokenExpired(refreshToken)) {
+        if (verifiedToken.isExpired()) {
             LogUtils.setOperationTags(LogUtils.OPERATION_REFRESH_TOKEN, null, email, ipAddress, LogUtils.STATUS_FAILED);
             log.warn("Refresh token истек: email={}", email);
             throw new TokenExpiredException("Refresh token истек");
         }
 
-        log.info("Ищем пользователя в БД: email={}", email);
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
-        LogUtils.setUserId(user.getId().toString());
+        UUID userId = parseUserId(verifiedToken.userId());
+        LogUtils.setUserId(userId.toString());
 
-        log.info("Проверяем существование refresh токена: userId={}, email={}", user.getId(), user.getEmail());
-        RefreshToken storedToken = refreshTokenRepository.findByToken(refreshToken)
-                .orElseThrow(() -> new TokenNotFoundException("Refresh token не найден"));
+        log.info("Ротируем refresh токен: userId={}, email={}", userId, email);
+        String newRefreshToken = jwtUtil.generateRefreshToken(email, userId.toString());
+        LocalDateTime now = LocalDateTime.now();
 
-        if (!storedToken.isValid()) {
-            LogUtils.setOperationTags(LogUtils.OPERATION_REFRESH_TOKEN, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_FAILED);
-            log.warn("Refresh token невалиден: userId={}, email={}", user.getId(), user.getEmail());
-            throw new TokenNotValidException("Refresh token отозван или истек");
-        }
+        // Проверка, отзыв старого и вставка нового токена выполняются одним оператором
+        RefreshTokenOwner user = refreshTokenStore.rotate(
+                        refreshToken,
+                        userId,
+                        newRefreshToken,
+                        now.plusDays(REFRESH_TOKEN_TTL_DAYS),
+                        ipAddress,
+                        userAgent)
+                .orElseThrow(() -> rotationFailure(refreshToken, userId, email, ipAddress));
 
-        log.info("Генерируем новую пару токенов: userId={}, email={}", user.getId(), user.getEmail());
-        String newAccessToken = jwtUtil.generateAccessToken(user.getEmail(), user.getId().toString(), user.getRole().name());
-        String newRefreshToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId().toString());
-
-        log.info("Отзываем старый refresh токен: userId={}, email={}", user.getId(), user.getEmail());
-        storedToken.revoke();
-        refreshTokenRepository.save(storedToken);
-
-        saveRefreshToken(user, newRefreshToken, ipAddress, userAgent);
+        String newAccessToken = jwtUtil.generateAccessToken(user.getEmail(), user.getId().toString(), user.getRole());
 
         LogUtils.setOperationTags(LogUtils.OPERATION_REFRESH_TOKEN, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_SUCCESS);
         log.info("Обновление токенов завершено успешно: userId={}, email={}", user.getId(), user.getEmail());
@@ -272,7 +284,7 @@ public class AuthServiceImpl implements AuthService {
                 .userId(user.getId().toString())
                 .email(user.getEmail())
                 .username(user.getUsername())
-                .role(user.getRole().name())
+                .role(user.getRole())
                 .isVerified(user.getIsVerified())
                 .build();
         } finally {
@@ -281,6 +293,32 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    /**
+     * Определяет причину неудачной ротации refresh токена.
+     *
+     * <p>Выполняется только на пути ошибки, успешная ротация обходится одним запросом.</p>
+     */
+    private RuntimeException rotationFailure(String refreshToken, UUID userId, String email, String ipAddress) {
+        LogUtils.setOperationTags(LogUtils.OPERATION_REFRESH_TOKEN, userId.toString(), email, ipAddress, LogUtils.STATUS_FAILED);
+        if (refreshTokenStore.exists(refreshToken)) {
+            log.warn("Refresh token невалиден: userId={}, email={}", userId, email);
+            return new TokenNotValidException("Refresh token отозван или истек");
+        }
+        log.warn("Refresh token не найден: userId={}, email={}", userId, email);
+        return new TokenNotFoundException("Refresh token не найден");
+    }
+
+    /**
+     * Извлекает ID пользователя из claims refresh токена
+     */
+    private static UUID parseUserId(String userId) {
+        try {
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new TokenNotValidException("Refresh token не содержит ID пользователя");
+        }
+    }
+
     /**
      * Выполняет выход пользователя
      */
@@ -296,11 +334,7 @@ public class AuthServiceImpl implements AuthService {
             LogUtils.setEmail(email);
 
             log.info("Отзываем refresh токен: email={}, ip={}", email, ipAddress);
-            refreshTokenRepository.findByToken(refreshToken)
-                    .ifPresent(token -> {
-                        token.revoke();
-                        refreshTokenRepository.save(token);
-                    });
+            refreshTokenStore.revoke(refreshToken);
 
             LogUtils.setOperationTags(LogUtils.OPERATION_LOGOUT, null, email, ipAddress, LogUtils.STATUS_SUCCESS);
             log.info("Пользователь вышел из системы: email={}", email);
@@ -314,7 +348,6 @@ public class AuthServiceImpl implements AuthService {
      * Изменяет пароль пользователя
      */
     @Override
-    @Transactional
     public AuthResponse changePassword(UUID userId, String oldPassword, String newPassword, String ipAddress, String userAgent) {
         LogUtils.setOperationTags(LogUtils.OPERATION_CHANGE_PASSWORD, userId.toString(), null, ipAddress, LogUtils.STATUS_START);
         log.info("Начинаем смену пароля: userId={}", userId);
@@ -329,28 +362,35 @@ public class AuthServiceImpl implements AuthService {
             log.info("Проверяем текущий пароль: userId={}, email={}", user.getId(), user.getEmail());
 
             // Проверяем текущий пароль
-            if (!passwordEncoder.matches(oldPassword, user.getPasswordHash())) {
+            if (!passwordHashingService.matches(oldPassword, user.getPasswordHash())) {
                 LogUtils.setOperationTags(LogUtils.OPERATION_CHANGE_PASSWORD, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_FAILED);
                 log.warn("Неверный текущий пароль: userId={}, email={}", user.getId(), user.getEmail());
                 throw new IncorrectPasswordException("Неверный текущий пароль");
             }
 
             log.info("Текущий пароль проверен, обновляем пароль: userId={}, email={}", user.getId(), user.getEmail());
-            user.setPasswordHash(passwordEncoder.encode(newPassword));
-            user.setPasswordChangedAt(LocalDateTime.now());
-            userRepository.save(user);
-
-            log.info("Отзываем все refresh токены: userId={}, email={}", user.getId(), user.getEmail());
-            // Отзываем все refresh токены пользователя
-            refreshTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
+            String newPasswordHash = passwordHashingService.encode(newPassword);
 
             log.info("Генерируем новые токены: userId={}, email={}", user.getId(), user.getEmail());
             // Генерируем новые токены
             String newAccessToken = jwtUtil.generateAccessToken(user.getEmail(), user.getId().toString(), user.getRole().name());
             String newRefreshToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId().toString());
 
-            // Сохраняем новый refresh token
-            saveRefreshToken(user, newRefreshToken, ipAddress, userAgent);
+            inTransaction(user.getId(), current -> {
+                checkPasswordUnchanged(current, user.getPasswordHash(), "Неверный текущий пароль");
+
+                current.setPasswordHash(newPasswordHash);
+                current.setPasswordChangedAt(LocalDateTime.now());
+                userRepository.save(current);
+                eventPublisher.publishEvent(new UserSecurityChangedEvent(current.getId()));
+
+                log.info("Отзываем все refresh токены: userId={}, email={}", current.getId(), current.getEmail());
+                // Отзываем все refresh токены пользователя
+                refreshTokenStore.revokeAllForUser(current);
+
+                // Сохраняем новый refresh token
+                saveRefreshToken(current, newRefreshToken, ipAddress, userAgent);
+            });
 
             LogUtils.setOperationTags(LogUtils.OPERATION_CHANGE_PASSWORD, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_SUCCESS);
             log.info("Смена пароля завершена успешно: userId={}, email={}", user.getId(), user.getEmail());
@@ -374,20 +414,30 @@ public class AuthServiceImpl implements AuthService {
     }
 
     /**
-     * Сохраняет refresh token в базе данных
+     * Выполняет изменения пользователя в короткой транзакции по актуальному состоянию из БД
+     */
+    private void inTransaction(UUID userId, Consumer<User> action) {
+        transactionTemplate.executeWithoutResult(status -> action.accept(userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"))));
+    }
+
+    /**
+     * Проверяет, что пароль не сменили, пока хэш проверялся вне транзакции
+     */
+    private void checkPasswordUnchanged(User user, String verifiedPasswordHash, String message) {
+        if (!user.getPasswordHash().equals(verifiedPasswordHash)) {
+            log.warn("Пароль изменен во время проверки: userId={}, email={}", user.getId(), user.getEmail());
+            throw new IncorrectPasswordException(message);
+        }
+    }
+
+    /**
+     * Сохраняет refresh token в хранилище токенов
      */
     private void saveRefreshToken(User user, String token, String ipAddress, String userAgent) {
         log.debug("Сохраняем refresh token для пользователя: {}", user.getEmail());
         
-        RefreshToken refreshToken = RefreshToken.builder()
-                .user(user)
-                .token(token)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
-        
-        refreshTokenRepository.save(refreshToken);
+        refreshTokenStore.save(user, token, LocalDateTime.now().plusDays(REFRESH_TOKEN_TTL_DAYS), ipAddress, userAgent);
         log.debug("Refresh token сохранен успешно для пользователя: {}", user.getEmail());
     }
 
@@ -403,5 +453,6 @@ public class AuthServiceImpl implements AuthService {
         }
         
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getId()));
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package azhue.katering.azhurkateringbackendjava.auth.service;
 
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.security.AuthenticatedUser;
 import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.CurrentUserService;
 import azhue.katering.azhurkateringbackendjava.auth.exception.account.UserNotAuthenticatedException;
 import azhue.katering.azhurkateringbackendjava.auth.exception.account.UserNotFoundException;
@@ -15,7 +17,9 @@ import java.util.UUID;
  * Сервис для работы с текущим пользователем.
  * 
  * <p>Предоставляет методы для получения информации о текущем
- * аутентифицированном пользователе из Spring Security контекста.</p>
+ * аутентифицированном пользователе из Spring Security контекста.
+ * Идентификатор берется из principal без обращения к базе данных,
+ * сущность {@link User} загружается только по запросу.</p>
  * 
  * @version 1.0.0
  */
@@ -24,6 +28,8 @@ import java.util.UUID;
 @Slf4j
 public class CurrentUserServiceImpl implements CurrentUserService {
 
+    private final UserRepository userRepository;
+
     /**
      * Получает текущего пользователя из аутентификации
      */
@@ -37,7 +43,8 @@ public class CurrentUserServiceImpl implements CurrentUserService {
             return (User) authentication.getPrincipal();
         }
 
-        throw new UserNotFoundException("Не удалось получить информацию о пользователе");
+        return userRepository.findById(getCurrentUserId(authentication))
+                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
     }
 
     /**
@@ -45,7 +52,19 @@ public class CurrentUserServiceImpl implements CurrentUserService {
      */
     @Override
     public UUID getCurrentUserId(Authentication authentication) {
-        return getCurrentUser(authentication).getId();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new UserNotAuthenticatedException("Пользователь не аутентифицирован");
+        }
+
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.id();
+        }
+
+        if (authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+
+        throw new UserNotFoundException("Не удалось получить информацию о пользователе");
     }
 
     /**
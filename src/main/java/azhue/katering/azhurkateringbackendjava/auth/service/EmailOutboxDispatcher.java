@@ -0,0 +1,380 @@
+package azhue.katering.azhurkateringbackendjava.auth.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.event.EmailEnqueuedEvent;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.EmailOutboxMessage;
+import azhue.katering.azhurkateringbackendjava.auth.repository.EmailOutboxRepository;
+import azhue.katering.azhurkateringbackendjava.common.service.MetricsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Отправитель писем из outbox.
+ *
+ * <p>Несколько потоков-отправителей захватывают письма пачками и отправляют их
+ * через собственное SMTP соединение, которое остается открытым между пачками и
+ * закрывается после {@code app.mail.outbox.idle-timeout} простоя. Так пул
+ * отправителей одновременно служит пулом SMTP соединений, а рукопожатие TLS и
+ * аутентификация не повторяются для каждого письма.</p>
+ *
+ * <p>Неудачная отправка повторяется с экспоненциальной задержкой со случайным
+ * разбросом. После {@code app.mail.outbox.max-attempts} попыток письмо переводится
+ * в статус FAILED. Письмо, захваченное упавшим инстансом, отправляется повторно
+ * после истечения аренды, то есть доставка выполняется как минимум один раз.</p>
+ *
+ * <p>Отправители работают на платформенных потоках и в режиме виртуальных потоков:
+ * SMTP транспорт JavaMail блокируется на сети внутри {@code synchronized} методов
+ * и закреплял бы потоки-носители.</p>
+ *
+ * <p>Метрики: {@code email.outbox.pending}, {@code email.outbox.send.time},
+ * {@code email.outbox.batch.size} и {@code email.outbox.messages} с тегом {@code result}.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSenderImpl mailSender;
+    private final MetricsService metricsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.mail.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.mail.outbox.senders:2}")
+    private int senders;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.poll-interval:1s}")
+    private Duration pollInterval;
+
+    @Value("${app.mail.outbox.lease:5m}")
+    private Duration lease;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff:10s}")
+    private Duration initialBackoff;
+
+    @Value("${app.mail.outbox.max-backoff:30m}")
+    private Duration maxBackoff;
+
+    @Value("${app.mail.outbox.idle-timeout:60s}")
+    private Duration idleTimeout;
+
+    private final Object signal = new Object();
+    private final AtomicLong pending = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+    private volatile boolean running;
+
+    private Timer sendTimer;
+    private DistributionSummary batchSizeSummary;
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter failedCounter;
+
+    /**
+     * Запускает отправителей после применения миграций
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Отправка писем из outbox отключена");
+            return;
+        }
+
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("Письма, ожидающие отправки")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("email.outbox.send.time")
+                .description("Время отправки одного письма по SMTP")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("email.outbox.batch.size")
+                .description("Размер пачки писем, захваченной отправителем")
+                .register(meterRegistry);
+        this.sentCounter = messages("sent");
+        this.retryCounter = messages("retry");
+        this.failedCounter = messages("failed");
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(senders, senders, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(senders),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        running = true;
+        for (int i = 0; i < senders; i++) {
+            executor.execute(this::runSender);
+        }
+        log.info("Отправители outbox запущены: senders={}, batchSize={}, pollInterval={}",
+                senders, batchSize, pollInterval);
+    }
+
+    /**
+     * Останавливает отправителей, дождавшись текущих пачек
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Будит отправителей после фиксации транзакции с новым письмом
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmailEnqueued(EmailEnqueuedEvent event) {
+        pending.incrementAndGet();
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Обновляет глубину очереди
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.depth-refresh-interval:15000}")
+    public void refreshQueueDepth() {
+        if (running) {
+            pending.set(emailOutboxRepository.countByStatus(EmailOutboxMessage.Status.PENDING));
+        }
+    }
+
+    /**
+     * Цикл одного отправителя со своим SMTP соединением
+     */
+    private void runSender() {
+        SmtpConnection connection = new SmtpConnection(mailSender);
+        try {
+            while (running) {
+                List<EmailOutboxMessage> batch;
+                try {
+                    LocalDateTime now = LocalDateTime.now();
+                    batch = emailOutboxRepository.claimBatch(now, now.plus(lease), batchSize);
+                } catch (Exception e) {
+                    log.error("Ошибка захвата писем из outbox", e);
+                    await();
+                    continue;
+                }
+
+                if (batch.isEmpty()) {
+                    connection.closeIfIdle(idleTimeout);
+                    await();
+                    continue;
+                }
+                deliver(batch, connection);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Отправляет пачку по одному соединению и фиксирует результаты
+     */
+    private void deliver(List<EmailOutboxMessage> batch, SmtpConnection connection) {
+        batchSizeSummary.record(batch.size());
+        List<UUID> delivered = new ArrayList<>(batch.size());
+
+        for (EmailOutboxMessage message : batch) {
+            long start = System.nanoTime();
+            try {
+                connection.send(toMimeMessage(message));
+                delivered.add(message.getId());
+            } catch (MessagingException | RuntimeException e) {
+                if (!(e instanceof SendFailedException)) {
+                    // Ошибка соединения: следующее письмо откроет новое
+                    connection.close();
+                }
+                recordFailure(message, e);
+            } finally {
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            emailOutboxRepository.deleteDelivered(delivered);
+            sentCounter.increment(delivered.size());
+            delivered.forEach(id -> metricsService.incrementEmailsSent());
+            pending.updateAndGet(value -> Math.max(0L, value - delivered.size()));
+        }
+        log.debug("Пачка писем обработана: size={}, delivered={}", batch.size(), delivered.size());
+    }
+
+    /**
+     * Переносит письмо на следующую попытку или переводит в FAILED
+     */
+    private void recordFailure(EmailOutboxMessage message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        LocalDateTime now = LocalDateTime.now();
+        String reason = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (reason.length() > MAX_ERROR_LENGTH) {
+            reason = reason.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        try {
+            if (attempts >= maxAttempts) {
+                emailOutboxRepository.recordFailure(message.getId(), EmailOutboxMessage.Status.FAILED, now, reason, now);
+                failedCounter.increment();
+                pending.updateAndGet(value -> Math.max(0L, value - 1));
+                log.error("Письмо не доставлено после {} попыток: id={}, recipient={}, error={}",
+                        attempts, message.getId(), message.getRecipient(), reason);
+            } else {
+                Duration backoff = backoff(attempts);
+                emailOutboxRepository.recordFailure(message.getId(), EmailOutboxMessage.Status.PENDING,
+                        now.plus(backoff), reason, now);
+                retryCounter.increment();
+                log.warn("Ошибка отправки письма, повтор через {}: id={}, attempt={}, error={}",
+                        backoff, message.getId(), attempts, reason);
+            }
+        } catch (Exception e) {
+            // Письмо будет отправлено повторно после истечения аренды
+            log.error("Не удалось сохранить результат отправки письма: id={}", message.getId(), e);
+        }
+    }
+
+    /**
+     * Экспоненциальная задержка со случайным разбросом в пределах второй половины интервала
+     */
+    private Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, StandardCharsets.UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody());
+        return mimeMessage;
+    }
+
+    private void await() {
+        synchronized (signal) {
+            if (!running) {
+                return;
+            }
+            try {
+                signal.wait(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    private Counter messages(String result) {
+        return Counter.builder("email.outbox.messages")
+                .description("Результаты отправки писем из outbox")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * SMTP соединение отправителя, открытое между пачками
+     */
+    private static final class SmtpConnection {
+
+        private final JavaMailSenderImpl mailSender;
+        private Transport transport;
+        private long lastUsedNanos;
+
+        SmtpConnection(JavaMailSenderImpl mailSender) {
+            this.mailSender = mailSender;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            if (transport == null || !transport.isConnected()) {
+                close();
+                Transport connected = mailSender.getSession().getTransport(mailSender.getProtocol());
+                connected.connect(mailSender.getHost(), mailSender.getPort(),
+                        mailSender.getUsername(), mailSender.getPassword());
+                transport = connected;
+            }
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            lastUsedNanos = System.nanoTime();
+        }
+
+        void closeIfIdle(Duration idleTimeout) {
+            if (transport != null && System.nanoTime() - lastUsedNanos > idleTimeout.toNanos()) {
+                close();
+            }
+        }
+
+        void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Ошибка закрытия SMTP соединения: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package azhue.katering.azhurkateringbackendjava.auth.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.event.EmailEnqueuedEvent;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.EmailOutboxMessage;
+import azhue.katering.azhurkateringbackendjava.auth.repository.EmailOutboxRepository;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.EmailOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сервис outbox исходящих писем.
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Добавляет письмо в очередь на отправку в текущей транзакции
+     */
+    @Override
+    @Transactional
+    public void enqueue(String recipient, String subject, String body) {
+        EmailOutboxMessage message = emailOutboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+
+        eventPublisher.publishEvent(new EmailEnqueuedEvent(message.getId()));
+        log.debug("Письмо добавлено в outbox: id={}, recipient={}", message.getId(), recipient);
+    }
+}
@@ -1,26 +1,25 @@
 package azhue.katering.azhurkateringbackendjava.auth.service;
 
+import azhue.katering.azhurkateringbackendjava.auth.event.UserSecurityChangedEvent;
 import azhue.katering.azhurkateringbackendjava.auth.exception.account.UserNotFoundException;
 import azhue.katering.azhurkateringbackendjava.auth.exception.email.VereficationCodeException;
 import azhue.katering.azhurkateringbackendjava.auth.exception.email.VerifiedException;
-import azhue.katering.azhurkateringbackendjava.auth.model.entity.EmailVerification;
 import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
-import azhue.katering.azhurkateringbackendjava.auth.repository.EmailVerificationRepository;
 import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.EmailOutboxService;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.EmailService;
+import azhue.katering.azhurkateringbackendjava.auth.store.VerificationCodeStore;
 import azhue.katering.azhurkateringbackendjava.common.service.MetricsService;
 import azhue.katering.azhurkateringbackendjava.common.util.LogUtils;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Random;
 
 /**
@@ -36,20 +35,19 @@ import java.util.Random;
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
     private final UserRepository userRepository;
-    private final EmailVerificationRepository emailVerificationRepository;
+    private final VerificationCodeStore verificationCodeStore;
+    private final EmailOutboxService emailOutboxService;
     private final MetricsService metricsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final int CODE_EXPIRATION_MINUTES = 15;
+    private static final String VERIFICATION_SUBJECT = "Код подтверждения - Azhur Katering";
     
     // Константы для операций логирования
     private static final String OPERATION_SEND_VERIFICATION = "send_verification";
     private static final String OPERATION_VERIFY_EMAIL = "verify_email";
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
     /**
      * Генерирует случайный код подтверждения
      */
@@ -60,54 +58,42 @@ public class EmailServiceImpl implements EmailService {
     }
 
     /**
-     * Асинхронно отправляет код подтверждения
+     * Выпускает код подтверждения и ставит письмо в outbox.
+     *
+     * <p>Код и письмо сохраняются в транзакции вызывающего кода, отправку
+     * выполняет {@link EmailOutboxDispatcher} после фиксации.</p>
      */
-    @Async
+    @Override
     @Transactional
-    public void sendVerificationCodeAsync(User user, String ipAddress) {
+    public void enqueueVerificationCode(User user, String ipAddress) {
         if (user == null) {
             log.error("Cannot send verification code: user is null");
             return;
         }
 
+        // Метод выполняется внутри операции вызывающего кода: ее теги восстанавливаются в finally
+        Map<String, String> callerTags = LogUtils.captureTags();
         LogUtils.setOperationTags(OPERATION_SEND_VERIFICATION, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_START);
         log.info("Начинаем отправку кода верификации: userId={}, email={}", user.getId(), user.getEmail());
         Timer.Sample timer = metricsService.startEmailProcessingTimer();
         
         try {
-            // Отзываем все предыдущие действительные коды
-            log.info("Отзываем предыдущие коды верификации: userId={}, email={}", user.getId(), user.getEmail());
-            revokeAllValidCodes(user.getEmail());
-            
             String verificationCode = generateVerificationCode();
             log.info("Сгенерирован код верификации: userId={}, email={}", user.getId(), user.getEmail());
             
-            log.info("Подготавливаем email: userId={}, email={}, fromEmail={}", user.getId(), user.getEmail(), fromEmail);
-
-            SimpleMailMessage message = getSimpleMailMessage(user, verificationCode);
-
+            // Новый код заменяет все предыдущие действительные коды
             log.info("Сохраняем запись верификации: userId={}, email={}", user.getId(), user.getEmail());
-
-            EmailVerification emailVerification = EmailVerification.builder()
-                    .user(user)
-                    .verificationCode(verificationCode)
-                    .expiresAt(LocalDateTime.now().plusMinutes(CODE_EXPIRATION_MINUTES))
-                    .ipAddress(ipAddress)
-                    .build();
-
-            emailVerificationRepository.save(emailVerification);
+            verificationCodeStore.issue(user, verificationCode,
+                    LocalDateTime.now().plusMinutes(CODE_EXPIRATION_MINUTES), ipAddress);
             log.info("Запись верификации сохранена: userId={}, email={}", user.getId(), user.getEmail());
 
-            log.info("Отправляем email: userId={}, email={}", user.getId(), user.getEmail());
-            mailSender.send(message);
+            log.info("Ставим email в очередь на отправку: userId={}, email={}", user.getId(), user.getEmail());
+            emailOutboxService.enqueue(user.getEmail(), VERIFICATION_SUBJECT, verificationEmailBody(verificationCode));
 
             LogUtils.setOperationTags(OPERATION_SEND_VERIFICATION, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_SUCCESS);
-            log.info("Код верификации отправлен успешно: userId={}, email={}", user.getId(), user.getEmail());
-            
-            // Увеличиваем счетчик отправленных email
-            metricsService.incrementEmailsSent();
+            log.info("Код верификации поставлен в очередь: userId={}, email={}", user.getId(), user.getEmail());
         } finally {
-            LogUtils.clearTags();
+            LogUtils.restoreTags(callerTags);
             metricsService.stopEmailProcessingTimer(timer);
         }
     }
@@ -116,6 +102,7 @@ public class EmailServiceImpl implements EmailService {
      * Отправляет код подтверждения по email
      */
     @Override
+    @Transactional
     public void sendVerificationCode(String email, String ipAddress) {
         log.info("Запрос на отправку кода верификации: email={}, ip={}", email, ipAddress);
         
@@ -126,31 +113,11 @@ public class EmailServiceImpl implements EmailService {
                 });
         
         log.info("Пользователь найден, отправляем код: userId={}, email={}", user.getId(), user.getEmail());
-        sendVerificationCodeAsync(user, ipAddress);
+        enqueueVerificationCode(user, ipAddress);
     }
 
-    /**
-     * Отзывает все действительные коды верификации
-     */
-    private void revokeAllValidCodes(String email) {
-        emailVerificationRepository.findValidVerificationByUserEmail(email, LocalDateTime.now())
-                .ifPresent(verification -> {
-                    log.debug("Отзываем предыдущий код верификации: email={}, code={}", email, verification.getVerificationCode());
-                    verification.use();
-                    emailVerificationRepository.save(verification);
-                    log.debug("Код верификации отозван: email={}", email);
-                });
-    }
-
-    private SimpleMailMessage getSimpleMailMessage(User user, String verificationCode) {
-        log.debug("Создаем email сообщение: userId={}, email={}", user.getId(), user.getEmail());
-        
-        SimpleMailMessage message = new SimpleMailMessage();
-
-        message.setFrom(fromEmail);
-        message.setTo(user.getEmail());
-        message.setSubject("Код подтверждения - Azhur Katering");
-        message.setText(String.format(
+    private String verificationEmailBody(String verificationCode) {
+        return String.format(
                 """
                         Здравствуйте!
                         
@@ -162,10 +129,7 @@ public class EmailServiceImpl implements EmailService {
                         С уважением,
                         Команда Azhur Katering""",
                 verificationCode
-        ));
-        
-        log.debug("Email сообщение создано: userId={}, email={}, fromEmail={}", user.getId(), user.getEmail(), fromEmail);
-        return message;
+        );
     }
 
     /**
@@ -207,10 +171,11 @@ public class EmailServiceImpl implements EmailService {
             user.setIsVerified(true);
             user.setEmailVerifiedAt(LocalDateTime.now());
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getId()));
 
             log.info("Отзываем использованный код: userId={}, email={}", user.getId(), user.getEmail());
             // Удаляем использованный код
-            revokeAllValidCodes(user.getEmail());
+            verificationCodeStore.revoke(user.getEmail());
 
             LogUtils.setOperationTags(OPERATION_VERIFY_EMAIL, user.getId().toString(), user.getEmail(), ipAddress, LogUtils.STATUS_SUCCESS);
             log.info("Email верифицирован успешно: userId={}, email={}", user.getId(), user.getEmail());
@@ -230,8 +195,8 @@ public class EmailServiceImpl implements EmailService {
     private boolean verifyEmailCode(String email, String code) {
         log.debug("Проверяем код верификации: email={}, code={}", email, code);
         
-        boolean isValid = emailVerificationRepository.findValidVerificationByUserEmail(email, LocalDateTime.now())
-                .map(verification -> verification.getVerificationCode().equals(code))
+        boolean isValid = verificationCodeStore.findValidCode(email)
+                .map(code::equals)
                 .orElse(false);
         
         log.debug("Результат проверки кода: email={}, code={}, isValid={}", email, code, isValid);
@@ -0,0 +1,168 @@
+package azhue.katering.azhurkateringbackendjava.auth.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.PasswordHashingService;
+import azhue.katering.azhurkateringbackendjava.common.exception.general.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реализация сервиса хэширования паролей.
+ *
+ * <p>BCrypt выполняется на пуле размером с число ядер (или {@code app.security.password-hashing.threads})
+ * с ограниченной очередью. Если очередь заполнена или хэш не вычислен за
+ * {@code app.security.password-hashing.timeout}, запрос сразу получает
+ * {@link ServiceOverloadedException} (503 с Retry-After).</p>
+ *
+ * <p>Метрики: {@code password.hashing.queue.depth}, {@code password.hashing.active},
+ * {@code password.hashing.time{operation}}, {@code password.hashing.rejected{reason}}.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final String OVERLOADED_MESSAGE = "Сервис перегружен, попробуйте позже.";
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.security.password-hashing.timeout:2s}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter queueFullCounter;
+    private Counter timeoutCounter;
+
+    /**
+     * Создает пул хэширования и регистрирует метрики
+     */
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Задачи хэширования паролей в очереди")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Выполняемые задачи хэширования паролей")
+                .register(meterRegistry);
+        this.encodeTimer = hashTimer("encode");
+        this.matchesTimer = hashTimer("matches");
+        this.queueFullCounter = rejectedCounter("queue_full");
+        this.timeoutCounter = rejectedCounter("timeout");
+
+        log.info("Пул хэширования паролей создан: threads={}, queueCapacity={}, timeout={}",
+                poolSize, queueCapacity, timeout);
+    }
+
+    /**
+     * Останавливает пул хэширования
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Вычисляет хэш пароля на пуле хэширования
+     */
+    @Override
+    public String encode(String rawPassword) {
+        return execute(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Проверяет пароль по хэшу на пуле хэширования
+     */
+    @Override
+    public boolean matches(String rawPassword, String passwordHash) {
+        return execute(matchesTimer, () -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    /**
+     * Выполняет задачу на пуле с ограничением очереди и времени ожидания
+     */
+    private <T> T execute(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            log.warn("Очередь хэширования паролей заполнена: queued={}", executor.getQueue().size());
+            throw new ServiceOverloadedException(OVERLOADED_MESSAGE);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            log.warn("Хэширование пароля не завершено за {}", timeout);
+            throw new ServiceOverloadedException(OVERLOADED_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException(OVERLOADED_MESSAGE);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Ошибка хэширования пароля", cause);
+        }
+    }
+
+    private Timer hashTimer(String operation) {
+        return Timer.builder("password.hashing.time")
+                .description("Время хэширования и проверки паролей")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("password.hashing.rejected")
+                .description("Запросы хэширования, отклоненные при перегрузке")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,136 @@
+package azhue.katering.azhurkateringbackendjava.auth.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.event.UserSecurityChangedEvent;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.security.SecurityStamp;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.SecurityStampService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Реализация сервиса security stamp.
+ *
+ * <p>Stamp хранится в ограниченном локальном кэше и загружается из базы данных
+ * одним запросом-проекцией только при промахе. Запись сбрасывается по
+ * {@link UserSecurityChangedEvent} после завершения транзакции, изменившей
+ * пользователя, а идентификатор пользователя рассылается через Redis pub/sub,
+ * и остальные инстансы сбрасывают свою запись. Смена пароля, блокировка или
+ * деактивация видны на всех инстансах сразу после фиксации. TTL только
+ * ограничивает устаревание, если сообщение потеряно.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SecurityStampServiceImpl implements SecurityStampService, MessageListener {
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.security.stamp-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${app.security.stamp-cache.ttl:60s}")
+    private Duration cacheTtl;
+
+    @Value("${app.security.stamp-cache.channel:security:stamp-changed}")
+    private String channel;
+
+    private Cache<UUID, SecurityStamp> stampCache;
+
+    /**
+     * Создает кэш security stamp при старте
+     */
+    @PostConstruct
+    void init() {
+        this.stampCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Получает security stamp пользователя из кэша или базы данных
+     */
+    @Override
+    public Optional<SecurityStamp> getStamp(UUID userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(stampCache.get(userId,
+                id -> userRepository.findSecurityStampById(id).orElse(null)));
+    }
+
+    /**
+     * Сбрасывает закэшированный security stamp пользователя
+     */
+    @Override
+    public void invalidate(UUID userId) {
+        if (userId != null) {
+            stampCache.invalidate(userId);
+            log.debug("Security stamp сброшен: userId={}", userId);
+        }
+    }
+
+    /**
+     * Сбрасывает stamp после завершения транзакции, изменившей пользователя,
+     * и оповещает остальные инстансы.
+     *
+     * <p>Срабатывает и при откате, и вне транзакции, чтобы stamp не пережил изменение.</p>
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        invalidate(event.userId());
+        publishChange(event.userId());
+    }
+
+    /**
+     * Сбрасывает stamp по сообщению другого инстанса.
+     *
+     * <p>Собственные сообщения тоже приходят сюда, повторный сброс безопасен.</p>
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            invalidate(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректное сообщение сброса security stamp: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Рассылает идентификатор пользователя остальным инстансам.
+     *
+     * <p>Ошибка Redis не прерывает операцию: другие инстансы увидят изменение по истечении TTL.</p>
+     */
+    private void publishChange(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, userId.toString());
+        } catch (Exception e) {
+            log.warn("Не удалось оповестить другие инстансы о сбросе security stamp {}: {}", userId, e.getMessage());
+        }
+    }
+}
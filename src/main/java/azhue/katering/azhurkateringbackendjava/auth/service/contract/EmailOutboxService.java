@@ -0,0 +1,18 @@
+package azhue.katering.azhurkateringbackendjava.auth.service.contract;
+
+/**
+ * Интерфейс outbox исходящих писем.
+ *
+ * <p>Письмо сохраняется в транзакции вызывающего кода и отправляется
+ * {@code EmailOutboxDispatcher} после ее фиксации, поэтому откат транзакции
+ * отменяет и письмо, а запрос не ждет SMTP сервер.</p>
+ *
+ * @version 1.0.0
+ */
+public interface EmailOutboxService {
+
+    /**
+     * Добавляет письмо в очередь на отправку
+     */
+    void enqueue(String recipient, String subject, String body);
+}
@@ -13,9 +13,11 @@ import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
 public interface EmailService {
 
     /**
-     * Асинхронно отправляет код подтверждения
+     * Выпускает код подтверждения и ставит письмо в outbox в транзакции вызывающего кода.
+     *
+     * <p>Письмо уходит после фиксации транзакции, при ее откате не отправляется.</p>
      */
-    void sendVerificationCodeAsync(User user, String ipAddress);
+    void enqueueVerificationCode(User user, String ipAddress);
 
     /**
      * Верифицирует email пользователя
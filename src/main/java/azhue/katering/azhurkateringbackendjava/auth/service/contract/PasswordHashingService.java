@@ -0,0 +1,22 @@
+package azhue.katering.azhurkateringbackendjava.auth.service.contract;
+
+/**
+ * Интерфейс для хэширования и проверки паролей.
+ *
+ * <p>Хэширование выполняется на отдельном ограниченном пуле потоков, чтобы
+ * всплеск входов не занимал все ядра и потоки обработки запросов.</p>
+ *
+ * @version 1.0.0
+ */
+public interface PasswordHashingService {
+
+    /**
+     * Вычисляет хэш пароля
+     */
+    String encode(String rawPassword);
+
+    /**
+     * Проверяет пароль по хэшу
+     */
+    boolean matches(String rawPassword, String passwordHash);
+}
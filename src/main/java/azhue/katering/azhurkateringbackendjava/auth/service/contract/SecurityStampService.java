@@ -0,0 +1,27 @@
+package azhue.katering.azhurkateringbackendjava.auth.service.contract;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.security.SecurityStamp;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Интерфейс для работы с security stamp пользователей.
+ *
+ * <p>Security stamp используется фильтром аутентификации вместо загрузки
+ * полной сущности пользователя на каждый запрос.</p>
+ *
+ * @version 1.0.0
+ */
+public interface SecurityStampService {
+
+    /**
+     * Получает security stamp пользователя
+     */
+    Optional<SecurityStamp> getStamp(UUID userId);
+
+    /**
+     * Сбрасывает закэшированный security stamp пользователя
+     */
+    void invalidate(UUID userId);
+}
@@ -0,0 +1,83 @@
+package azhue.katering.azhurkateringbackendjava.auth.store;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.projection.RefreshTokenOwner;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.RefreshToken;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.RefreshTokenRepository;
+import azhue.katering.azhurkateringbackendjava.security.jwt.util.TokenDigest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Хранилище refresh токенов в PostgreSQL.
+ *
+ * <p>Используется по умолчанию и для развертывания на одном узле.</p>
+ *
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.token-store", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public void save(User user, String token, LocalDateTime expiresAt, String ipAddress, String userAgent) {
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(TokenDigest.sha256(token))
+                .expiresAt(expiresAt)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .build());
+    }
+
+    @Override
+    public Optional<RefreshTokenOwner> rotate(String oldToken, UUID userId, String newToken,
+                                              LocalDateTime newExpiresAt, String ipAddress, String userAgent) {
+        return refreshTokenRepository.rotate(
+                TokenDigest.sha256(oldToken),
+                userId,
+                UUID.randomUUID(),
+                TokenDigest.sha256(newToken),
+                newExpiresAt,
+                ipAddress,
+                userAgent,
+                LocalDateTime.now());
+    }
+
+    @Override
+    public boolean exists(String token) {
+        return refreshTokenRepository.findByTokenHash(TokenDigest.sha256(token)).isPresent();
+    }
+
+    @Override
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(TokenDigest.sha256(token))
+                .ifPresent(refreshToken -> {
+                    refreshToken.revoke();
+                    refreshTokenRepository.save(refreshToken);
+                });
+    }
+
+    @Override
+    public void revokeAllForUser(User user) {
+        refreshTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now, int limit) {
+        return refreshTokenRepository.deleteExpiredTokensBatch(now, limit);
+    }
+
+    @Override
+    public long countExpired(LocalDateTime now) {
+        return refreshTokenRepository.countByExpiresAtBefore(now);
+    }
+}
@@ -0,0 +1,72 @@
+package azhue.katering.azhurkateringbackendjava.auth.store;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.EmailVerification;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.EmailVerificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Хранилище кодов подтверждения email в PostgreSQL.
+ *
+ * <p>Используется по умолчанию и для развертывания на одном узле.</p>
+ *
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.token-store", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaVerificationCodeStore implements VerificationCodeStore {
+
+    private final EmailVerificationRepository emailVerificationRepository;
+
+    @Override
+    public void issue(User user, String code, LocalDateTime expiresAt, String ipAddress) {
+        revoke(user.getEmail());
+        emailVerificationRepository.save(EmailVerification.builder()
+                .user(user)
+                .verificationCode(code)
+                .expiresAt(expiresAt)
+                .ipAddress(ipAddress)
+                .build());
+    }
+
+    @Override
+    public Optional<String> findValidCode(String email) {
+        return emailVerificationRepository.findValidVerificationByUserEmail(email, LocalDateTime.now())
+                .map(EmailVerification::getVerificationCode);
+    }
+
+    @Override
+    public void revoke(String email) {
+        emailVerificationRepository.findValidVerificationByUserEmail(email, LocalDateTime.now())
+                .ifPresent(verification -> {
+                    verification.use();
+                    emailVerificationRepository.save(verification);
+                });
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now, int limit) {
+        return emailVerificationRepository.deleteExpiredVerificationsBatch(now, limit);
+    }
+
+    @Override
+    public int deleteUsed(int limit) {
+        return emailVerificationRepository.deleteUsedVerificationsBatch(limit);
+    }
+
+    @Override
+    public long countExpired(LocalDateTime now) {
+        return emailVerificationRepository.countByExpiresAtBefore(now);
+    }
+
+    @Override
+    public long countUsed() {
+        return emailVerificationRepository.countByIsUsedTrue();
+    }
+}
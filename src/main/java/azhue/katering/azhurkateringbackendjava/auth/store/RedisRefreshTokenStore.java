@@ -0,0 +1,129 @@
+package azhue.katering.azhurkateringbackendjava.auth.store;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.projection.RefreshTokenOwner;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.security.jwt.util.TokenDigest;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Хранилище refresh токенов в Redis.
+ *
+ * <p>Токен хранится хешем под ключом {@code <prefix>:<sha256>} и удаляется Redis
+ * в момент истечения, поэтому периодическая очистка не нужна. Для отзыва всех
+ * токенов пользователя ведется индекс {@code <prefix>:user:<id>}: множество ключей
+ * его токенов, которое живет не меньше самого долгого из них.</p>
+ *
+ * <p>Ротация и отзыв выполняются Lua скриптами и затрагивают ключи одного
+ * пользователя в одном вызове, поэтому рассчитаны на Redis без кластера.</p>
+ *
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.token-store", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepository userRepository;
+
+    @Value("${app.auth.redis.refresh-token-prefix:refresh-token}")
+    private String keyPrefix;
+
+    private RedisScript<Long> issueScript;
+    private RedisScript<Long> rotateScript;
+    private RedisScript<Long> revokeScript;
+    private RedisScript<Long> revokeAllScript;
+
+    /**
+     * Загружает Lua скрипты
+     */
+    @PostConstruct
+    void init() {
+        this.issueScript = RedisScript.of(new ClassPathResource("redis/refresh_token_issue.lua"), Long.class);
+        this.rotateScript = RedisScript.of(new ClassPathResource("redis/refresh_token_rotate.lua"), Long.class);
+        this.revokeScript = RedisScript.of(new ClassPathResource("redis/refresh_token_revoke.lua"), Long.class);
+        this.revokeAllScript = RedisScript.of(new ClassPathResource("redis/refresh_token_revoke_all.lua"), Long.class);
+        log.info("Refresh токены хранятся в Redis: prefix={}", keyPrefix);
+    }
+
+    @Override
+    public void save(User user, String token, LocalDateTime expiresAt, String ipAddress, String userAgent) {
+        redisTemplate.execute(issueScript,
+                List.of(tokenKey(token), userIndexKey(user.getId())),
+                user.getId().toString(), epochMillis(expiresAt), nullToEmpty(ipAddress), nullToEmpty(userAgent));
+    }
+
+    @Override
+    public Optional<RefreshTokenOwner> rotate(String oldToken, UUID userId, String newToken,
+                                              LocalDateTime newExpiresAt, String ipAddress, String userAgent) {
+        Long rotated = redisTemplate.execute(rotateScript,
+                List.of(tokenKey(oldToken), tokenKey(newToken), userIndexKey(userId)),
+                userId.toString(), epochMillis(newExpiresAt), nullToEmpty(ipAddress), nullToEmpty(userAgent));
+
+        if (rotated == null || rotated == 0L) {
+            return Optional.empty();
+        }
+        return userRepository.findRefreshTokenOwnerById(userId);
+    }
+
+    @Override
+    public boolean exists(String token) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(tokenKey(token)));
+    }
+
+    @Override
+    public void revoke(String token) {
+        redisTemplate.execute(revokeScript, List.of(tokenKey(token)));
+    }
+
+    @Override
+    public void revokeAllForUser(User user) {
+        Long revoked = redisTemplate.execute(revokeAllScript, List.of(userIndexKey(user.getId())));
+        log.debug("Отозвано refresh токенов в Redis: userId={}, count={}", user.getId(), revoked);
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now, int limit) {
+        // Истекшие токены удаляет сам Redis
+        return 0;
+    }
+
+    @Override
+    public long countExpired(LocalDateTime now) {
+        return 0L;
+    }
+
+    private String tokenKey(String token) {
+        return keyPrefix + ':' + HexFormat.of().formatHex(TokenDigest.sha256(token));
+    }
+
+    private String userIndexKey(UUID userId) {
+        return keyPrefix + ":user:" + userId;
+    }
+
+    private static String epochMillis(LocalDateTime dateTime) {
+        return String.valueOf(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static String nullToEmpty(String value) {
+        return Objects.requireNonNullElse(value, "");
+    }
+}
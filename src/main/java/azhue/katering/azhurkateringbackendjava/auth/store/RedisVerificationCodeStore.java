@@ -0,0 +1,96 @@
+package azhue.katering.azhurkateringbackendjava.auth.store;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Хранилище кодов подтверждения email в Redis.
+ *
+ * <p>Действующий код пользователя хранится хешем под ключом {@code <prefix>:<email>},
+ * поэтому ключ сам служит индексом по пользователю: выпуск нового кода
+ * перезаписывает предыдущий, отзыв удаляет ключ, истечение выполняет Redis.</p>
+ *
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.token-store", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisVerificationCodeStore implements VerificationCodeStore {
+
+    private static final String CODE_FIELD = "code";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.auth.redis.verification-code-prefix:verification-code}")
+    private String keyPrefix;
+
+    private RedisScript<Long> issueScript;
+
+    /**
+     * Загружает Lua скрипт выпуска кода
+     */
+    @PostConstruct
+    void init() {
+        this.issueScript = RedisScript.of(new ClassPathResource("redis/verification_code_issue.lua"), Long.class);
+        log.info("Коды подтверждения email хранятся в Redis: prefix={}", keyPrefix);
+    }
+
+    @Override
+    public void issue(User user, String code, LocalDateTime expiresAt, String ipAddress) {
+        String expiresAtMillis = String.valueOf(expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        redisTemplate.execute(issueScript, List.of(key(user.getEmail())),
+                code, user.getId().toString(), Objects.requireNonNullElse(ipAddress, ""), expiresAtMillis);
+    }
+
+    @Override
+    public Optional<String> findValidCode(String email) {
+        Object code = redisTemplate.opsForHash().get(key(email), CODE_FIELD);
+        return Optional.ofNullable(code).map(Object::toString);
+    }
+
+    @Override
+    public void revoke(String email) {
+        redisTemplate.delete(key(email));
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now, int limit) {
+        // Истекшие коды удаляет сам Redis
+        return 0;
+    }
+
+    @Override
+    public int deleteUsed(int limit) {
+        // Использованные коды удаляются при отзыве
+        return 0;
+    }
+
+    @Override
+    public long countExpired(LocalDateTime now) {
+        return 0L;
+    }
+
+    @Override
+    public long countUsed() {
+        return 0L;
+    }
+
+    private String key(String email) {
+        return keyPrefix + ':' + email;
+    }
+}
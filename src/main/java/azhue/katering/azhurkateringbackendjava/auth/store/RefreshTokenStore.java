@@ -0,0 +1,60 @@
+package azhue.katering.azhurkateringbackendjava.auth.store;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.projection.RefreshTokenOwner;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Хранилище refresh токенов.
+ *
+ * <p>Токены хранятся только в виде SHA-256 дайджеста. Реализация выбирается
+ * настройкой {@code app.auth.token-store}: {@code postgres} (по умолчанию) или
+ * {@code redis} с нативным истечением записей.</p>
+ *
+ * @version 1.0.0
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Сохраняет новый refresh токен пользователя
+     */
+    void save(User user, String token, LocalDateTime expiresAt, String ipAddress, String userAgent);
+
+    /**
+     * Атомарно отзывает действующий токен пользователя и сохраняет новый
+     *
+     * @return владелец токена или пустой результат, если токен не найден, отозван или истек
+     */
+    Optional<RefreshTokenOwner> rotate(String oldToken, UUID userId, String newToken,
+                                       LocalDateTime newExpiresAt, String ipAddress, String userAgent);
+
+    /**
+     * Проверяет, известен ли токен хранилищу (в том числе отозванный)
+     */
+    boolean exists(String token);
+
+    /**
+     * Отзывает токен
+     */
+    void revoke(String token);
+
+    /**
+     * Отзывает все действующие токены пользователя
+     */
+    void revokeAllForUser(User user);
+
+    /**
+     * Удаляет пачку истекших токенов (для хранилищ без нативного истечения)
+     *
+     * @return число удаленных токенов
+     */
+    int deleteExpired(LocalDateTime now, int limit);
+
+    /**
+     * Возвращает число истекших токенов, ожидающих удаления
+     */
+    long countExpired(LocalDateTime now);
+}
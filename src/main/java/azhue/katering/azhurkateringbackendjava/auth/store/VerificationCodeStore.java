@@ -0,0 +1,56 @@
+package azhue.katering.azhurkateringbackendjava.auth.store;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Хранилище кодов подтверждения email.
+ *
+ * <p>У пользователя действует не больше одного кода: выпуск нового кода отзывает
+ * предыдущий. Реализация выбирается настройкой {@code app.auth.token-store}.</p>
+ *
+ * @version 1.0.0
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * Выпускает новый код пользователя, отзывая предыдущий действующий
+     */
+    void issue(User user, String code, LocalDateTime expiresAt, String ipAddress);
+
+    /**
+     * Находит действующий код по email пользователя
+     */
+    Optional<String> findValidCode(String email);
+
+    /**
+     * Отзывает действующий код пользователя
+     */
+    void revoke(String email);
+
+    /**
+     * Удаляет пачку истекших кодов (для хранилищ без нативного истечения)
+     *
+     * @return число удаленных кодов
+     */
+    int deleteExpired(LocalDateTime now, int limit);
+
+    /**
+     * Удаляет пачку использованных кодов (для хранилищ без нативного истечения)
+     *
+     * @return число удаленных кодов
+     */
+    int deleteUsed(int limit);
+
+    /**
+     * Возвращает число истекших кодов, ожидающих удаления
+     */
+    long countExpired(LocalDateTime now);
+
+    /**
+     * Возвращает число использованных кодов, ожидающих удаления
+     */
+    long countUsed();
+}
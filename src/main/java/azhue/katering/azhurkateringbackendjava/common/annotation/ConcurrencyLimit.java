@@ -0,0 +1,30 @@
+package azhue.katering.azhurkateringbackendjava.common.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Аннотация для ограничения числа одновременно выполняемых запросов.
+ *
+ * <p>Применяется к тяжелым методам контроллеров (BCrypt, S3, обработка изображений).
+ * Используется вместе с ConcurrencyLimitAspect: запросы сверх адаптивного лимита
+ * группы сразу отклоняются с кодом 503, не занимая поток Tomcat.</p>
+ *
+ * @version 1.0.0
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+
+    /**
+     * Имя bean'а адаптивного лимита группы endpoint'ов
+     */
+    String value();
+
+    /**
+     * Сообщение об ошибке при перегрузке
+     */
+    String message() default "Сервис перегружен, попробуйте позже.";
+}
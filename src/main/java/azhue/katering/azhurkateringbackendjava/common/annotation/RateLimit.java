@@ -10,6 +10,9 @@ import java.lang.annotation.Target;
  * 
  * <p>Применяется к методам контроллеров для защиты от злоупотреблений.
  * Используется вместе с RateLimitAspect для проверки лимитов.</p>
+ *
+ * <p>Лимит считается отдельно для каждого клиента по стратегиям из {@link #key()}.
+ * Если указано несколько стратегий, запрос должен пройти все лимиты.</p>
  * 
  * @version 1.0.0
  */
@@ -18,12 +21,45 @@ import java.lang.annotation.Target;
 public @interface RateLimit {
     
     /**
-     * Имя rate limiter bean'а
+     * Имя bean'а с конфигурацией лимита
      */
     String value();
+
+    /**
+     * Стратегии определения ключа клиента
+     */
+    KeyStrategy[] key() default KeyStrategy.IP;
     
     /**
      * Сообщение об ошибке при превышении лимита
      */
     String message() default "Слишком много запросов, попробуйте позже.";
+
+    /**
+     * Стратегия определения ключа, по которому считается лимит
+     */
+    enum KeyStrategy {
+
+        /**
+         * IP адрес клиента
+         */
+        IP,
+
+        /**
+         * ID аутентифицированного пользователя, для анонимных запросов - IP адрес
+         */
+        USER,
+
+        /**
+         * Email из запроса (параметр {@code email} или тело, реализующее
+         * {@link azhue.katering.azhurkateringbackendjava.common.model.dto.EmailAware}),
+         * при отсутствии - IP адрес
+         */
+        EMAIL,
+
+        /**
+         * Один общий лимит для всех клиентов
+         */
+        GLOBAL
+    }
 }
@@ -0,0 +1,70 @@
+package azhue.katering.azhurkateringbackendjava.common.aspect;
+
+import azhue.katering.azhurkateringbackendjava.common.annotation.ConcurrencyLimit;
+import azhue.katering.azhurkateringbackendjava.common.exception.general.ServiceOverloadedException;
+import azhue.katering.azhurkateringbackendjava.common.service.AdaptiveConcurrencyLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Аспект для ограничения числа одновременно выполняемых запросов.
+ *
+ * <p>Перехватывает вызовы методов с аннотацией @ConcurrencyLimit, занимает слот
+ * адаптивного лимита группы и после выполнения сообщает лимиту задержку запроса.
+ * Если слотов нет, запрос сразу отклоняется с {@link ServiceOverloadedException}.</p>
+ *
+ * <p>Выполняется после RateLimitAspect, чтобы запросы сверх rate limit не занимали слоты.</p>
+ *
+ * @version 1.0.0
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class ConcurrencyLimitAspect {
+
+    private final ApplicationContext applicationContext;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * Выполняет метод в пределах адаптивного лимита группы
+     */
+    @Around("@annotation(concurrencyLimit)")
+    public Object limitConcurrency(ProceedingJoinPoint joinPoint, ConcurrencyLimit concurrencyLimit) throws Throwable {
+        AdaptiveConcurrencyLimiter limiter = limiter(concurrencyLimit.value());
+
+        if (!limiter.tryAcquire()) {
+            log.warn("Concurrency limit exceeded for method: {} in group: {} (limit: {})",
+                    joinPoint.getSignature().getName(), limiter.getName(), limiter.getLimit());
+            throw new ServiceOverloadedException(concurrencyLimit.message());
+        }
+
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String name) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(name);
+        if (limiter != null) {
+            return limiter;
+        }
+        return limiters.computeIfAbsent(name,
+                beanName -> applicationContext.getBean(beanName, AdaptiveConcurrencyLimiter.class));
+    }
+}
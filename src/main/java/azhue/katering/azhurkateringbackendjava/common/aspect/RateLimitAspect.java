@@ -1,47 +1,142 @@
 package azhue.katering.azhurkateringbackendjava.common.aspect;
 
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.security.AuthenticatedUser;
 import azhue.katering.azhurkateringbackendjava.common.annotation.RateLimit;
 import azhue.katering.azhurkateringbackendjava.common.exception.general.RateLimitExceededException;
-import io.github.bucket4j.Bucket;
+import azhue.katering.azhurkateringbackendjava.common.model.dto.EmailAware;
+import azhue.katering.azhurkateringbackendjava.common.service.KeyedRateLimiter;
+import azhue.katering.azhurkateringbackendjava.common.util.contract.HttpUtils;
+import azhue.katering.azhurkateringbackendjava.security.filter.RateLimitFilter;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Аспект для ограничения частоты запросов.
- * 
+ *
  * <p>Перехватывает вызовы методов с аннотацией @RateLimit и проверяет
- * лимиты запросов с помощью Bucket4j.</p>
- * 
+ * лимиты запросов с помощью Bucket4j. Лимит считается отдельно для каждого
+ * клиента по ключу, который определяется стратегией из аннотации. Ключи разных
+ * стратегий не пересекаются (IP, email с {@code @}, UUID пользователя), поэтому
+ * все стратегии одного лимита используют общее хранилище bucket'ов.</p>
+ *
+ * <p>Стратегии, уже проверенные в {@link RateLimitFilter} до аутентификации,
+ * повторно не проверяются.</p>
+ *
  * @version 1.0.0
  */
 @Aspect
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 @RequiredArgsConstructor
 @Slf4j
 public class RateLimitAspect {
 
-    private final ApplicationContext applicationContext;
+    /**
+     * Ключ общего для всех клиентов bucket'а
+     */
+    private static final String GLOBAL_KEY = "*";
+
+    private final KeyedRateLimiter keyedRateLimiter;
+    private final HttpUtils httpUtils;
 
     /**
      * Проверяет лимит запросов перед выполнением метода
      */
     @Around("@annotation(rateLimit)")
     public Object rateLimit(ProceedingJoinPoint joinPoint, RateLimit rateLimit) throws Throwable {
-        String bucketName = rateLimit.value();
-        Bucket bucket = applicationContext.getBean(bucketName, Bucket.class);
-        
-        if (bucket.tryConsume(1)) {
-            log.debug("Rate limit check passed for method: {}", joinPoint.getSignature().getName());
-            return joinPoint.proceed();
-        } else {
-            log.warn("Rate limit exceeded for method: {} with bucket: {}", 
-                    joinPoint.getSignature().getName(), bucketName);
-            throw new RateLimitExceededException(rateLimit.message());
+        String limiterName = rateLimit.value();
+        HttpServletRequest request = currentRequest();
+
+        Set<?> enforced = request != null
+                ? (Set<?>) request.getAttribute(RateLimitFilter.ENFORCED_STRATEGIES_ATTRIBUTE)
+                : null;
+
+        for (RateLimit.KeyStrategy strategy : rateLimit.key()) {
+            if (enforced != null && enforced.contains(strategy)) {
+                continue;
+            }
+
+            Object key = resolveKey(strategy, request, joinPoint.getArgs());
+            long waitNanos = keyedRateLimiter.tryConsumeAndGetWait(limiterName, key);
+            if (waitNanos > 0) {
+                log.warn("Rate limit exceeded for method: {} with limiter: {} by {}",
+                        joinPoint.getSignature().getName(), limiterName, strategy);
+                throw new RateLimitExceededException(rateLimit.message(),
+                        Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            }
         }
+
+        log.debug("Rate limit check passed for method: {}", joinPoint.getSignature().getName());
+        return joinPoint.proceed();
+    }
+
+    /**
+     * Определяет ключ клиента по стратегии
+     */
+    private Object resolveKey(RateLimit.KeyStrategy strategy, HttpServletRequest request, Object[] args) {
+        return switch (strategy) {
+            case GLOBAL -> GLOBAL_KEY;
+            case IP -> clientIp(request);
+            case USER -> {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                    yield user.id();
+                }
+                yield clientIp(request);
+            }
+            case EMAIL -> {
+                String email = resolveEmail(request, args);
+                yield email != null ? email : clientIp(request);
+            }
+        };
+    }
+
+    /**
+     * Извлекает email из параметра запроса или из тела запроса
+     */
+    private String resolveEmail(HttpServletRequest request, Object[] args) {
+        String email = request != null ? request.getParameter("email") : null;
+        if (email == null) {
+            for (Object arg : args) {
+                if (arg instanceof EmailAware emailAware) {
+                    email = emailAware.getEmail();
+                    break;
+                }
+            }
+        }
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Возвращает IP адрес клиента текущего запроса
+     */
+    private String clientIp(HttpServletRequest request) {
+        return request != null ? httpUtils.getClientIpAddress(request) : "unknown";
+    }
+
+    /**
+     * Возвращает текущий HTTP запрос
+     */
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getRequest()
+                : null;
     }
 }
@@ -0,0 +1,19 @@
+package azhue.katering.azhurkateringbackendjava.common.cache;
+
+/**
+ * Сообщение об инвалидации локального кэша, рассылаемое через Redis pub/sub.
+ *
+ * @param origin идентификатор инстанса-отправителя
+ * @param cacheName имя кэша
+ * @param key ключ записи или {@code null}, если очищается весь кэш
+ * @version 1.0.0
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+
+    /**
+     * Проверяет, очищается ли весь кэш
+     */
+    public boolean isClear() {
+        return key == null;
+    }
+}
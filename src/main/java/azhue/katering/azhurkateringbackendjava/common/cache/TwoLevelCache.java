@@ -0,0 +1,225 @@
+package azhue.katering.azhurkateringbackendjava.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * Двухуровневый кэш: локальный Caffeine (L1) перед Redis (L2).
+ *
+ * <p>Чтение сначала идет в L1, при промахе - в L2 с заполнением L1.
+ * Запись и удаление выполняются в L2, затем в L1. Сообщение об инвалидации
+ * остальным инстансам рассылается только при удалении и очистке: {@code put}
+ * вызывается и при заполнении {@code @Cacheable} после промаха, и рассылка из него
+ * заставила бы инстансы сбрасывать друг другу только что заполненный L1.
+ * Изменение данных поэтому оформляется как {@code @CacheEvict}. Ключи L1 приводятся
+ * к строке так же, как это делает Redis, чтобы инвалидация по сети была однозначной.</p>
+ *
+ * @version 1.0.0
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final String LEVEL_L1 = "l1";
+    private static final String LEVEL_L2 = "l2";
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+    private final Cache redisCache;
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter l2Evictions;
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCache(String name,
+                         Cache redisCache,
+                         long localMaxSize,
+                         Duration localTtl,
+                         BiConsumer<String, String> invalidationPublisher,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.redisCache = redisCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.meterRegistry = meterRegistry;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .removalListener((String key, Object value, RemovalCause cause) -> recordL1Removal(cause))
+                .build();
+
+        this.l1Hits = requestCounter(LEVEL_L1, "hit");
+        this.l1Misses = requestCounter(LEVEL_L1, "miss");
+        this.l2Hits = requestCounter(LEVEL_L2, "hit");
+        this.l2Misses = requestCounter(LEVEL_L2, "miss");
+        this.l2Evictions = evictionCounter(LEVEL_L2, "explicit");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        Object local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(local);
+        }
+        l1Misses.increment();
+
+        ValueWrapper remote = redisCache.get(key);
+        if (remote == null || remote.get() == null) {
+            l2Misses.increment();
+            return remote;
+        }
+        l2Hits.increment();
+        localCache.put(localKey, remote.get());
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Значение в кэше '" + name + "' не является " + type.getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        Object local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            l1Hits.increment();
+            return (T) local;
+        }
+        l1Misses.increment();
+
+        ValueWrapper remote = redisCache.get(key);
+        if (remote != null && remote.get() != null) {
+            l2Hits.increment();
+            localCache.put(localKey, remote.get());
+            return (T) remote.get();
+        }
+        l2Misses.increment();
+
+        T value = redisCache.get(key, valueLoader);
+        if (value != null) {
+            localCache.put(localKey, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        String localKey = toLocalKey(key);
+        if (value != null) {
+            localCache.put(localKey, value);
+        } else {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        localCache.invalidate(toLocalKey(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        l2Evictions.increment();
+        String localKey = toLocalKey(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = redisCache.evictIfPresent(key);
+        if (evicted) {
+            l2Evictions.increment();
+        }
+        String localKey = toLocalKey(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        l2Evictions.increment();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redisCache.invalidate();
+        l2Evictions.increment();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, null);
+        return invalidated;
+    }
+
+    /**
+     * Сбрасывает только локальный уровень по сообщению от другого инстанса
+     */
+    void invalidateLocal(String localKey) {
+        if (localKey == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    private String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private void recordL1Removal(RemovalCause cause) {
+        if (cause != RemovalCause.REPLACED) {
+            meterRegistry.counter("cache.level.evictions",
+                    "cache", name, "level", LEVEL_L1, "cause", cause.name().toLowerCase()).increment();
+        }
+    }
+
+    private Counter requestCounter(String level, String result) {
+        return Counter.builder("cache.level.gets")
+                .description("Cache lookups per level")
+                .tags("cache", name, "level", level, "result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter evictionCounter(String level, String cause) {
+        return Counter.builder("cache.level.evictions")
+                .description("Cache evictions per level")
+                .tags("cache", name, "level", level, "cause", cause)
+                .register(meterRegistry);
+    }
+}
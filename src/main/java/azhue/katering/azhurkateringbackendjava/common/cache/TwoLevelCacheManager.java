@@ -0,0 +1,138 @@
+package azhue.katering.azhurkateringbackendjava.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер двухуровневых кэшей.
+ *
+ * <p>Оборачивает каждый кэш {@link RedisCacheManager} в {@link TwoLevelCache}.
+ * TTL локального уровня не превышает TTL соответствующего кэша в Redis.
+ * Удаления рассылаются через Redis pub/sub, а сообщения от других инстансов
+ * сбрасывают только локальный уровень.</p>
+ *
+ * @version 1.0.0
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String channel;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                StringRedisTemplate redisTemplate,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                String channel,
+                                long localMaxSize,
+                                Duration localTtl) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.channel = channel;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(
+                cacheName,
+                redisCache,
+                localMaxSize,
+                resolveLocalTtl(redisCache),
+                this::publishInvalidation,
+                meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    /**
+     * Обрабатывает сообщение об инвалидации от другого инстанса
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), CacheInvalidationMessage.class);
+            if (instanceId.equals(invalidation.origin())) {
+                return;
+            }
+            TwoLevelCache cache = caches.get(invalidation.cacheName());
+            if (cache != null) {
+                cache.invalidateLocal(invalidation.key());
+                meterRegistry.counter("cache.level.evictions",
+                        "cache", invalidation.cacheName(), "level", "l1", "cause", "remote").increment();
+                log.debug("Локальный кэш сброшен по сообщению другого инстанса: cache={}, key={}",
+                        invalidation.cacheName(), invalidation.isClear() ? "*" : invalidation.key());
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось обработать сообщение инвалидации кэша: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Рассылает сообщение об инвалидации остальным инстансам.
+     *
+     * <p>Ошибка Redis не прерывает операцию: другие инстансы увидят изменение по истечении TTL L1.</p>
+     */
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            String payload = objectMapper.writeValueAsString(new CacheInvalidationMessage(instanceId, cacheName, key));
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сериализовать сообщение инвалидации кэша: {}", e.getMessage());
+        } catch (Exception e) {
+            log.warn("Не удалось отправить сообщение инвалидации кэша {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * TTL локального уровня: не больше настроенного и не больше TTL кэша в Redis
+     */
+    private Duration resolveLocalTtl(Cache redisCache) {
+        if (redisCache instanceof RedisCache cache) {
+            Duration redisTtl = cache.getCacheConfiguration().getTtlFunction()
+                    .getTimeToLive("", null);
+            if (redisTtl != null && !redisTtl.isZero() && !redisTtl.isNegative() && redisTtl.compareTo(localTtl) < 0) {
+                return redisTtl;
+            }
+        }
+        return localTtl;
+    }
+}
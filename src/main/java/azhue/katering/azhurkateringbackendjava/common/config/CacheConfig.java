@@ -1,13 +1,19 @@
 package azhue.katering.azhurkateringbackendjava.common.config;
 
+import azhue.katering.azhurkateringbackendjava.common.cache.TwoLevelCacheManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -22,6 +28,10 @@ import java.util.Map;
  * <p>Настраивает Redis кэширование для улучшения производительности API.
  * Использует Redis для распределенного кэширования в продакшене.</p>
  * 
+ * <p>Перед Redis стоит локальный кэш Caffeine с более коротким TTL, поэтому
+ * повторные чтения не ходят по сети и не десериализуют значение. Удаления
+ * рассылаются через Redis pub/sub и сбрасывают локальный кэш на всех инстансах.</p>
+ * 
  * @version 1.0.0
  */
 @Slf4j
@@ -29,11 +39,23 @@ import java.util.Map;
 @EnableCaching
 public class CacheConfig {
 
+    @Value("${app.cache.local.max-size:1000}")
+    private long localMaxSize;
+
+    @Value("${app.cache.local.ttl:60s}")
+    private Duration localTtl;
+
+    @Value("${app.cache.invalidation-channel:cache:invalidation}")
+    private String invalidationChannel;
+
     /**
-     * Настройка менеджера кэша с Redis
+     * Настройка двухуровневого менеджера кэша (Caffeine + Redis)
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             StringRedisTemplate redisTemplate,
+                                             ObjectMapper objectMapper,
+                                             MeterRegistry meterRegistry) {
         log.info("Инициализация Redis кэш-менеджера");
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
@@ -61,13 +83,28 @@ public class CacheConfig {
         cacheConfigurations.put("images", 
                 defaultConfig.entryTtl(Duration.ofHours(24)));
         
-        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
         
-        log.info("Redis кэш-менеджер инициализирован с кэшами: {}", cacheManager.getCacheNames());
+        redisCacheManager.afterPropertiesSet();
+        
+        log.info("Redis кэш-менеджер инициализирован с кэшами: {}", redisCacheManager.getCacheNames());
         
-        return cacheManager;
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, objectMapper, meterRegistry,
+                invalidationChannel, localMaxSize, localTtl);
+    }
+
+    /**
+     * Подписка на сообщения об инвалидации локального кэша от других инстансов
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return container;
     }
 }
@@ -0,0 +1,52 @@
+package azhue.katering.azhurkateringbackendjava.common.config;
+
+import azhue.katering.azhurkateringbackendjava.common.service.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация адаптивных лимитов одновременных запросов.
+ *
+ * <p>Создает лимиты для групп тяжелых endpoint'ов, чтобы при всплеске нагрузки
+ * они не занимали все потоки Tomcat и не замедляли чтение меню из кэша.</p>
+ *
+ * @version 1.0.0
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Value("${app.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    /**
+     * Лимит для аутентификации (BCrypt при входе, регистрации и смене пароля)
+     */
+    @Bean("authConcurrencyLimiter")
+    public AdaptiveConcurrencyLimiter authConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency.auth.initial-limit:8}") int initialLimit,
+            @Value("${app.concurrency.auth.min-limit:2}") int minLimit,
+            @Value("${app.concurrency.auth.max-limit:50}") int maxLimit,
+            @Value("${app.concurrency.auth.target-latency:1s}") Duration targetLatency) {
+        return new AdaptiveConcurrencyLimiter("auth", initialLimit, minLimit, maxLimit,
+                targetLatency, backoffRatio, meterRegistry);
+    }
+
+    /**
+     * Лимит для изменения блюд (загрузка в S3 и обработка изображений)
+     */
+    @Bean("dishWriteConcurrencyLimiter")
+    public AdaptiveConcurrencyLimiter dishWriteConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency.dish-write.initial-limit:4}") int initialLimit,
+            @Value("${app.concurrency.dish-write.min-limit:1}") int minLimit,
+            @Value("${app.concurrency.dish-write.max-limit:20}") int maxLimit,
+            @Value("${app.concurrency.dish-write.target-latency:3s}") Duration targetLatency) {
+        return new AdaptiveConcurrencyLimiter("dish-write", initialLimit, minLimit, maxLimit,
+                targetLatency, backoffRatio, meterRegistry);
+    }
+}
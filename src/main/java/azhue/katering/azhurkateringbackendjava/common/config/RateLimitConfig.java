@@ -1,7 +1,8 @@
 package azhue.katering.azhurkateringbackendjava.common.config;
 
+import azhue.katering.azhurkateringbackendjava.common.service.KeyedRateLimiter;
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,8 +12,9 @@ import java.time.Duration;
 /**
   * Конфигурация ограничения скорости запросов.
  * 
- * <p>Создает различные rate limiter'ы для защиты от злоупотреблений
- * и DDoS атак.</p>
+ * <p>Создает конфигурации rate limiter'ов для защиты от злоупотреблений
+ * и DDoS атак. Каждая конфигурация задает лимит для одного клиента,
+ * отдельные bucket'ы по ключам создаются в {@link KeyedRateLimiter}.</p>
  * 
  * @version 1.0.0
  */
@@ -24,9 +26,9 @@ public class RateLimitConfig {
      * 5 попыток в минуту
      */
     @Bean("authRateLimiter")
-    public Bucket authRateLimiter() {
+    public BucketConfiguration authRateLimiter() {
         Bandwidth limit = Bandwidth.classic(5, Refill.greedy(5, Duration.ofMinutes(1)));
-        return Bucket.builder()
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
@@ -36,9 +38,9 @@ public class RateLimitConfig {
      * 3 попытки в 5 минут
      */
     @Bean("emailVerificationRateLimiter")
-    public Bucket emailVerificationRateLimiter() {
+    public BucketConfiguration emailVerificationRateLimiter() {
         Bandwidth limit = Bandwidth.classic(3, Refill.greedy(3, Duration.ofMinutes(5)));
-        return Bucket.builder()
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
@@ -48,9 +50,9 @@ public class RateLimitConfig {
      * 10 попыток в минуту
      */
     @Bean("refreshTokenRateLimiter")
-    public Bucket refreshTokenRateLimiter() {
+    public BucketConfiguration refreshTokenRateLimiter() {
         Bandwidth limit = Bandwidth.classic(10, Refill.greedy(10, Duration.ofMinutes(1)));
-        return Bucket.builder()
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
@@ -60,9 +62,9 @@ public class RateLimitConfig {
      * 100 запросов в минуту
      */
     @Bean("generalApiRateLimiter")
-    public Bucket generalApiRateLimiter() {
+    public BucketConfiguration generalApiRateLimiter() {
         Bandwidth limit = Bandwidth.classic(100, Refill.greedy(100, Duration.ofMinutes(1)));
-        return Bucket.builder()
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
@@ -72,9 +74,9 @@ public class RateLimitConfig {
      * 3 попытки в час
      */
     @Bean("passwordChangeRateLimiter")
-    public Bucket passwordChangeRateLimiter() {
+    public BucketConfiguration passwordChangeRateLimiter() {
         Bandwidth limit = Bandwidth.classic(3, Refill.greedy(3, Duration.ofHours(1)));
-        return Bucket.builder()
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
@@ -1,15 +1,20 @@
 package azhue.katering.azhurkateringbackendjava.common.config;
 
+import azhue.katering.azhurkateringbackendjava.common.service.Bulkhead;
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @Slf4j
 public class S3Config {
@@ -32,6 +37,9 @@ public class S3Config {
     @Value("${app.s3.secret-key}")
     private String secretKey;
 
+    @Value("${app.s3.max-concurrency:50}")
+    private int maxConcurrency;
+
     @Bean
     public AmazonS3 s3Client() {
 
@@ -46,8 +54,18 @@ public class S3Config {
                 .withCredentials(new AWSStaticCredentialsProvider(
                         new BasicAWSCredentials(accessKey, secretKey)
                 ))
+                .withClientConfiguration(new ClientConfiguration().withMaxConnections(maxConcurrency))
                 .withPathStyleAccessEnabled(true)
                 .withChunkedEncodingDisabled(false)
                 .build();
     }
+
+    /**
+     * Ограничение одновременных обращений к S3 по размеру пула HTTP соединений клиента
+     */
+    @Bean
+    public Bulkhead s3Bulkhead(MeterRegistry meterRegistry,
+                               @Value("${app.s3.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new Bulkhead("s3", maxConcurrency, acquireTimeout, meterRegistry);
+    }
 }
@@ -1,9 +1,11 @@
 package azhue.katering.azhurkateringbackendjava.common.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -18,6 +20,10 @@ import java.util.concurrent.Executor;
  * 
  * <p>Настраивает пулы потоков для асинхронных операций и планировщик
  * для выполнения задач по расписанию.</p>
+ *
+ * <p>При {@code spring.threads.virtual.enabled} асинхронные задачи выполняются на
+ * виртуальных потоках с ограничением {@code app.virtual-threads.async-concurrency-limit}
+ * вместо пула из нескольких платформенных потоков.</p>
  * 
  * @version 1.0.0
  */
@@ -27,12 +33,25 @@ import java.util.concurrent.Executor;
 @Slf4j
 public class SchedulingConfig implements AsyncConfigurer {
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.virtual-threads.async-concurrency-limit:200}")
+    private int asyncConcurrencyLimit;
+
     /**
      * Создает пул потоков для асинхронных операций
      */
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AsyncThread-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(asyncConcurrencyLimit);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(4);
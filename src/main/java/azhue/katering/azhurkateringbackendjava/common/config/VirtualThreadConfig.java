@@ -0,0 +1,61 @@
+package azhue.katering.azhurkateringbackendjava.common.config;
+
+import azhue.katering.azhurkateringbackendjava.common.service.Bulkhead;
+import azhue.katering.azhurkateringbackendjava.common.service.BulkheadDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Конфигурация режима виртуальных потоков.
+ *
+ * <p>Включается вместе с {@code spring.threads.virtual.enabled}: Spring Boot переводит
+ * обработку запросов Tomcat на виртуальные потоки, {@link SchedulingConfig} - пул
+ * {@code @Async} задач. Здесь DataSource оборачивается в {@link BulkheadDataSource},
+ * чтобы число одновременно занятых соединений не превышало
+ * {@code app.virtual-threads.jdbc.max-concurrency} (по умолчанию размер пула Hikari).</p>
+ *
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    /**
+     * Оборачивает DataSource в bulkhead
+     */
+    @Bean
+    public static BeanPostProcessor jdbcBulkheadPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                              Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+
+                int maxConcurrency = environment.getProperty("app.virtual-threads.jdbc.max-concurrency", Integer.class, 0);
+                if (maxConcurrency <= 0) {
+                    maxConcurrency = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                Duration acquireTimeout = environment.getProperty("app.virtual-threads.jdbc.acquire-timeout",
+                        Duration.class, Duration.ofSeconds(2));
+
+                log.info("JDBC bulkhead для виртуальных потоков: dataSource={}, maxConcurrency={}, acquireTimeout={}",
+                        beanName, maxConcurrency, acquireTimeout);
+                Bulkhead bulkhead = new Bulkhead("jdbc", maxConcurrency, acquireTimeout, meterRegistry.getObject());
+                return new BulkheadDataSource(dataSource, bulkhead);
+            }
+        };
+    }
+}
@@ -1,12 +1,16 @@
 package azhue.katering.azhurkateringbackendjava.common.exception;
 
 import azhue.katering.azhurkateringbackendjava.common.exception.general.RateLimitExceededException;
+import azhue.katering.azhurkateringbackendjava.common.exception.general.ServiceOverloadedException;
 import azhue.katering.azhurkateringbackendjava.common.model.dto.ApiResponse;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -98,8 +102,12 @@ public class GlobalExceptionHandler {
             RateLimitExceededException ex) {
         
         log.warn("Rate limit exceeded: {}", ex.getMessage());
-        
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+        if (ex.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        }
+        return response
                 .body(ApiResponse.<Void>builder()
                         .success(false)
                         .message(ex.getMessage())
@@ -108,6 +116,38 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    /**
+     * Обрабатывает отклонение запроса при перегрузке
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceOverloadedException(
+            ServiceOverloadedException ex) {
+
+        log.warn("Service overloaded: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.<Void>builder()
+                        .success(false)
+                        .message(ex.getMessage())
+                        .errorCode("SERVICE_OVERLOADED")
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    /**
+     * Обрабатывает невозможность начать транзакцию, в том числе отказ JDBC bulkhead
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCannotCreateTransactionException(
+            CannotCreateTransactionException ex) {
+
+        if (NestedExceptionUtils.getMostSpecificCause(ex) instanceof ServiceOverloadedException overloaded) {
+            return handleServiceOverloadedException(overloaded);
+        }
+        return handleGenericException(ex);
+    }
+
     /**
      * Обрабатывает ошибки валидации ограничений
      */
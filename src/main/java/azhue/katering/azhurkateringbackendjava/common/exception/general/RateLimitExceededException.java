@@ -9,12 +9,25 @@ package azhue.katering.azhurkateringbackendjava.common.exception.general;
  * @version 1.0.0
  */
 public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * Через сколько секунд можно повторить запрос (0, если неизвестно)
+     */
+    private final long retryAfterSeconds;
     
     /**
      * Создает исключение с сообщением об ошибке
      */
     public RateLimitExceededException(String message) {
+        this(message, 0L);
+    }
+
+    /**
+     * Создает исключение с сообщением и временем до повтора
+     */
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
         super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
     }
     
     /**
@@ -22,5 +35,13 @@ public class RateLimitExceededException extends RuntimeException {
      */
     public RateLimitExceededException(String message, Throwable cause) {
         super(message, cause);
+        this.retryAfterSeconds = 0L;
+    }
+
+    /**
+     * Возвращает время до повтора запроса в секундах
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
     }
 }
@@ -0,0 +1,19 @@
+package azhue.katering.azhurkateringbackendjava.common.exception.general;
+
+/**
+ * Исключение при перегрузке сервиса.
+ *
+ * <p>Выбрасывается когда число одновременно выполняемых тяжелых запросов
+ * достигло адаптивного лимита и новый запрос отклоняется без выполнения.</p>
+ *
+ * @version 1.0.0
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * Создает исключение с сообщением об ошибке
+     */
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
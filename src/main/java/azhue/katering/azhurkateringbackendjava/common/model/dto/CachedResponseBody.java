@@ -0,0 +1,23 @@
+package azhue.katering.azhurkateringbackendjava.common.model.dto;
+
+import java.time.Instant;
+
+/**
+ * Заранее сериализованное тело ответа.
+ *
+ * <p>Хранит JSON в исходном и сжатом виде вместе со strong ETag,
+ * вычисленным по исходным байтам.</p>
+ *
+ * @param identity JSON без сжатия
+ * @param gzip JSON, сжатый gzip, или {@code null}, если тело слишком маленькое для сжатия
+ * @param etag strong ETag в кавычках
+ * @param lastModified время построения тела
+ * @version 1.0.0
+ */
+public record CachedResponseBody(
+        byte[] identity,
+        byte[] gzip,
+        String etag,
+        Instant lastModified
+) {
+}
@@ -0,0 +1,29 @@
+package azhue.katering.azhurkateringbackendjava.common.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ответ с курсорной (keyset) пагинацией
+ *
+ * <p>Не содержит общего количества элементов: следующая страница
+ * запрашивается по непрозрачному курсору {@code nextCursor}.</p>
+ *
+ * @param <T> тип данных в списке
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
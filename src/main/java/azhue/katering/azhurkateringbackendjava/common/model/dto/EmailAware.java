@@ -0,0 +1,17 @@
+package azhue.katering.azhurkateringbackendjava.common.model.dto;
+
+/**
+ * DTO запроса, содержащий email пользователя.
+ *
+ * <p>Используется для ограничения частоты запросов по email
+ * ({@link azhue.katering.azhurkateringbackendjava.common.annotation.RateLimit.KeyStrategy#EMAIL}).</p>
+ *
+ * @version 1.0.0
+ */
+public interface EmailAware {
+
+    /**
+     * Возвращает email из запроса
+     */
+    String getEmail();
+}
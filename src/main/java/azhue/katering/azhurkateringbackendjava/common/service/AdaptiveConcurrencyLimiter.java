@@ -0,0 +1,134 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременно выполняемых запросов (AIMD).
+ *
+ * <p>Лимит растет на единицу, пока запросы укладываются в целевую задержку и
+ * лимит действительно используется, и умножается на {@code backoffRatio}, когда
+ * задержка превышает цель. Уменьшение происходит не чаще одного раза за целевую
+ * задержку, чтобы одна медленная пачка запросов не обрушила лимит до минимума.</p>
+ *
+ * <p>Запросы сверх лимита отклоняются сразу. Текущий лимит и число выполняемых
+ * запросов экспортируются как gauge {@code concurrency.limit} и
+ * {@code concurrency.in_flight}, отклонения - счетчиком {@code concurrency.rejected}.</p>
+ *
+ * @version 1.0.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    /**
+     * Создает лимит группы endpoint'ов и регистрирует метрики
+     *
+     * @param name имя группы (тег {@code group} метрик)
+     * @param initialLimit начальный лимит
+     * @param minLimit минимальный лимит
+     * @param maxLimit максимальный лимит
+     * @param targetLatency целевая задержка запроса
+     * @param backoffRatio множитель уменьшения лимита (0..1)
+     * @param meterRegistry реестр метрик
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      Duration targetLatency, double backoffRatio,
+                                      MeterRegistry meterRegistry) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Текущий адаптивный лимит одновременных запросов")
+                .tag("group", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in_flight", inFlight, AtomicInteger::get)
+                .description("Число выполняемых запросов")
+                .tag("group", name)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("concurrency.rejected")
+                .description("Запросы, отклоненные из-за превышения лимита")
+                .tag("group", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Занимает слот, если лимит не исчерпан
+     *
+     * @return {@code true}, если запрос можно выполнять
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejectedCounter.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает слот и корректирует лимит по задержке запроса
+     *
+     * @param latencyNanos задержка выполнения запроса
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+
+        synchronized (this) {
+            double current = limit;
+            if (latencyNanos > targetLatencyNanos) {
+                long now = System.nanoTime();
+                if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                    lastDecreaseNanos = now;
+                    limit = Math.max(minLimit, current * backoffRatio);
+                }
+            } else if (inFlightBefore * 2 >= (int) current) {
+                limit = Math.min(maxLimit, current + 1);
+            }
+        }
+    }
+
+    /**
+     * Возвращает текущий лимит
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Возвращает число выполняемых запросов
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Возвращает имя группы
+     */
+    public String getName() {
+        return name;
+    }
+}
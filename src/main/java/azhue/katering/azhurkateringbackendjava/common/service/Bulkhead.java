@@ -0,0 +1,140 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import azhue.katering.azhurkateringbackendjava.common.exception.general.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение числа одновременных обращений к внешнему ресурсу.
+ *
+ * <p>С виртуальными потоками число одновременных запросов больше не ограничено
+ * пулом потоков Tomcat, и без явного ограничения тысячи потоков встают в очередь
+ * к пулу соединений JDBC или HTTP клиенту S3. Bulkhead пропускает к ресурсу не
+ * больше {@code permits} вызовов, остальные ждут не дольше {@code acquireTimeout}
+ * и отклоняются {@link ServiceOverloadedException}.</p>
+ *
+ * <p>Метрики: {@code bulkhead.in_flight}, {@code bulkhead.limit},
+ * {@code bulkhead.wait.time} и {@code bulkhead.rejected} с тегом {@code name}.</p>
+ *
+ * @version 1.0.0
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int permits;
+    private final long acquireTimeoutNanos;
+    private final Semaphore semaphore;
+
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Вызов, защищенный bulkhead
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    /**
+     * Создает bulkhead и регистрирует метрики
+     *
+     * @param name имя ресурса (тег {@code name} метрик)
+     * @param permits максимум одновременных вызовов
+     * @param acquireTimeout максимальное ожидание разрешения
+     * @param meterRegistry реестр метрик
+     */
+    public Bulkhead(String name, int permits, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = Math.max(1, permits);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.semaphore = new Semaphore(this.permits, true);
+
+        Gauge.builder("bulkhead.in_flight", this, Bulkhead::getInFlight)
+                .description("Вызовы, выполняемые через bulkhead")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.limit", this, Bulkhead::getPermits)
+                .description("Максимум одновременных вызовов bulkhead")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("bulkhead.wait.time")
+                .description("Ожидание разрешения bulkhead")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("bulkhead.rejected")
+                .description("Вызовы, отклоненные по таймауту ожидания bulkhead")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет вызов, заняв разрешение
+     *
+     * @throws ServiceOverloadedException если разрешение не получено за {@code acquireTimeout}
+     */
+    public <T, E extends Exception> T execute(Call<T, E> call) throws E {
+        acquire();
+        try {
+            return call.execute();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Занимает разрешение, ожидая не дольше {@code acquireTimeout}
+     *
+     * @throws ServiceOverloadedException если разрешение не получено
+     */
+    public void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException("Сервис перегружен, повторите запрос позже");
+        }
+    }
+
+    /**
+     * Освобождает разрешение
+     */
+    public void release() {
+        semaphore.release();
+    }
+
+    /**
+     * Возвращает число выполняемых вызовов
+     */
+    public int getInFlight() {
+        return permits - semaphore.availablePermits();
+    }
+
+    /**
+     * Возвращает максимум одновременных вызовов
+     */
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * Возвращает имя ресурса
+     */
+    public String getName() {
+        return name;
+    }
+}
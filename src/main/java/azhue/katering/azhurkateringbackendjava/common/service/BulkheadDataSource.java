@@ -0,0 +1,127 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource, выдающий соединения через {@link Bulkhead}.
+ *
+ * <p>Разрешение занимается при получении соединения и освобождается при его
+ * закрытии, поэтому число соединений, одновременно находящихся у приложения,
+ * не превышает лимит bulkhead. Запросы сверх лимита ждут ограниченное время и
+ * получают 503 вместо долгого ожидания в очереди пула соединений.</p>
+ *
+ * @version 1.0.0
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Bulkhead bulkhead;
+
+    public BulkheadDataSource(DataSource targetDataSource, Bulkhead bulkhead) {
+        super(targetDataSource);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        bulkhead.acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        bulkhead.acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Оборачивает соединение, чтобы освободить разрешение ровно один раз при закрытии
+     */
+    private Connection guard(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ReleasingConnectionHandler(connection, bulkhead));
+    }
+
+    /**
+     * Обработчик вызовов соединения, освобождающий разрешение bulkhead при закрытии.
+     *
+     * <p>{@code equals}, {@code hashCode} и {@code toString} относятся к самому прокси,
+     * как в обработчиках {@code TransactionAwareDataSourceProxy}. {@code unwrap} до
+     * {@link Connection} возвращает прокси: закрытие исходного соединения не освободило
+     * бы разрешение.</p>
+     */
+    private static final class ReleasingConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingConnectionHandler(Connection target, Bulkhead bulkhead) {
+            this.target = target;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Bulkhead connection proxy [" + bulkhead.getName() + "] for target " + target;
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                }
+                case "isWrapperFor" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                }
+                case "close" -> {
+                    try {
+                        return delegate(method, args);
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            bulkhead.release();
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+            return delegate(method, args);
+        }
+
+        private Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
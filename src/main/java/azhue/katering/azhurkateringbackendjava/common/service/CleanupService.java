@@ -1,21 +1,47 @@
 package azhue.katering.azhurkateringbackendjava.common.service;
 
-import azhue.katering.azhurkateringbackendjava.auth.repository.EmailVerificationRepository;
-import azhue.katering.azhurkateringbackendjava.auth.repository.RefreshTokenRepository;
+import azhue.katering.azhurkateringbackendjava.auth.store.RefreshTokenStore;
+import azhue.katering.azhurkateringbackendjava.auth.store.VerificationCodeStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
 
 /**
  * Сервис для очистки устаревших данных.
- * 
+ *
  * <p>Выполняет периодическую очистку истекших токенов и верификаций
- * для поддержания производительности базы данных.</p>
- * 
+ * для поддержания производительности базы данных. В режиме хранения токенов
+ * в Redis записи истекают сами, и очистка ничего не делает.</p>
+ *
+ * <p>Строки удаляются пачками по {@code app.cleanup.batch-size}, каждая пачка в
+ * своей транзакции, с паузой {@code app.cleanup.pause} между пачками. Запуск
+ * прекращается по исчерпании бюджета {@code app.cleanup.time-budget}, остаток
+ * удаляется следующим запуском. Расписание задается cron выражениями, поэтому
+ * очистку можно выполнять как одним ночным запуском, так и небольшими порциями
+ * в течение дня.</p>
+ *
+ * <p>Истекшие токены и верификации в PostgreSQL удаляются целыми секциями через
+ * {@link PartitionMaintenanceService}. Пачечное удаление убирает только остаток:
+ * строки из секции по умолчанию и текущей секции.</p>
+ *
+ * <p>Метрики: {@code cleanup.rows.deleted}, {@code cleanup.chunk.time},
+ * {@code cleanup.backlog} и {@code cleanup.runs} с тегом {@code task}.</p>
+ *
  * @version 1.0.0
  */
 @Slf4j
@@ -23,53 +49,141 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class CleanupService {
 
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final EmailVerificationRepository emailVerificationRepository;
+    private static final String TASK_REFRESH_TOKENS = "expired_refresh_tokens";
+    private static final String TASK_EXPIRED_VERIFICATIONS = "expired_email_verifications";
+    private static final String TASK_USED_VERIFICATIONS = "used_email_verifications";
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final VerificationCodeStore verificationCodeStore;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.cleanup.pause:100ms}")
+    private Duration pause;
+
+    @Value("${app.cleanup.time-budget:30s}")
+    private Duration timeBudget;
+
+    private final Map<String, TaskMetrics> metrics = new ConcurrentHashMap<>();
 
     /**
      * Очищает истекшие refresh токены
      */
-    @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
+    @Scheduled(cron = "${app.cleanup.refresh-tokens-cron:0 0 2 * * ?}")
     public void cleanupExpiredRefreshTokens() {
-        log.info("Starting cleanup of expired refresh tokens");
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            refreshTokenRepository.deleteExpiredTokens(now);
-            log.info("Cleanup of expired refresh tokens completed");
-        } catch (Exception e) {
-            log.error("Error during cleanup of expired refresh tokens", e);
-        }
+        dropExpiredPartitions(PartitionMaintenanceService.PartitionedTable.REFRESH_TOKENS);
+        runChunked(TASK_REFRESH_TOKENS,
+                limit -> refreshTokenStore.deleteExpired(LocalDateTime.now(), limit),
+                () -> refreshTokenStore.countExpired(LocalDateTime.now()));
     }
 
     /**
      * Очищает истекшие email верификации
      */
-    @Scheduled(cron = "0 0 3 * * ?")
-    @Transactional
+    @Scheduled(cron = "${app.cleanup.expired-verifications-cron:0 0 3 * * ?}")
     public void cleanupExpiredEmailVerifications() {
-        log.info("Starting cleanup of expired email verifications");
+        dropExpiredPartitions(PartitionMaintenanceService.PartitionedTable.EMAIL_VERIFICATIONS);
+        runChunked(TASK_EXPIRED_VERIFICATIONS,
+                limit -> verificationCodeStore.deleteExpired(LocalDateTime.now(), limit),
+                () -> verificationCodeStore.countExpired(LocalDateTime.now()));
+    }
+
+    /**
+     * Очищает использованные email верификации
+     */
+    @Scheduled(cron = "${app.cleanup.used-verifications-cron:0 0 4 ? * SUN}")
+    public void cleanupUsedEmailVerifications() {
+        runChunked(TASK_USED_VERIFICATIONS,
+                verificationCodeStore::deleteUsed,
+                verificationCodeStore::countUsed);
+    }
+
+    /**
+     * Удаляет секции с истекшими строками до пачечного удаления остатка
+     */
+    private void dropExpiredPartitions(PartitionMaintenanceService.PartitionedTable table) {
         try {
-            LocalDateTime now = LocalDateTime.now();
-            emailVerificationRepository.deleteExpiredVerifications(now);
-            log.info("Cleanup of expired email verifications completed");
+            partitionMaintenanceService.dropExpiredPartitions(table);
         } catch (Exception e) {
-            log.error("Error during cleanup of expired email verifications", e);
+            log.error("Error dropping expired partitions: table={}", table, e);
         }
     }
 
     /**
-     * Очищает использованные email верификации
+     * Удаляет строки пачками, пока они есть и не исчерпан бюджет времени
+     *
+     * @param task имя задачи (тег метрик)
+     * @param deleteChunk удаляет пачку не больше заданного размера и возвращает число строк
+     * @param backlog число строк, ожидающих удаления
      */
-    @Scheduled(cron = "0 0 4 ? * SUN")
-    @Transactional
-    public void cleanupUsedEmailVerifications() {
-        log.info("Starting cleanup of used email verifications");
+    private void runChunked(String task, IntUnaryOperator deleteChunk, LongSupplier backlog) {
+        TaskMetrics taskMetrics = metrics.computeIfAbsent(task, this::registerMetrics);
+        log.info("Starting cleanup: task={}, batchSize={}, timeBudget={}", task, batchSize, timeBudget);
+
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + timeBudget.toNanos();
+        long total = 0;
+        int chunks = 0;
+        String outcome = "completed";
+
         try {
-            emailVerificationRepository.deleteUsedVerifications();
-            log.info("Cleanup of used email verifications completed");
+            while (true) {
+                long chunkStart = System.nanoTime();
+                int deleted = deleteChunk.applyAsInt(batchSize);
+                taskMetrics.chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+                taskMetrics.deletedCounter.increment(deleted);
+                total += deleted;
+                chunks++;
+
+                if (deleted < batchSize) {
+                    break;
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    outcome = "budget_exhausted";
+                    break;
+                }
+                if (!pause.isZero()) {
+                    Thread.sleep(pause.toMillis());
+                }
+            }
+            taskMetrics.backlog.set(backlog.getAsLong());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "interrupted";
         } catch (Exception e) {
-            log.error("Error during cleanup of used email verifications", e);
+            outcome = "failed";
+            log.error("Error during cleanup: task={}", task, e);
         }
+
+        meterRegistry.counter("cleanup.runs", "task", task, "outcome", outcome).increment();
+        log.info("Cleanup finished: task={}, outcome={}, deleted={}, chunks={}, backlog={}, duration={}ms",
+                task, outcome, total, chunks, taskMetrics.backlog.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private TaskMetrics registerMetrics(String task) {
+        AtomicLong backlog = new AtomicLong();
+        Gauge.builder("cleanup.backlog", backlog, AtomicLong::get)
+                .description("Строки, ожидающие удаления после последнего запуска очистки")
+                .tag("task", task)
+                .register(meterRegistry);
+        Counter deleted = Counter.builder("cleanup.rows.deleted")
+                .description("Строки, удаленные очисткой")
+                .tag("task", task)
+                .register(meterRegistry);
+        Timer chunkTimer = Timer.builder("cleanup.chunk.time")
+                .description("Время удаления одной пачки строк")
+                .tag("task", task)
+                .register(meterRegistry);
+        return new TaskMetrics(deleted, chunkTimer, backlog);
+    }
+
+    /**
+     * Метрики одной задачи очистки
+     */
+    private record TaskMetrics(Counter deletedCounter, Timer chunkTimer, AtomicLong backlog) {
     }
-}
\ No newline at end of file
+}
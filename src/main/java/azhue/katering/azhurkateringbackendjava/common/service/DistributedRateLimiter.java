@@ -0,0 +1,173 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import io.github.bucket4j.Bandwidth;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Распределенный token bucket в Redis.
+ *
+ * <p>Состояние bucket'а хранится в Redis и изменяется атомарно Lua скриптом,
+ * поэтому лимит общий для всех инстансов. Токены выдаются пачками: вызывающий
+ * код расходует их локально и обращается в Redis только когда пачка закончилась.</p>
+ *
+ * <p>Каждый вызов ограничен бюджетом задержки. При ошибке или превышении бюджета
+ * возвращается {@link #UNAVAILABLE}, и Redis не используется в течение
+ * {@code app.rate-limit.redis.retry-after}, чтобы запросы не ждали недоступный Redis.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DistributedRateLimiter {
+
+    /**
+     * Результат вызова, когда Redis недоступен
+     */
+    public static final int UNAVAILABLE = -1;
+
+    private static final String SCRIPT_LOCATION = "redis/token_bucket.lua";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.redis.key-prefix:rate-limit}")
+    private String keyPrefix;
+
+    @Value("${app.rate-limit.redis.timeout:50ms}")
+    private Duration timeout;
+
+    @Value("${app.rate-limit.redis.retry-after:5s}")
+    private Duration retryAfter;
+
+    @Value("${app.rate-limit.redis.threads:4}")
+    private int threads;
+
+    private RedisScript<Long> script;
+    private ThreadPoolExecutor executor;
+    private volatile long unavailableUntil;
+
+    private Counter grantedCounter;
+    private Counter deniedCounter;
+    private Counter errorCounter;
+    private Counter timeoutCounter;
+
+    /**
+     * Загружает Lua скрипт и создает пул для вызовов Redis
+     */
+    @PostConstruct
+    void init() {
+        this.script = RedisScript.of(new ClassPathResource(SCRIPT_LOCATION), Long.class);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "rate-limit-redis-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.grantedCounter = counter("granted");
+        this.deniedCounter = counter("denied");
+        this.errorCounter = counter("error");
+        this.timeoutCounter = counter("timeout");
+    }
+
+    /**
+     * Останавливает пул вызовов Redis
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Проверяет, можно ли сейчас обращаться в Redis
+     */
+    public boolean isAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    /**
+     * Получает до {@code requested} токенов из распределенного bucket'а
+     *
+     * @param limiterName имя конфигурации лимита
+     * @param key ключ клиента
+     * @param bandwidth параметры лимита
+     * @param requested размер пачки
+     * @return число выданных токенов или {@link #UNAVAILABLE}
+     */
+    public int acquire(String limiterName, Object key, Bandwidth bandwidth, int requested) {
+        String redisKey = keyPrefix + ':' + limiterName + ':' + key;
+        List<String> keys = List.of(redisKey);
+        String[] args = {
+                String.valueOf(bandwidth.getCapacity()),
+                String.valueOf(bandwidth.getRefillTokens()),
+                String.valueOf(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(bandwidth.getRefillPeriodNanos()))),
+                String.valueOf(requested)
+        };
+
+        CompletableFuture<Long> future;
+        try {
+            future = CompletableFuture.supplyAsync(
+                    () -> redisTemplate.execute(script, keys, (Object[]) args), executor);
+        } catch (RuntimeException e) {
+            return fail(errorCounter, "очередь вызовов Redis переполнена", e);
+        }
+
+        try {
+            Long granted = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            int result = granted != null ? granted.intValue() : 0;
+            (result > 0 ? grantedCounter : deniedCounter).increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return fail(timeoutCounter, "превышен бюджет задержки " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fail(errorCounter, "поток прерван", e);
+        } catch (ExecutionException e) {
+            return fail(errorCounter, "ошибка выполнения скрипта", e.getCause());
+        }
+    }
+
+    /**
+     * Отключает Redis на время {@code retry-after} и фиксирует причину
+     */
+    private int fail(Counter counter, String reason, Throwable cause) {
+        counter.increment();
+        unavailableUntil = System.currentTimeMillis() + retryAfter.toMillis();
+        log.warn("Распределенный rate limiter недоступен ({}), используется локальный лимит на {}: {}",
+                reason, retryAfter, cause != null ? cause.getMessage() : null);
+        return UNAVAILABLE;
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("rate.limit.redis.calls")
+                .description("Обращения распределенного rate limiter'а к Redis")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
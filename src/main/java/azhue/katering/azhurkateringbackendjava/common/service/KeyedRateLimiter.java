@@ -0,0 +1,224 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Rate limiter с отдельным bucket'ом для каждого клиента.
+ *
+ * <p>Для каждой конфигурации лимита ({@link BucketConfiguration} bean) хранится
+ * ограниченный по размеру кэш bucket'ов по ключу клиента (IP, ID пользователя, email).
+ * Bucket удаляется, если клиент не обращался дольше периода пополнения лимита,
+ * поэтому удаление не сбрасывает лимит раньше времени.</p>
+ *
+ * <p>В режиме {@code redis} лимит общий для всех инстансов: токены берутся пачками
+ * из {@link DistributedRateLimiter} и расходуются локально до истечения аренды.
+ * Если Redis недоступен, используется локальный bucket клиента.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KeyedRateLimiter {
+
+    private static final String MODE_REDIS = "redis";
+
+    private final ApplicationContext applicationContext;
+    private final DistributedRateLimiter distributedRateLimiter;
+
+    @Value("${app.rate-limit.mode:local}")
+    private String mode;
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${app.rate-limit.key-ttl:10m}")
+    private Duration keyTtl;
+
+    @Value("${app.rate-limit.redis.prefetch:10}")
+    private int prefetch;
+
+    @Value("${app.rate-limit.redis.lease-ttl:1s}")
+    private Duration leaseTtl;
+
+    private final Map<String, KeyedBuckets> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * Пытается получить один токен из bucket'а клиента
+     *
+     * @param limiterName имя bean'а с конфигурацией лимита
+     * @param key ключ клиента
+     * @return {@code true}, если лимит не превышен
+     */
+    public boolean tryConsume(String limiterName, Object key) {
+        return tryConsumeAndGetWait(limiterName, key) == 0L;
+    }
+
+    /**
+     * Пытается получить один токен и при отказе возвращает время ожидания
+     *
+     * @param limiterName имя bean'а с конфигурацией лимита
+     * @param key ключ клиента
+     * @return {@code 0}, если лимит не превышен, иначе наносекунды до появления токена
+     */
+    public long tryConsumeAndGetWait(String limiterName, Object key) {
+        KeyedBuckets limiter = limiter(limiterName);
+        ClientBucket client = limiter.client(key);
+
+        if (limiter.distributed && distributedRateLimiter.isAvailable()) {
+            Boolean leased = client.tryConsumeLeased(limiterName, key, limiter, distributedRateLimiter);
+            if (leased != null) {
+                return leased ? 0L : limiter.nanosPerToken;
+            }
+        }
+
+        ConsumptionProbe probe = client.local.tryConsumeAndReturnRemaining(1);
+        return probe.isConsumed() ? 0L : Math.max(1L, probe.getNanosToWaitForRefill());
+    }
+
+    /**
+     * Возвращает число клиентов, для которых хранится bucket
+     */
+    public long trackedKeys(String limiterName) {
+        KeyedBuckets buckets = limiters.get(limiterName);
+        return buckets != null ? buckets.clients.estimatedSize() : 0L;
+    }
+
+    /**
+     * Находит или создает хранилище bucket'ов для конфигурации
+     */
+    private KeyedBuckets limiter(String limiterName) {
+        KeyedBuckets buckets = limiters.get(limiterName);
+        if (buckets != null) {
+            return buckets;
+        }
+        return limiters.computeIfAbsent(limiterName, this::createLimiter);
+    }
+
+    /**
+     * Создает хранилище bucket'ов по конфигурации из контекста
+     */
+    private KeyedBuckets createLimiter(String limiterName) {
+        BucketConfiguration configuration = applicationContext.getBean(limiterName, BucketConfiguration.class);
+        Bandwidth[] bandwidths = configuration.getBandwidths();
+
+        Duration ttl = keyTtl;
+        for (Bandwidth bandwidth : bandwidths) {
+            Duration refillPeriod = Duration.ofNanos(bandwidth.getRefillPeriodNanos());
+            if (refillPeriod.compareTo(ttl) > 0) {
+                ttl = refillPeriod;
+            }
+        }
+
+        boolean distributed = MODE_REDIS.equalsIgnoreCase(mode);
+        if (distributed && bandwidths.length > 1) {
+            log.warn("Лимит {} содержит {} ограничений, в Redis учитывается только первое",
+                    limiterName, bandwidths.length);
+        }
+
+        // Пачка не больше десятой части емкости: маленькие лимиты (5 в минуту) считаются точно
+        int batch = (int) Math.max(1L, Math.min(prefetch, bandwidths[0].getCapacity() / 10));
+
+        log.info("Создан keyed rate limiter {}: mode={}, maxKeys={}, ttl={}, batch={}",
+                limiterName, distributed ? MODE_REDIS : "local", maxKeys, ttl, batch);
+        return new KeyedBuckets(configuration, maxKeys, ttl, distributed, batch, leaseTtl.toNanos());
+    }
+
+    /**
+     * Bucket'ы одной конфигурации лимита по ключам клиентов
+     */
+    private static final class KeyedBuckets {
+
+        private final Cache<Object, ClientBucket> clients;
+        private final Function<Object, ClientBucket> factory;
+        private final Bandwidth bandwidth;
+        private final long nanosPerToken;
+        private final boolean distributed;
+        private final int batch;
+        private final long leaseTtlNanos;
+
+        KeyedBuckets(BucketConfiguration configuration, long maxKeys, Duration ttl,
+                     boolean distributed, int batch, long leaseTtlNanos) {
+            this.clients = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(ttl)
+                    .build();
+            this.factory = key -> new ClientBucket(newBucket(configuration));
+            this.bandwidth = configuration.getBandwidths()[0];
+            this.nanosPerToken = Math.max(1L, bandwidth.getRefillPeriodNanos() / bandwidth.getRefillTokens());
+            this.distributed = distributed;
+            this.batch = batch;
+            this.leaseTtlNanos = leaseTtlNanos;
+        }
+
+        ClientBucket client(Object key) {
+            return clients.get(key, factory);
+        }
+
+        private static Bucket newBucket(BucketConfiguration configuration) {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : configuration.getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Состояние одного клиента: локальный bucket и арендованные из Redis токены
+     */
+    private static final class ClientBucket {
+
+        private final Bucket local;
+        private int leasedTokens;
+        private long leaseExpiresAt;
+
+        ClientBucket(Bucket local) {
+            this.local = local;
+        }
+
+        /**
+         * Расходует арендованный токен, при необходимости получает новую пачку из Redis
+         *
+         * @return результат проверки или {@code null}, если Redis недоступен
+         */
+        synchronized Boolean tryConsumeLeased(String limiterName, Object key,
+                                              KeyedBuckets limiter, DistributedRateLimiter distributed) {
+            long now = System.nanoTime();
+            if (leasedTokens > 0 && now - leaseExpiresAt < 0) {
+                leasedTokens--;
+                return Boolean.TRUE;
+            }
+
+            int granted = distributed.acquire(limiterName, key, limiter.bandwidth, limiter.batch);
+            if (granted == DistributedRateLimiter.UNAVAILABLE) {
+                leasedTokens = 0;
+                return null;
+            }
+            if (granted == 0) {
+                leasedTokens = 0;
+                return Boolean.FALSE;
+            }
+
+            leasedTokens = granted - 1;
+            leaseExpiresAt = now + limiter.leaseTtlNanos;
+            return Boolean.TRUE;
+        }
+    }
+}
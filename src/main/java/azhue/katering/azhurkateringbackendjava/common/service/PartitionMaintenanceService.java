@@ -0,0 +1,298 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Обслуживание секций таблиц токенов.
+ *
+ * <p>Таблицы {@code refresh_tokens} и {@code email_verifications} секционированы
+ * по {@code expires_at}. Сервис заранее создает секции на {@code app.partitioning.premake}
+ * периодов вперед и удаляет секции, все строки которых истекли больше
+ * {@code app.partitioning.retention} назад. Удаление секции не зависит от числа строк
+ * и не создает нагрузки на WAL, в отличие от массового DELETE.</p>
+ *
+ * <p>Каждая операция выполняется в своей транзакции под advisory блокировкой таблицы,
+ * поэтому инстансы не мешают друг другу, а с {@code lock_timeout} обслуживание
+ * не выстраивает очередь за долгими запросами к таблице.</p>
+ *
+ * <p>Строки, для которых не нашлось секции, попадают в секцию по умолчанию
+ * {@code <table>_default}. Если в ней есть строки из диапазона новой секции,
+ * PostgreSQL отказывает в ее создании, поэтому такие строки переносятся: секция
+ * по умолчанию отсоединяется, создается новая секция, строки переносятся в нее,
+ * секция по умолчанию присоединяется обратно. Число строк в секциях по умолчанию
+ * публикуется метрикой {@code partition.default.rows}: ненулевое значение означает,
+ * что заранее созданных секций не хватает.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String PARTITIONS_QUERY = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<PartitionedTable, AtomicLong> defaultRows = new EnumMap<>(PartitionedTable.class);
+
+    @Value("${app.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.partitioning.premake:4}")
+    private int premake;
+
+    @Value("${app.partitioning.retention:1d}")
+    private Duration retention;
+
+    @Value("${app.partitioning.lock-timeout:5s}")
+    private Duration lockTimeout;
+
+    /**
+     * Секционированная таблица и размер ее секции
+     */
+    public enum PartitionedTable {
+        REFRESH_TOKENS("refresh_tokens", Period.ofWeeks(1)),
+        EMAIL_VERIFICATIONS("email_verifications", Period.ofDays(1));
+
+        private final String tableName;
+        private final Period period;
+
+        PartitionedTable(String tableName, Period period) {
+            this.tableName = tableName;
+            this.period = period;
+        }
+
+        /**
+         * Начало секции, в которую попадает дата (недели начинаются с понедельника, как date_trunc)
+         */
+        LocalDate floor(LocalDate date) {
+            return period.getDays() == 7
+                    ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : date;
+        }
+
+        String partitionName(LocalDate start) {
+            return tableName + "_p" + start.format(SUFFIX_FORMAT);
+        }
+
+        String defaultPartitionName() {
+            return tableName + "_default";
+        }
+    }
+
+    /**
+     * Регистрирует метрики числа строк в секциях по умолчанию
+     */
+    @PostConstruct
+    void registerMetrics() {
+        for (PartitionedTable table : PartitionedTable.values()) {
+            AtomicLong rows = defaultRows.computeIfAbsent(table, t -> new AtomicLong());
+            Gauge.builder("partition.default.rows", rows, AtomicLong::get)
+                    .description("Строки в секции по умолчанию, не попавшие в созданные секции")
+                    .tag("table", table.tableName)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Создает недостающие секции при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintain();
+    }
+
+    /**
+     * Создает будущие секции и удаляет истекшие
+     */
+    @Scheduled(cron = "${app.partitioning.cron:0 15 * * * ?}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        for (PartitionedTable table : PartitionedTable.values()) {
+            try {
+                createFuturePartitions(table);
+                dropExpiredPartitions(table);
+                refreshDefaultRows(table);
+            } catch (Exception e) {
+                meterRegistry.counter("partition.maintenance", "table", table.tableName, "action", "failed").increment();
+                log.error("Error during partition maintenance: table={}", table.tableName, e);
+            }
+        }
+    }
+
+    /**
+     * Создает секции от текущей до {@code premake} периодов вперед
+     *
+     * @return число созданных секций
+     */
+    public int createFuturePartitions(PartitionedTable table) {
+        if (!enabled) {
+            return 0;
+        }
+        List<String> existing = listPartitions(table);
+        LocalDate start = table.floor(LocalDate.now());
+        int created = 0;
+
+        for (int i = 0; i <= premake; i++, start = start.plus(table.period)) {
+            String name = table.partitionName(start);
+            if (existing.contains(name)) {
+                continue;
+            }
+            LocalDate from = start;
+            Boolean done = transactionTemplate.execute(status -> {
+                if (!tryLock(table)) {
+                    return false;
+                }
+                createPartition(table, name, from, from.plus(table.period));
+                return true;
+            });
+            if (Boolean.TRUE.equals(done)) {
+                created++;
+                meterRegistry.counter("partition.maintenance", "table", table.tableName, "action", "created").increment();
+                log.info("Partition created: {}", name);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Удаляет секции, все строки которых истекли больше {@code retention} назад
+     *
+     * @return число удаленных секций
+     */
+    public int dropExpiredPartitions(PartitionedTable table) {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        String prefix = table.tableName + "_p";
+        int dropped = 0;
+
+        for (String name : listPartitions(table)) {
+            if (!name.startsWith(prefix)) {
+                continue;
+            }
+            LocalDate start;
+            try {
+                start = LocalDate.parse(name.substring(prefix.length()), SUFFIX_FORMAT);
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            if (start.plus(table.period).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+
+            Boolean done = transactionTemplate.execute(status -> {
+                if (!tryLock(table)) {
+                    return false;
+                }
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+                return true;
+            });
+            if (Boolean.TRUE.equals(done)) {
+                dropped++;
+                meterRegistry.counter("partition.maintenance", "table", table.tableName, "action", "dropped").increment();
+                log.info("Expired partition dropped: {}", name);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Обновляет метрику числа строк в секции по умолчанию
+     *
+     * @return число строк в секции по умолчанию
+     */
+    public long refreshDefaultRows(PartitionedTable table) {
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM " + table.defaultPartitionName(), Long.class);
+        long count = rows != null ? rows : 0L;
+        defaultRows.computeIfAbsent(table, t -> new AtomicLong()).set(count);
+        if (count > 0) {
+            log.warn("Rows in default partition: table={}, rows={}", table.defaultPartitionName(), count);
+        }
+        return count;
+    }
+
+    /**
+     * Создает секцию, перенося в нее строки диапазона из секции по умолчанию.
+     *
+     * <p>Выполняется в транзакции вызывающего под advisory блокировкой таблицы.
+     * Отсоединение секции по умолчанию блокирует таблицу до конца транзакции.</p>
+     */
+    private void createPartition(PartitionedTable table, String name, LocalDate from, LocalDate to) {
+        String defaultPartition = table.defaultPartitionName();
+        String range = " WHERE expires_at >= '" + from + "' AND expires_at < '" + to + "'";
+        Boolean conflicting = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + defaultPartition + range + ")", Boolean.class);
+        String create = "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + table.tableName
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        if (!Boolean.TRUE.equals(conflicting)) {
+            jdbcTemplate.execute(create);
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + table.tableName + " DETACH PARTITION " + defaultPartition);
+        jdbcTemplate.execute(create);
+        int moved = jdbcTemplate.update("INSERT INTO " + table.tableName + " SELECT * FROM " + defaultPartition + range);
+        jdbcTemplate.update("DELETE FROM " + defaultPartition + range);
+        jdbcTemplate.execute("ALTER TABLE " + table.tableName + " ATTACH PARTITION " + defaultPartition + " DEFAULT");
+        meterRegistry.counter("partition.maintenance", "table", table.tableName, "action", "moved").increment(moved);
+        log.info("Rows moved from default partition: partition={}, rows={}", name, moved);
+    }
+
+    private List<String> listPartitions(PartitionedTable table) {
+        return jdbcTemplate.queryForList(PARTITIONS_QUERY, String.class, table.tableName);
+    }
+
+    /**
+     * Берет advisory блокировку таблицы до конца транзакции и ограничивает ожидание блокировок DDL
+     */
+    private boolean tryLock(PartitionedTable table) {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(hashtext(?))",
+                Boolean.class, "partition-maintenance:" + table.tableName);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Partition maintenance is running on another instance: table={}", table.tableName);
+            return false;
+        }
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout.toMillis() + "ms'");
+        return true;
+    }
+}
@@ -0,0 +1,154 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import azhue.katering.azhurkateringbackendjava.common.annotation.RateLimit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Таблица маршрутов с ограничением частоты запросов.
+ *
+ * <p>При старте собирает политики из аннотаций {@link RateLimit} на методах контроллеров,
+ * чтобы лимиты можно было проверить в фильтре до аутентификации и разбора тела запроса.
+ * Маршруты без переменных в пути ищутся по точному совпадению, остальные - по шаблону.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class RateLimitRouteTable {
+
+    /**
+     * Стратегии, ключ которых известен до аутентификации и разбора тела
+     */
+    private static final Set<RateLimit.KeyStrategy> EARLY_STRATEGIES =
+            EnumSet.of(RateLimit.KeyStrategy.IP, RateLimit.KeyStrategy.GLOBAL, RateLimit.KeyStrategy.EMAIL);
+
+    private final RequestMappingHandlerMapping handlerMapping;
+
+    private volatile Map<String, List<Route>> exactRoutes = Collections.emptyMap();
+    private volatile List<Route> patternRoutes = Collections.emptyList();
+
+    public RateLimitRouteTable(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    /**
+     * Политика ограничения для одного маршрута
+     *
+     * @param method HTTP метод ({@code null} - любой)
+     * @param pattern шаблон пути
+     * @param limiterName имя конфигурации лимита
+     * @param message сообщение при превышении лимита
+     * @param strategies стратегии, проверяемые в фильтре
+     */
+    public record Route(
+            String method,
+            PathPattern pattern,
+            String limiterName,
+            String message,
+            RateLimit.KeyStrategy[] strategies
+    ) {
+        boolean matchesMethod(String requestMethod) {
+            return method == null || method.equals(requestMethod);
+        }
+    }
+
+    /**
+     * Собирает таблицу маршрутов из зарегистрированных обработчиков
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void compile() {
+        Map<String, List<Route>> exact = new HashMap<>();
+        List<Route> patterns = new ArrayList<>();
+
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            RateLimit rateLimit = entry.getValue().getMethodAnnotation(RateLimit.class);
+            if (rateLimit == null || entry.getKey().getPathPatternsCondition() == null) {
+                continue;
+            }
+
+            RateLimit.KeyStrategy[] strategies = Arrays.stream(rateLimit.key())
+                    .filter(EARLY_STRATEGIES::contains)
+                    .toArray(RateLimit.KeyStrategy[]::new);
+            if (strategies.length == 0) {
+                continue;
+            }
+
+            Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+            List<String> methodNames = new ArrayList<>();
+            if (methods.isEmpty()) {
+                methodNames.add(null);
+            } else {
+                methods.forEach(method -> methodNames.add(method.name()));
+            }
+
+            for (PathPattern pattern : entry.getKey().getPathPatternsCondition().getPatterns()) {
+                for (String method : methodNames) {
+                    Route route = new Route(method, pattern, rateLimit.value(), rateLimit.message(), strategies);
+                    if (isLiteral(pattern)) {
+                        exact.computeIfAbsent(pattern.getPatternString(), path -> new ArrayList<>()).add(route);
+                    } else {
+                        patterns.add(route);
+                    }
+                }
+            }
+        }
+
+        this.exactRoutes = exact;
+        this.patternRoutes = patterns;
+        log.info("Таблица rate limit маршрутов собрана: {} точных путей, {} шаблонов", exact.size(), patterns.size());
+    }
+
+    /**
+     * Находит политику для запроса
+     *
+     * @param method HTTP метод
+     * @param path путь запроса без context path
+     * @return политика или {@code null}, если маршрут не ограничен
+     */
+    public Route find(String method, String path) {
+        List<Route> routes = exactRoutes.get(path);
+        if (routes != null) {
+            for (Route route : routes) {
+                if (route.matchesMethod(method)) {
+                    return route;
+                }
+            }
+        }
+
+        List<Route> patterns = patternRoutes;
+        if (patterns.isEmpty()) {
+            return null;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (Route route : patterns) {
+            if (route.matchesMethod(method) && route.pattern().matches(container)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isLiteral(PathPattern pattern) {
+        String value = pattern.getPatternString();
+        return value.indexOf('{') < 0 && value.indexOf('*') < 0 && value.indexOf('?') < 0;
+    }
+}
@@ -0,0 +1,181 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import azhue.katering.azhurkateringbackendjava.common.model.dto.CachedResponseBody;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Кэш заранее сериализованных и сжатых тел ответов.
+ *
+ * <p>Для горячих публичных эндпоинтов, которые отдают одинаковый JSON всем клиентам.
+ * Тело сериализуется и сжимается один раз на версию данных, после чего байты
+ * отдаются напрямую через {@code ByteArrayHttpMessageConverter} без участия Jackson.
+ * Вариант ответа выбирается по заголовку {@code Accept-Encoding}.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResponseBodyCache {
+
+    private static final String GZIP = "gzip";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.response-cache.max-size:100}")
+    private long maxSize;
+
+    @Value("${app.response-cache.ttl:60s}")
+    private Duration ttl;
+
+    @Value("${app.response-cache.min-compress-size:1024}")
+    private int minCompressSize;
+
+    private Cache<String, CachedResponseBody> bodies;
+
+    /**
+     * Создает кэш тел ответов при старте
+     */
+    @PostConstruct
+    void init() {
+        this.bodies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Получает тело ответа для ключа и версии данных.
+     *
+     * <p>При промахе тело строится один раз, конкурентные запросы ждут результат.</p>
+     *
+     * @param key имя ответа
+     * @param version версия данных, при смене которой тело строится заново
+     * @param bodySupplier источник данных для сериализации
+     */
+    public CachedResponseBody get(String key, long version, Supplier<?> bodySupplier) {
+        return bodies.get(key + ":" + version, cacheKey -> build(bodySupplier.get()));
+    }
+
+    /**
+     * Формирует ответ с подходящим вариантом тела.
+     *
+     * <p>Ответ содержит ETag и Last-Modified, поэтому для GET/HEAD Spring MVC сам
+     * проверяет If-None-Match / If-Modified-Since и при совпадении отдает
+     * {@code 304 Not Modified} без тела. У сжатого варианта свой strong ETag.</p>
+     *
+     * @param body закэшированное тело
+     * @param acceptEncoding значение заголовка {@code Accept-Encoding}
+     */
+    public ResponseEntity<byte[]> toResponse(CachedResponseBody body, String acceptEncoding) {
+        boolean useGzip = body.gzip() != null && accepts(acceptEncoding, GZIP);
+        byte[] bytes = useGzip ? body.gzip() : body.identity();
+        String etag = useGzip ? gzipETag(body.etag()) : body.etag();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(bytes.length)
+                .eTag(etag)
+                .lastModified(body.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (useGzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(bytes);
+    }
+
+    /**
+     * Сбрасывает все закэшированные тела
+     */
+    public void invalidateAll() {
+        bodies.invalidateAll();
+    }
+
+    private CachedResponseBody build(Object value) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(value);
+            byte[] gzip = identity.length >= minCompressSize ? gzip(identity) : null;
+            log.debug("Построено тело ответа: {} байт, gzip {} байт",
+                    identity.length, gzip != null ? gzip.length : 0);
+            return new CachedResponseBody(identity, gzip, etag(identity), Instant.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать тело ответа", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-" + GZIP + "\"";
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Проверяет, принимает ли клиент кодировку (с учетом {@code q=0})
+     */
+    private static boolean accepts(String acceptEncoding, String encoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String name = tokens[0].trim();
+            if (!name.equalsIgnoreCase(encoding) && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
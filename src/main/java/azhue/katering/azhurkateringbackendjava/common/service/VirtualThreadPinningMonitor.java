@@ -0,0 +1,107 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Обнаружение закрепления виртуальных потоков за потоком-носителем.
+ *
+ * <p>Виртуальный поток, заблокированный внутри {@code synchronized} или нативного
+ * вызова, не освобождает поток-носитель. Монитор подписывается на событие JFR
+ * {@code jdk.VirtualThreadPinned} длиннее {@code app.virtual-threads.pinning.threshold}
+ * и экспортирует его как счетчик {@code jvm.virtual_threads.pinned} и таймер
+ * {@code jvm.virtual_threads.pinned.duration}. Верхние кадры стека пишутся в лог,
+ * чтобы найти место закрепления.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.virtual-threads.pinning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.virtual-threads.pinning.threshold:20ms}")
+    private Duration threshold;
+
+    private RecordingStream stream;
+    private Counter pinnedCounter;
+    private Timer pinnedTimer;
+
+    /**
+     * Запускает поток событий JFR
+     */
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        this.pinnedCounter = Counter.builder("jvm.virtual_threads.pinned")
+                .description("Закрепления виртуальных потоков за потоком-носителем")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.virtual_threads.pinned.duration")
+                .description("Длительность закрепления виртуальных потоков")
+                .register(meterRegistry);
+
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Мониторинг закрепления виртуальных потоков запущен: threshold={}", threshold);
+    }
+
+    /**
+     * Останавливает поток событий JFR
+     */
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+
+        if (log.isDebugEnabled()) {
+            log.debug("Виртуальный поток закреплен на {}:\n{}", event.getDuration(), topFrames(event.getStackTrace()));
+        }
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<стек недоступен>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "    at " + frame.getMethod().getType().getName() + '.'
+                        + frame.getMethod().getName() + ':' + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
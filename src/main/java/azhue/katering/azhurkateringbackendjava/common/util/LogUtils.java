@@ -3,6 +3,10 @@ package azhue.katering.azhurkateringbackendjava.common.util;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Утилита для структурированного логирования с тегами операций.
  * 
@@ -85,6 +89,31 @@ public class LogUtils {
         MDC.remove(STATUS_TAG);
     }
 
+    /**
+     * Возвращает текущие теги операции.
+     *
+     * <p>Вложенная операция, выполняемая в потоке вызывающей, запоминает теги
+     * перед установкой своих и возвращает их через {@link #restoreTags(Map)}.</p>
+     */
+    public static Map<String, String> captureTags() {
+        Map<String, String> tags = new HashMap<>();
+        for (String tag : List.of(OPERATION_TAG, USER_ID_TAG, EMAIL_TAG, IP_TAG, STATUS_TAG)) {
+            String value = MDC.get(tag);
+            if (value != null) {
+                tags.put(tag, value);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Заменяет теги операции запомненными {@link #captureTags()}
+     */
+    public static void restoreTags(Map<String, String> tags) {
+        clearTags();
+        tags.forEach(MDC::put);
+    }
+
     /**
      * Устанавливает все теги для операции
      */
@@ -1,14 +1,18 @@
 package azhue.katering.azhurkateringbackendjava.menu.controller;
 
+import azhue.katering.azhurkateringbackendjava.common.model.dto.CachedResponseBody;
+import azhue.katering.azhurkateringbackendjava.common.service.ResponseBodyCache;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.CategoryRequest;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.CategoryResponse;
 import azhue.katering.azhurkateringbackendjava.menu.service.contract.CategoryService;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.MenuSnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -31,15 +35,21 @@ import java.util.UUID;
 public class CategoryController {
     
     private final CategoryService categoryService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final ResponseBodyCache responseBodyCache;
 
     @GetMapping
     @Operation(
             summary = "Получить все активные категории",
-            description = "Публичный метод для получения списка всех активных категорий"
+            description = "Публичный метод для получения списка всех активных категорий. " +
+                         "Сериализованный ответ (в том числе gzip) кэшируется до следующего изменения меню."
     )
-    public List<CategoryResponse> getActiveCategories() {
+    public ResponseEntity<byte[]> getActiveCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        return categoryService.getActiveCategories();
+        CachedResponseBody body = responseBodyCache.get("active-categories",
+                menuSnapshotService.getDataVersion(), categoryService::getActiveCategories);
+        return responseBodyCache.toResponse(body, acceptEncoding);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
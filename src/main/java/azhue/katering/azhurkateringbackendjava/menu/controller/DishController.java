@@ -1,10 +1,23 @@
 package azhue.katering.azhurkateringbackendjava.menu.controller;
 
+import azhue.katering.azhurkateringbackendjava.common.annotation.ConcurrencyLimit;
+import azhue.katering.azhurkateringbackendjava.common.model.dto.CachedResponseBody;
+import azhue.katering.azhurkateringbackendjava.common.model.dto.CursorResponse;
 import azhue.katering.azhurkateringbackendjava.common.model.dto.PaginatedResponse;
+import azhue.katering.azhurkateringbackendjava.common.service.ResponseBodyCache;
 import azhue.katering.azhurkateringbackendjava.common.service.MetricsService;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.projection.DishVersion;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.DishRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.ImageUploadFinalizeRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.ImageUploadRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishImageStatusResponse;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishSuggestionResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.ImageUploadUrlResponse;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.DishImageUploadService;
 import azhue.katering.azhurkateringbackendjava.menu.service.contract.DishService;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.DishSuggestService;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.MenuSnapshotService;
 import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,10 +28,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -42,24 +58,31 @@ public class DishController {
     
     private final DishService dishService;
     private final MetricsService metricsService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final ResponseBodyCache responseBodyCache;
+    private final DishSuggestService dishSuggestService;
+    private final DishImageUploadService dishImageUploadService;
 
     @GetMapping("/available")
     @Operation(
             summary = "Получить все доступные блюда",
             description = "Публичный метод для получения всех доступных блюд. " +
-                         "Данные кэшируются на уровне сервиса на 15 минут. " +
+                         "Данные кэшируются на уровне сервиса на 15 минут, сериализованный ответ " +
+                         "(в том числе gzip) - до следующего изменения меню. " +
                          "Frontend должен фильтровать блюда по категориям на клиенте."
     )
-    public ResponseEntity<List<DishResponse>> getAllAvailableDishes() {
+    public ResponseEntity<byte[]> getAllAvailableDishes(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
         Timer.Sample timer = metricsService.startDishReadProcessingTimer();
         
         try {
-            List<DishResponse> dishes = dishService.getAvailableDishes();
+            CachedResponseBody body = responseBodyCache.get("available-dishes",
+                    menuSnapshotService.getDataVersion(), dishService::getAvailableDishes);
             metricsService.incrementDishRead();
             
-            log.info("Успешно получено {} доступных блюд", dishes.size());
-            return ResponseEntity.ok(dishes);
+            log.debug("Отданы доступные блюда из кэша ответов: {} байт", body.identity().length);
+            return responseBodyCache.toResponse(body, acceptEncoding);
         } finally {
             metricsService.stopDishReadProcessingTimer(timer);
         }
@@ -68,24 +91,89 @@ public class DishController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Получить блюдо по ID",
-            description = "Публичный метод для получения детальной информации о блюде"
+            description = "Публичный метод для получения детальной информации о блюде. " +
+                         "Поддерживает условные запросы (If-None-Match / If-Modified-Since): " +
+                         "если блюдо не изменилось, возвращается 304 без тела."
     )
     public ResponseEntity<DishResponse> getDish(
-            @Parameter(description = "ID блюда") @PathVariable UUID id) {
+            @Parameter(description = "ID блюда") @PathVariable UUID id,
+            WebRequest webRequest) {
 
         Timer.Sample timer = metricsService.startDishReadProcessingTimer();
         
         try {
+            DishVersion version = dishService.getDishVersion(id);
+            if (webRequest.checkNotModified(version.toETag(), version.lastModifiedMillis())) {
+                log.debug("Блюдо не изменилось, возвращаем 304 (ID: {})", id);
+                return null;
+            }
+
             DishResponse dish = dishService.getDishById(id);
             metricsService.incrementDishRead();
             
             log.info("Успешно получено блюдо: {} (ID: {})", dish.getName(), id);
-            return ResponseEntity.ok(dish);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(dish);
         } finally {
             metricsService.stopDishReadProcessingTimer(timer);
         }
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    @GetMapping("/{id}/image-status")
+    @Operation(
+            summary = "Статус обработки изображения блюда",
+            description = "Изображение обрабатывается асинхронно после создания или изменения блюда. " +
+                         "Статусы: NONE, PENDING, PROCESSING, READY, FAILED. " +
+                         "В статусе READY возвращаются ссылки на изображение, в статусе FAILED - причина ошибки " +
+                         "(требует роль ADMIN или MODERATOR)."
+    )
+    public ResponseEntity<DishImageStatusResponse> getDishImageStatus(
+            @Parameter(description = "ID блюда") @PathVariable UUID id) {
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(dishService.getDishImageStatus(id));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Подсказки для поиска блюд",
+            description = "Публичный метод автодополнения по названиям доступных блюд и активных категорий. " +
+                         "Отвечает из индекса в памяти без обращения к базе данных. " +
+                         "Регистр и «ё»/«е» не различаются."
+    )
+    public ResponseEntity<List<DishSuggestionResponse>> suggestDishes(
+            @Parameter(description = "Начало или часть названия") @RequestParam String query,
+            @Parameter(description = "Количество подсказок (максимум 20)")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(dishSuggestService.suggest(query, limit));
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Поиск блюд",
+            description = "Публичный метод для поиска доступных блюд по названию и описанию. " +
+                         "Учитывает морфологию и опечатки, результаты отсортированы по релевантности."
+    )
+    public ResponseEntity<PaginatedResponse<DishResponse>> searchDishes(
+            @Parameter(description = "Поисковый запрос") @RequestParam String query,
+            @Parameter(description = "Номер страницы (начиная с 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Размер страницы (максимум 100)")
+            @RequestParam(defaultValue = "20") int size) {
+
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        Pageable pageable = PageRequest.of(page, size);
+        Page<DishResponse> dishes = dishService.searchDishesByName(query, pageable);
+
+        log.info("Поиск блюд: найдено {} (страница {}, размер {})", dishes.getTotalElements(), page, size);
+        return ResponseEntity.ok(PaginatedResponse.fromPage(dishes));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
     @GetMapping
     @Operation(
@@ -117,6 +205,38 @@ public class DishController {
         }
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Получить блюда с курсорной пагинацией",
+            description = "Режим keyset-пагинации для списка блюд с необязательными фильтрами по категории " +
+                         "и доступности (требует роль ADMIN или MODERATOR). Блюда отсортированы от новых к старым. " +
+                         "Для следующей страницы передайте nextCursor из предыдущего ответа. " +
+                         "Общее количество не считается, скорость не зависит от глубины страницы."
+    )
+    public ResponseEntity<CursorResponse<DishResponse>> getDishesByCursor(
+            @Parameter(description = "ID категории") @RequestParam(required = false) UUID category_id,
+            @Parameter(description = "Доступность") @RequestParam(required = false) Boolean is_available,
+            @Parameter(description = "Курсор из предыдущего ответа (пусто для первой страницы)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (максимум 100)")
+            @RequestParam(defaultValue = "20") int size) {
+
+        Timer.Sample timer = metricsService.startDishReadProcessingTimer();
+
+        try {
+            size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+            CursorResponse<DishResponse> dishes = dishService.scrollDishes(category_id, is_available, cursor, size);
+            metricsService.incrementDishRead();
+
+            log.info("Успешно получено {} блюд по курсору (есть следующая: {})", dishes.getSize(), dishes.isHasNext());
+            return ResponseEntity.ok(dishes);
+        } finally {
+            metricsService.stopDishReadProcessingTimer(timer);
+        }
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
     @GetMapping("/category/{category_id}")
     public ResponseEntity<PaginatedResponse<DishResponse>> getDishByCategory(
@@ -156,10 +276,13 @@ public class DishController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
     @PostMapping
+    @ConcurrencyLimit("dishWriteConcurrencyLimiter")
     @Operation(
             summary = "Создать блюдо",
             description = "Создание нового блюда с возможностью загрузки изображения " +
                          "(требует роль ADMIN или MODERATOR). " +
+                    "Изображение обрабатывается асинхронно: блюдо возвращается со статусом изображения PENDING, " +
+                    "ссылки появляются после обработки (см. /{id}/image-status). " +
                     "Кэш доступных блюд автоматически обновляется на уровне сервиса."
     )
     public ResponseEntity<DishResponse> createDish(
@@ -183,6 +306,7 @@ public class DishController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
     @PutMapping("/{id}")
+    @ConcurrencyLimit("dishWriteConcurrencyLimiter")
     @Operation(
             summary = "Обновить блюдо",
             description = "Обновление блюда по ID с возможностью загрузки нового изображения " +
@@ -207,8 +331,47 @@ public class DishController {
         }
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    @PostMapping("/{id}/image/upload-url")
+    @Operation(
+            summary = "Получить URL для загрузки изображения",
+            description = "Выдает presigned URL с коротким сроком действия для загрузки изображения " +
+                         "напрямую в хранилище. Клиент выполняет PUT на uploadUrl с заголовками из headers, " +
+                         "затем вызывает /{id}/image/finalize с uploadId " +
+                         "(требует роль ADMIN или MODERATOR)."
+    )
+    public ResponseEntity<ImageUploadUrlResponse> createImageUploadUrl(
+            @Parameter(description = "ID блюда") @PathVariable UUID id,
+            @Valid @RequestBody ImageUploadRequest request) {
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(dishImageUploadService.createUploadUrl(id, request));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    @PostMapping("/{id}/image/finalize")
+    @ConcurrencyLimit("dishWriteConcurrencyLimiter")
+    @Operation(
+            summary = "Завершить загрузку изображения",
+            description = "Проверяет файл, загруженный по presigned URL (размер, сигнатура формата, " +
+                         "размеры в пикселях), и ставит его в асинхронную обработку. " +
+                         "Статус обработки доступен по /{id}/image-status " +
+                         "(требует роль ADMIN или MODERATOR)."
+    )
+    public ResponseEntity<DishImageStatusResponse> finalizeImageUpload(
+            @Parameter(description = "ID блюда") @PathVariable UUID id,
+            @Valid @RequestBody ImageUploadFinalizeRequest request) throws IOException {
+
+        DishImageStatusResponse status = dishImageUploadService.finalizeUpload(id, request);
+
+        log.info("Загрузка изображения завершена: dishId={}, status={}", id, status.getStatus());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
+    @ConcurrencyLimit("dishWriteConcurrencyLimiter")
     @Operation(
             summary = "Удалить блюдо",
             description = "Удаление блюда по ID (требует роль ADMIN). " +
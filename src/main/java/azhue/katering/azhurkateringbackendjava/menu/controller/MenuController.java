@@ -0,0 +1,47 @@
+package azhue.katering.azhurkateringbackendjava.menu.controller;
+
+import azhue.katering.azhurkateringbackendjava.common.model.dto.CachedResponseBody;
+import azhue.katering.azhurkateringbackendjava.common.service.ResponseBodyCache;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.MenuResponse;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.MenuSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для получения меню
+ * Публичный, без авторизации
+ *
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/menu")
+@RequiredArgsConstructor
+@Tag(name = "Меню", description = "API для получения меню")
+public class MenuController {
+
+    private final MenuSnapshotService menuSnapshotService;
+    private final ResponseBodyCache responseBodyCache;
+
+    @GetMapping
+    @Operation(
+            summary = "Получить меню",
+            description = "Публичный метод для получения меню: активные категории с доступными блюдами. " +
+                         "Отдается из снимка в памяти, который перестраивается после изменения блюд и категорий."
+    )
+    public ResponseEntity<byte[]> getMenu(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MenuResponse menu = menuSnapshotService.getMenu();
+        CachedResponseBody body = responseBodyCache.get("menu", menu.getVersion(), () -> menu);
+        log.debug("Отдан снимок меню версии {}", menu.getVersion());
+        return responseBodyCache.toResponse(body, acceptEncoding);
+    }
+}
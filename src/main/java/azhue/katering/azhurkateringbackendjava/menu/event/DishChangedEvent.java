@@ -0,0 +1,48 @@
+package azhue.katering.azhurkateringbackendjava.menu.event;
+
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+
+import java.util.UUID;
+
+/**
+ * Событие изменения блюда.
+ *
+ * <p>Публикуется после создания, изменения, смены доступности или удаления блюда.
+ * Несет данные, достаточные для инкрементального обновления индексов в памяти
+ * без повторного чтения из базы данных.</p>
+ *
+ * @param dishId идентификатор блюда
+ * @param type тип изменения
+ * @param name название блюда
+ * @param categoryName название категории
+ * @param available доступно ли блюдо
+ * @version 1.0.0
+ */
+public record DishChangedEvent(
+        UUID dishId,
+        ChangeType type,
+        String name,
+        String categoryName,
+        boolean available
+) {
+
+    /**
+     * Тип изменения блюда
+     */
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * Создает событие по сущности блюда
+     */
+    public static DishChangedEvent of(Dish dish, ChangeType type) {
+        return new DishChangedEvent(
+                dish.getId(),
+                type,
+                dish.getName(),
+                dish.getCategory() != null ? dish.getCategory().getName() : null,
+                type != ChangeType.DELETED && Boolean.TRUE.equals(dish.getIsAvailable())
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package azhue.katering.azhurkateringbackendjava.menu.event;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Событие постановки изображения блюда в обработку.
+ *
+ * <p>После фиксации транзакции задание передается обработчикам изображений,
+ * после отката буферный файл удаляется.</p>
+ *
+ * @param dishId идентификатор блюда
+ * @param jobId идентификатор задания обработки
+ * @param file буферный файл или {@code null}, если файл еще в хранилище
+ * @param sourceKey ключ файла, загруженного по presigned URL, или {@code null}
+ * @version 1.0.0
+ */
+public record DishImageQueuedEvent(UUID dishId, UUID jobId, Path file, String sourceKey) {
+}
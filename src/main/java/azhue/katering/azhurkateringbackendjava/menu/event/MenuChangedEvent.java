@@ -0,0 +1,14 @@
+package azhue.katering.azhurkateringbackendjava.menu.event;
+
+/**
+ * Событие изменения меню.
+ *
+ * <p>Публикуется после создания, изменения или удаления категории.
+ * По этому событию перестраивается снимок меню. Изменения блюд
+ * публикуются как {@link DishChangedEvent}.</p>
+ *
+ * @param reason описание изменения для логов
+ * @version 1.0.0
+ */
+public record MenuChangedEvent(String reason) {
+}
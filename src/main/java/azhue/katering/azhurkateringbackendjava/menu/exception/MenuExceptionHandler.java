@@ -6,10 +6,13 @@ import azhue.katering.azhurkateringbackendjava.menu.exception.category.CategoryH
 import azhue.katering.azhurkateringbackendjava.menu.exception.category.CategoryNotFoundException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.dish.DishAlreadyExistsException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.dish.DishNotFoundException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.dish.InvalidCursorException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageDimensionsException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageEmptyException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageExtensionException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageSizeException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageTypeException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageUploadNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -53,6 +56,22 @@ public class MenuExceptionHandler {
                         .build());
     }
 
+    /**
+     * Обрабатывает ошибки некорректного курсора пагинации
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCursorException(
+            InvalidCursorException ex) {
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.<Void>builder()
+                        .success(false)
+                        .message(ex.getMessage())
+                        .errorCode("INVALID_CURSOR")
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
     /**
      * Обрабатывает ошибки когда категория уже существует
      */
@@ -165,4 +184,35 @@ public class MenuExceptionHandler {
                         .build());
     }
 
+    /**
+     * Обрабатывает ошибки когда размеры изображения недопустимы
+     */
+    @ExceptionHandler(ImageDimensionsException.class)
+    public ResponseEntity<ApiResponse<Void>> handleImageDimensionsException(
+            ImageDimensionsException ex) {
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.<Void>builder()
+                        .success(false)
+                        .message(ex.getMessage())
+                        .errorCode("IMAGE_DIMENSIONS_INVALID")
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    /**
+     * Обрабатывает ошибки когда загруженный по presigned URL файл не найден
+     */
+    @ExceptionHandler(ImageUploadNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleImageUploadNotFoundException(
+            ImageUploadNotFoundException ex) {
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.<Void>builder()
+                        .success(false)
+                        .message(ex.getMessage())
+                        .errorCode("IMAGE_UPLOAD_NOT_FOUND")
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
 }
@@ -0,0 +1,13 @@
+package azhue.katering.azhurkateringbackendjava.menu.exception.dish;
+
+/**
+ * Исключение, возникающее при некорректном курсоре пагинации
+ *
+ * @version 1.0.0
+ */
+public class InvalidCursorException extends RuntimeException {
+    
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
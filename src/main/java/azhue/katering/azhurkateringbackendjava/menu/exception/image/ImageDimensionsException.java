@@ -0,0 +1,13 @@
+package azhue.katering.azhurkateringbackendjava.menu.exception.image;
+
+/**
+ * Исключение, возникающее когда размеры изображения в пикселях превышают допустимые
+ *
+ * @version 1.0.0
+ */
+public class ImageDimensionsException extends RuntimeException {
+
+    public ImageDimensionsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package azhue.katering.azhurkateringbackendjava.menu.exception.image;
+
+/**
+ * Исключение, возникающее когда файл, загруженный по presigned URL, не найден в хранилище
+ *
+ * @version 1.0.0
+ */
+public class ImageUploadNotFoundException extends RuntimeException {
+
+    public ImageUploadNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.projection;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Версия блюда и его категории для условных запросов.
+ *
+ * <p>Ответ с блюдом включает данные категории, поэтому ETag строится
+ * из версий обеих сущностей.</p>
+ *
+ * @param dishId идентификатор блюда
+ * @param dishVersion версия блюда
+ * @param dishUpdatedAt время изменения блюда
+ * @param categoryVersion версия категории
+ * @param categoryUpdatedAt время изменения категории
+ * @version 1.0.0
+ */
+public record DishVersion(
+        UUID dishId,
+        Long dishVersion,
+        LocalDateTime dishUpdatedAt,
+        Long categoryVersion,
+        LocalDateTime categoryUpdatedAt
+) {
+
+    /**
+     * Weak ETag: совпадает для семантически одинаковых ответов
+     */
+    public String toETag() {
+        return "W/\"" + dishId + "-" + dishVersion + "-" + categoryVersion + "\"";
+    }
+
+    /**
+     * Время последнего изменения блюда или категории в миллисекундах
+     */
+    public long lastModifiedMillis() {
+        LocalDateTime lastModified = dishUpdatedAt;
+        if (categoryUpdatedAt != null && (lastModified == null || categoryUpdatedAt.isAfter(lastModified))) {
+            lastModified = categoryUpdatedAt;
+        }
+        return lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1L;
+    }
+}
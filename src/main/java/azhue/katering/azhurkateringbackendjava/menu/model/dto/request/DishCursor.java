@@ -0,0 +1,48 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.request;
+
+import azhue.katering.azhurkateringbackendjava.menu.exception.dish.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция курсора в списке блюд: ключ сортировки {@code (createdAt, id)} последнего
+ * элемента страницы. Клиенту передается как непрозрачная строка.
+ *
+ * @param createdAt время создания последнего блюда на странице
+ * @param id идентификатор последнего блюда на странице
+ * @version 1.0.0
+ */
+public record DishCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Кодирует курсор в непрозрачную строку
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор из строки
+     */
+    public static DishCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Некорректный курсор");
+            }
+            return new DishCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Некорректный курсор");
+        }
+    }
+}
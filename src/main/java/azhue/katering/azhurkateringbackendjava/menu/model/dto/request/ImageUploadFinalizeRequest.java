@@ -0,0 +1,24 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO для запроса завершения загрузки изображения по presigned URL
+ *
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadFinalizeRequest {
+
+    @NotNull(message = "Идентификатор загрузки обязателен")
+    private UUID uploadId;
+}
@@ -0,0 +1,28 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO для запроса presigned URL загрузки изображения блюда
+ *
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadRequest {
+
+    @NotBlank(message = "Тип файла обязателен")
+    private String contentType;
+
+    @NotNull(message = "Размер файла обязателен")
+    @Positive(message = "Размер файла должен быть больше 0")
+    private Long size;
+}
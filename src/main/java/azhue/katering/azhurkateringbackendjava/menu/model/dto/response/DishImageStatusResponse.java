@@ -0,0 +1,34 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.response;
+
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO для ответа со статусом обработки изображения блюда
+ *
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DishImageStatusResponse {
+
+    private UUID dishId;
+
+    private Dish.ImageStatus status;
+
+    private String imageUrl;
+
+    private String thumbnailUrl;
+
+    private List<ImageVariantResponse> imageVariants;
+
+    private String error;
+}
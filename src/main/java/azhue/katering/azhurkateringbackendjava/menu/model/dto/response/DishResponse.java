@@ -1,11 +1,13 @@
 package azhue.katering.azhurkateringbackendjava.menu.model.dto.response;
 
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -33,5 +35,12 @@ public class DishResponse {
 
     private String thumbnailUrl;
 
+    /**
+     * Варианты изображения по возрастанию ширины для {@code srcset}
+     */
+    private List<ImageVariantResponse> imageVariants;
+
+    private Dish.ImageStatus imageStatus;
+
     private Boolean isAvailable;
 }
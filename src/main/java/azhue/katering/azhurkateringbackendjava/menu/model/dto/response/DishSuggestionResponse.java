@@ -0,0 +1,31 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO для подсказки автодополнения
+ *
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DishSuggestionResponse {
+
+    private UUID id;
+
+    /**
+     * Тип подсказки: {@code DISH} или {@code CATEGORY}
+     */
+    private String type;
+
+    private String name;
+
+    private String categoryName;
+}
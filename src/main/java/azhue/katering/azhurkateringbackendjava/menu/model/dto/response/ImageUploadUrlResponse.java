@@ -0,0 +1,35 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DTO для ответа с presigned URL загрузки изображения блюда
+ *
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadUrlResponse {
+
+    private UUID uploadId;
+
+    private String uploadUrl;
+
+    private String method;
+
+    /**
+     * Заголовки, которые клиент обязан передать в запросе загрузки (входят в подпись)
+     */
+    private Map<String, String> headers;
+
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,26 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO варианта изображения для {@code srcset}
+ *
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariantResponse {
+
+    private String url;
+
+    private Integer width;
+
+    private Integer height;
+
+    private String format;
+}
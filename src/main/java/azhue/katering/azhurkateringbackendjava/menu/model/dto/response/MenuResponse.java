@@ -0,0 +1,28 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.dto.response;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO для ответа со снимком меню
+ *
+ * <p>Неизменяемый объект: собирается целиком при перестроении меню
+ * и заменяется атомарно.</p>
+ *
+ * @version 1.0.0
+ */
+@Value
+@Builder
+public class MenuResponse {
+
+    long version;
+
+    Instant generatedAt;
+
+    List<CategoryWithDishesResponse> categories;
+
+    int dishCount;
+}
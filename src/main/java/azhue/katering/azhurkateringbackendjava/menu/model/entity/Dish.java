@@ -3,9 +3,13 @@ package azhue.katering.azhurkateringbackendjava.menu.model.entity;
 import azhue.katering.azhurkateringbackendjava.common.model.entity.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Сущность блюда
@@ -39,11 +43,46 @@ public class Dish extends BaseEntity {
 
     @Column(name = "thumbnail_url", length = 500)
     private String thumbnailUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status", nullable = false, length = 20)
+    @Builder.Default
+    private ImageStatus imageStatus = ImageStatus.NONE;
+
+    @Column(name = "image_job_id")
+    private UUID imageJobId;
+
+    @Column(name = "image_error", columnDefinition = "TEXT")
+    private String imageError;
+
+    @Column(name = "image_source_key", length = 500)
+    private String imageSourceKey;
+
+    /**
+     * Задание, файлы которого опубликованы в imageUrl. Изменяется только при завершении задания
+     */
+    @Column(name = "image_ready_job_id", insertable = false, updatable = false)
+    private UUID imageReadyJobId;
+
+    @Column(name = "image_attempts", nullable = false)
+    @Builder.Default
+    private Integer imageAttempts = 0;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "image_variants", columnDefinition = "jsonb")
+    private List<ImageVariant> imageVariants;
     
     @Column(name = "is_available", nullable = false)
     @Builder.Default
     private Boolean isAvailable = true;
     
+    /**
+     * Статус обработки изображения
+     */
+    public enum ImageStatus {
+        NONE, PENDING, PROCESSING, READY, FAILED
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,22 @@
+package azhue.katering.azhurkateringbackendjava.menu.model.entity;
+
+/**
+ * Вариант изображения блюда заданной ширины и формата.
+ *
+ * <p>Хранится в JSONB колонке {@code dishes.image_variants}.</p>
+ *
+ * @param key ключ объекта в S3
+ * @param url публичный URL
+ * @param width ширина в пикселях
+ * @param height высота в пикселях
+ * @param format формат ({@code jpg}, {@code webp})
+ * @version 1.0.0
+ */
+public record ImageVariant(
+        String key,
+        String url,
+        int width,
+        int height,
+        String format
+) {
+}
@@ -1,56 +1,233 @@
 package azhue.katering.azhurkateringbackendjava.menu.repository;
 
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.projection.DishVersion;
 import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Репозиторий для работы с блюдами
  *
+ * <p>Все запросы, результат которых маппится в {@code DishResponse}, загружают
+ * категорию вместе с блюдом (entity graph или JOIN FETCH), чтобы не было
+ * отдельного SELECT категории на каждое блюдо.</p>
+ *
  * @version 1.0.0
  */
 @Repository
 public interface DishRepository extends JpaRepository<Dish, UUID> {
     
+    /**
+     * Найти блюдо по ID вместе с категорией
+     */
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Dish> findById(UUID id);
+    
+    /**
+     * Найти все блюда с пагинацией вместе с категориями
+     */
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Dish> findAll(Pageable pageable);
+    
     /**
      * Найти блюда по категории
      */
-    @Query("SELECT d FROM Dish d " +
+    @Query(value = "SELECT d FROM Dish d " +
             "LEFT JOIN FETCH d.category c " +
+            "WHERE (:categoryId IS NULL OR d.category.id = :categoryId)",
+            countQuery = "SELECT COUNT(d) FROM Dish d " +
             "WHERE (:categoryId IS NULL OR d.category.id = :categoryId)"
     )
     Page<Dish> findByCategoryId(@Param("categoryId") UUID categoryId,
                                 Pageable pageable);
     
+    /**
+     * Первая страница блюд с фильтрами в порядке (createdAt, id) по убыванию, без подсчета
+     */
+    @Query("SELECT d FROM Dish d " +
+           "LEFT JOIN FETCH d.category c " +
+           "WHERE (:categoryId IS NULL OR d.category.id = :categoryId) " +
+           "AND (:isAvailable IS NULL OR d.isAvailable = :isAvailable) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Dish> findFirstByFilters(@Param("categoryId") UUID categoryId,
+                                  @Param("isAvailable") Boolean isAvailable,
+                                  Limit limit);
+    
+    /**
+     * Следующая страница блюд с фильтрами после позиции курсора (keyset), без подсчета
+     */
+    @Query("SELECT d FROM Dish d " +
+           "LEFT JOIN FETCH d.category c " +
+           "WHERE (:categoryId IS NULL OR d.category.id = :categoryId) " +
+           "AND (:isAvailable IS NULL OR d.isAvailable = :isAvailable) " +
+           "AND (d.createdAt, d.id) < (:createdAt, :id) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Dish> findNextByFilters(@Param("categoryId") UUID categoryId,
+                                 @Param("isAvailable") Boolean isAvailable,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") UUID id,
+                                 Limit limit);
+    
     /**
      * Найти все доступные блюда
      */
+    @EntityGraph(attributePaths = "category")
     List<Dish> findByIsAvailableTrue();
     
     /**
-     * Поиск блюд по названию (содержит)
+     * Найти блюда по списку ID вместе с категориями
+     */
+    @EntityGraph(attributePaths = "category")
+    List<Dish> findByIdIn(Collection<UUID> ids);
+    
+    /**
+     * Ранжированный поиск доступных блюд по названию и описанию.
+     *
+     * <p>Совпадение по полнотекстовому вектору (русский стемминг), по триграммному
+     * сходству слов названия или по подстроке. Все условия обслуживаются GIN индексами.
+     * Возвращает только ID: сами блюда загружаются отдельно вместе с категориями.</p>
      */
-    @Query("SELECT d FROM Dish d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Dish> findByNameContainingIgnoreCase(@Param("name") String name);
+    @Query(value = "SELECT d.id FROM dishes d " +
+           "WHERE d.is_available = true " +
+           "AND (d.search_vector @@ plainto_tsquery('russian', :query) " +
+           "OR lower(:query) <% lower(d.name) " +
+           "OR lower(d.name) LIKE :pattern) " +
+           "ORDER BY ts_rank(d.search_vector, plainto_tsquery('russian', :query)) DESC, " +
+           "word_similarity(lower(:query), lower(d.name)) DESC, d.name",
+           countQuery = "SELECT count(*) FROM dishes d " +
+           "WHERE d.is_available = true " +
+           "AND (d.search_vector @@ plainto_tsquery('russian', :query) " +
+           "OR lower(:query) <% lower(d.name) " +
+           "OR lower(d.name) LIKE :pattern)",
+           nativeQuery = true)
+    Page<UUID> searchAvailableDishIds(@Param("query") String query,
+                                      @Param("pattern") String pattern,
+                                      Pageable pageable);
+    
+    /**
+     * Устанавливает порог триграммного сходства для текущей транзакции
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', CAST(:threshold AS text), true)",
+           nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") double threshold);
     
     /**
      * Поиск блюд с пагинацией
      */
-    @Query("SELECT d FROM Dish d " +
+    @Query(value = "SELECT d FROM Dish d " +
            "LEFT JOIN FETCH d.category c " +
            "WHERE (:categoryId IS NULL OR d.category.id = :categoryId) " +
+           "AND (:isAvailable IS NULL OR d.isAvailable = :isAvailable)",
+           countQuery = "SELECT COUNT(d) FROM Dish d " +
+           "WHERE (:categoryId IS NULL OR d.category.id = :categoryId) " +
            "AND (:isAvailable IS NULL OR d.isAvailable = :isAvailable)")
     Page<Dish> findByFilters(@Param("categoryId") UUID categoryId, 
                             @Param("isAvailable") Boolean isAvailable, 
                             Pageable pageable);
     
+    /**
+     * Получить только версии блюда и его категории (для условных запросов)
+     */
+    @Query("SELECT new azhue.katering.azhurkateringbackendjava.menu.model.dto.projection.DishVersion(" +
+           "d.id, d.version, d.updatedAt, c.version, c.updatedAt) " +
+           "FROM Dish d LEFT JOIN d.category c WHERE d.id = :id")
+    Optional<DishVersion> findVersionById(@Param("id") UUID id);
+    
+    /**
+     * Перевести изображение в обработку и засчитать запуск задания, если задание
+     * не вытеснено новой загрузкой и число запусков меньше {@code maxAttempts}
+     *
+     * @return 1, если задание запущено, иначе 0
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Dish d SET d.imageStatus = :status, d.imageAttempts = d.imageAttempts + 1, " +
+           "d.version = d.version + 1, d.updatedAt = :now " +
+           "WHERE d.id = :id AND d.imageJobId = :jobId AND d.imageStatus IN :active " +
+           "AND d.imageAttempts < :maxAttempts")
+    int markImageProcessing(@Param("id") UUID id,
+                            @Param("jobId") UUID jobId,
+                            @Param("status") Dish.ImageStatus status,
+                            @Param("active") Collection<Dish.ImageStatus> active,
+                            @Param("maxAttempts") int maxAttempts,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Найти задание, файлы которого сейчас опубликованы, и заблокировать строку блюда
+     * до конца транзакции, чтобы значение не изменилось до {@link #completeImage}
+     */
+    @Query(value = "SELECT image_ready_job_id FROM dishes WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<UUID> findReadyImageJobIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Сохранить ссылки на обработанное изображение и его варианты, если задание актуально,
+     * и запомнить задание как опубликованное
+     *
+     * @param variants варианты изображения в JSON
+     * @return 1, если задание актуально, иначе 0
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE dishes SET image_url = :imageUrl, thumbnail_url = :thumbnailUrl, " +
+                   "image_variants = CAST(:variants AS jsonb), image_status = 'READY', image_error = NULL, " +
+                   "image_source_key = NULL, image_ready_job_id = :jobId, " +
+                   "version = version + 1, updated_at = :now " +
+                   "WHERE id = :id AND image_job_id = :jobId",
+           nativeQuery = true)
+    int completeImage(@Param("id") UUID id,
+                      @Param("jobId") UUID jobId,
+                      @Param("imageUrl") String imageUrl,
+                      @Param("thumbnailUrl") String thumbnailUrl,
+                      @Param("variants") String variants,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Отметить ошибку обработки изображения, если задание актуально
+     *
+     * @return 1, если задание актуально, иначе 0
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Dish d SET d.imageStatus = :status, d.imageError = :error, " +
+           "d.version = d.version + 1, d.updatedAt = :now " +
+           "WHERE d.id = :id AND d.imageJobId = :jobId")
+    int failImage(@Param("id") UUID id,
+                  @Param("jobId") UUID jobId,
+                  @Param("status") Dish.ImageStatus status,
+                  @Param("error") String error,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Проверить, что задание обработки изображения еще не завершено и не вытеснено
+     */
+    @Query("SELECT COUNT(d) > 0 FROM Dish d WHERE d.id = :id AND d.imageJobId = :jobId " +
+           "AND d.imageStatus IN :active")
+    boolean isImageJobActive(@Param("id") UUID id,
+                             @Param("jobId") UUID jobId,
+                             @Param("active") Collection<Dish.ImageStatus> active);
+    
+    /**
+     * Найти незавершенные задания обработки файлов, загруженных по presigned URL
+     */
+    List<Dish> findTop50ByImageStatusInAndImageSourceKeyIsNotNullAndUpdatedAtBefore(
+            Collection<Dish.ImageStatus> statuses, LocalDateTime updatedBefore);
+    
     /**
      * Проверить существование блюд в категории
      */
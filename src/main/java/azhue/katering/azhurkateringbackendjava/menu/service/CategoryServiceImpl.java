@@ -1,5 +1,6 @@
 package azhue.katering.azhurkateringbackendjava.menu.service;
 
+import azhue.katering.azhurkateringbackendjava.menu.event.MenuChangedEvent;
 import azhue.katering.azhurkateringbackendjava.menu.exception.category.CategoryAlreadyExistsException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.category.CategoryHasDishesException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.category.CategoryNotFoundException;
@@ -12,6 +13,7 @@ import azhue.katering.azhurkateringbackendjava.menu.service.contract.CategorySer
 import azhue.katering.azhurkateringbackendjava.menu.service.mapper.CategoryMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +34,7 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final DishRepository dishRepository;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     @Transactional(readOnly = true)
@@ -68,6 +71,7 @@ public class CategoryServiceImpl implements CategoryService {
         
         Category savedCategory = categoryRepository.save(category);
         log.info("Создана новая категория: {} (ID: {})", request.getName(), savedCategory.getId());
+        eventPublisher.publishEvent(new MenuChangedEvent("category created"));
         
         return categoryMapper.toResponse(savedCategory);
     }
@@ -97,6 +101,7 @@ public class CategoryServiceImpl implements CategoryService {
         
         Category updatedCategory = categoryRepository.save(category);
         log.info("Обновлена категория: {} (ID: {})", request.getName(), id);
+        eventPublisher.publishEvent(new MenuChangedEvent("category updated"));
         
         return categoryMapper.toResponse(updatedCategory);
     }
@@ -119,6 +124,7 @@ public class CategoryServiceImpl implements CategoryService {
         
         categoryRepository.delete(category);
         log.info("Удалена категория: {} (ID: {})", category.getName(), id);
+        eventPublisher.publishEvent(new MenuChangedEvent("category deleted"));
     }
     
     @Override
@@ -137,5 +143,6 @@ public class CategoryServiceImpl implements CategoryService {
         
         String status = updatedCategory.getIsActive() ? "активирована" : "деактивирована";
         log.info("Категория {} {} (ID: {})", category.getName(), status, id);
+        eventPublisher.publishEvent(new MenuChangedEvent("category status toggled"));
     }
 }
@@ -0,0 +1,665 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.common.exception.general.ServiceOverloadedException;
+import azhue.katering.azhurkateringbackendjava.common.service.MetricsService;
+import azhue.katering.azhurkateringbackendjava.menu.event.DishChangedEvent;
+import azhue.katering.azhurkateringbackendjava.menu.event.DishImageQueuedEvent;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.ImageVariant;
+import azhue.katering.azhurkateringbackendjava.menu.repository.DishRepository;
+import com.amazonaws.SdkClientException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Асинхронная обработка изображений блюд.
+ *
+ * <p>Загруженный файл сохраняется в буферный каталог {@code app.images.pipeline.spool-dir},
+ * блюдо фиксируется со статусом изображения PENDING, и запрос завершается без обращения
+ * к S3. После фиксации транзакции задание выполняет ограниченный пул обработчиков:
+ * декодирует изображение один раз, строит варианты разной ширины через
+ * {@link ImageVariantGenerator}, загружает оригинал и варианты в S3, сохраняет ссылки
+ * и размеры вариантов в блюде и сбрасывает кэши меню.</p>
+ *
+ * <p>Файл, загруженный клиентом напрямую в хранилище по presigned URL, обработчик
+ * скачивает сам, а оригинал копирует внутри хранилища без передачи через приложение.
+ * Ключ такого файла хранится в {@code image_source_key} до завершения задания.</p>
+ *
+ * <p>Каждая загрузка получает свой {@code image_job_id} и свой префикс ключей в S3.
+ * Ссылки сохраняются, только если задание не вытеснено новой загрузкой, поэтому старое
+ * изображение остается доступным до готовности нового, а вытесненные файлы удаляются.
+ * Завершенное задание запоминается в {@code image_ready_job_id}; следующее завершенное
+ * задание удаляет только его каталог, не затрагивая файлы более новых загрузок.</p>
+ *
+ * <p>Число принятых и еще не завершенных заданий ограничено {@code workers + queue-capacity}.
+ * Сверх лимита загрузка отклоняется {@link ServiceOverloadedException} до изменения блюда.
+ * Буферный файл удаляется после завершения задания. Файлы заданий, прерванных остановкой
+ * инстанса или ошибкой базы данных, повторно ставятся в очередь при старте и периодически.
+ * Буферный каталог локален для инстанса, поэтому каждый инстанс восстанавливает свои файлы.
+ * Запуски задания считаются в {@code image_attempts}: после {@code max-attempts} запусков
+ * задание отмечается FAILED. Ошибка декодирования не зависит от повтора и сразу
+ * завершает задание со статусом FAILED.</p>
+ *
+ * <p>Метрики: {@code dish.image.queue.depth}, {@code dish.image.active},
+ * {@code dish.image.processing.time} и {@code dish.image.jobs} с тегом {@code result}.</p>
+ *
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DishImagePipeline {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String DOWNLOAD_SUFFIX = ".download";
+    private static final List<Dish.ImageStatus> ACTIVE_STATUSES =
+            List.of(Dish.ImageStatus.PENDING, Dish.ImageStatus.PROCESSING);
+
+    private final DishRepository dishRepository;
+    private final S3Service s3Service;
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final ImageInspector imageInspector;
+    private final ObjectMapper objectMapper;
+    private final MetricsService metricsService;
+    private final MeterRegistry meterRegistry;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.images.pipeline.spool-dir:${java.io.tmpdir}/azhur-image-spool}")
+    private String spoolDirectory;
+
+    @Value("${app.images.pipeline.workers:2}")
+    private int workers;
+
+    @Value("${app.images.pipeline.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.images.pipeline.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.images.pipeline.initial-backoff:2s}")
+    private Duration initialBackoff;
+
+    @Value("${app.images.pipeline.recovery-delay:1m}")
+    private Duration recoveryDelay;
+
+    @Value("${app.images.variants.thumbnail-width:320}")
+    private int thumbnailWidth;
+
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    private Path spoolDir;
+    private Semaphore slots;
+    private ThreadPoolExecutor executor;
+    private Timer processingTimer;
+
+    /**
+     * Создает буферный каталог и пул обработчиков
+     */
+    @PostConstruct
+    void init() throws IOException {
+        this.spoolDir = Path.of(spoolDirectory);
+        Files.createDirectories(spoolDir);
+
+        this.slots = new Semaphore(workers + queueCapacity);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dish-image-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("dish.image.queue.depth", executor, e -> e.getQueue().size())
+                .description("Изображения, ожидающие обработки")
+                .register(meterRegistry);
+        Gauge.builder("dish.image.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Изображения в обработке")
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("dish.image.processing.time")
+                .description("Время обработки изображения от декодирования до сохранения ссылок")
+                .register(meterRegistry);
+
+        log.info("Обработчики изображений запущены: workers={}, queueCapacity={}, spoolDir={}",
+                workers, queueCapacity, spoolDir);
+    }
+
+    /**
+     * Останавливает обработчиков, дождавшись текущих заданий
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            // Буферные файлы прерванных заданий обработаются после перезапуска
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Сохраняет загруженный файл в буферный каталог.
+     *
+     * <p>Вызывается в транзакции изменения блюда. Задание передается обработчикам
+     * после фиксации транзакции, после отката буферный файл удаляется.</p>
+     *
+     * @param dishId идентификатор блюда
+     * @param file загруженный файл (уже проверенный)
+     * @param extension расширение файла
+     * @return идентификатор задания обработки
+     * @throws ServiceOverloadedException если очередь обработки заполнена
+     */
+    public UUID spool(UUID dishId, MultipartFile file, String extension) throws IOException {
+        acquireSlot(dishId);
+
+        UUID jobId = UUID.randomUUID();
+        Path target = spoolDir.resolve(dishId + "_" + jobId + "." + extension);
+        try {
+            file.transferTo(target);
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+
+        eventPublisher.publishEvent(new DishImageQueuedEvent(dishId, jobId, target, null));
+        log.info("Изображение сохранено в буферный каталог: dishId={}, jobId={}, size={}KB",
+                dishId, jobId, file.getSize() / 1024);
+        return jobId;
+    }
+
+    /**
+     * Ставит в обработку файл, загруженный клиентом напрямую в хранилище.
+     *
+     * <p>Вызывается в транзакции изменения блюда. Обработчик скачивает файл в буферный
+     * каталог, а оригинал копирует внутри хранилища.</p>
+     *
+     * @param dishId идентификатор блюда
+     * @param jobId идентификатор задания обработки (совпадает с идентификатором загрузки)
+     * @param sourceKey ключ загруженного файла
+     * @throws ServiceOverloadedException если очередь обработки заполнена
+     */
+    public void enqueueUploaded(UUID dishId, UUID jobId, String sourceKey) {
+        acquireSlot(dishId);
+        eventPublisher.publishEvent(new DishImageQueuedEvent(dishId, jobId, null, sourceKey));
+        log.info("Загруженное в хранилище изображение поставлено в обработку: dishId={}, jobId={}", dishId, jobId);
+    }
+
+    /**
+     * Передает задание обработчикам после фиксации транзакции
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImageQueued(DishImageQueuedEvent event) {
+        submit(new ImageJob(event.dishId(), event.jobId(), event.file(), event.sourceKey()));
+    }
+
+    /**
+     * Удаляет буферный файл после отката транзакции
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onImageQueueRolledBack(DishImageQueuedEvent event) {
+        if (event.file() != null) {
+            deleteSpoolFile(event.file());
+        }
+        slots.release();
+    }
+
+    /**
+     * Ставит в очередь оставшиеся буферные файлы после старта приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        recover();
+    }
+
+    /**
+     * Ставит в очередь буферные файлы незавершенных заданий и удаляет файлы вытесненных,
+     * затем ставит в очередь незавершенные задания файлов, загруженных по presigned URL.
+     *
+     * <p>Файлы и задания моложе {@code recovery-delay} пропускаются: их транзакция может
+     * быть еще не зафиксирована. Задания файлов из хранилища видны всем инстансам, поэтому
+     * задание, зависшее дольше {@code recovery-delay}, может быть обработано повторно
+     * другим инстансом; результат при этом не меняется.</p>
+     */
+    @Scheduled(fixedDelayString = "${app.images.pipeline.recovery-interval:60000}",
+               initialDelayString = "${app.images.pipeline.recovery-interval:60000}")
+    public void recover() {
+        Instant threshold = Instant.now().minus(recoveryDelay);
+        int resubmitted = 0;
+
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                SpoolFile spoolFile = SpoolFile.parse(file);
+                if (spoolFile == null || inFlight.contains(spoolFile.jobId())
+                        || Files.getLastModifiedTime(file).toInstant().isAfter(threshold)) {
+                    continue;
+                }
+                if (file.getFileName().toString().endsWith(DOWNLOAD_SUFFIX)) {
+                    // Файл скачивается заново при повторе задания
+                    deleteSpoolFile(file);
+                    continue;
+                }
+                if (!dishRepository.isImageJobActive(spoolFile.dishId(), spoolFile.jobId(), ACTIVE_STATUSES)) {
+                    deleteSpoolFile(file);
+                    continue;
+                }
+                if (!slots.tryAcquire()) {
+                    break;
+                }
+                submit(new ImageJob(spoolFile.dishId(), spoolFile.jobId(), file, null));
+                resubmitted++;
+            }
+
+            LocalDateTime updatedBefore = LocalDateTime.now().minus(recoveryDelay);
+            for (Dish dish : dishRepository.findTop50ByImageStatusInAndImageSourceKeyIsNotNullAndUpdatedAtBefore(
+                    ACTIVE_STATUSES, updatedBefore)) {
+                if (inFlight.contains(dish.getImageJobId())) {
+                    continue;
+                }
+                if (!slots.tryAcquire()) {
+                    break;
+                }
+                submit(new ImageJob(dish.getId(), dish.getImageJobId(), null, dish.getImageSourceKey()));
+                resubmitted++;
+            }
+        } catch (Exception e) {
+            log.error("Ошибка восстановления заданий обработки изображений", e);
+        }
+
+        if (resubmitted > 0) {
+            log.info("Повторно поставлены в очередь задания обработки изображений: {}", resubmitted);
+        }
+    }
+
+    /**
+     * Ставит задание в очередь, разрешение на которое уже занято
+     */
+    private void submit(ImageJob job) {
+        inFlight.add(job.jobId);
+        try {
+            executor.execute(() -> process(job));
+        } catch (RejectedExecutionException e) {
+            // Задание будет поставлено в очередь при восстановлении
+            inFlight.remove(job.jobId);
+            slots.release();
+            log.warn("Задание обработки изображения не принято: dishId={}, jobId={}", job.dishId, job.jobId);
+        }
+    }
+
+    /**
+     * Занимает место в очереди обработки
+     *
+     * @throws ServiceOverloadedException если очередь обработки заполнена
+     */
+    private void acquireSlot(UUID dishId) {
+        if (!slots.tryAcquire()) {
+            meterRegistry.counter("dish.image.jobs", "result", "rejected").increment();
+            log.warn("Очередь обработки изображений заполнена, загрузка отклонена: dishId={}", dishId);
+            throw new ServiceOverloadedException("Очередь обработки изображений заполнена, повторите запрос позже");
+        }
+    }
+
+    /**
+     * Выполняет задание и освобождает разрешение
+     */
+    private void process(ImageJob job) {
+        long start = System.nanoTime();
+        String result = "error";
+        try {
+            result = runJob(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = "interrupted";
+        } catch (Exception e) {
+            // Буферный файл сохраняется, задание будет повторено при восстановлении
+            log.error("Ошибка обработки изображения: dishId={}, jobId={}", job.dishId, job.jobId, e);
+        } finally {
+            if (job.file != null && !"error".equals(result) && !"interrupted".equals(result)) {
+                deleteSpoolFile(job.file);
+            }
+            inFlight.remove(job.jobId);
+            slots.release();
+            processingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("dish.image.jobs", "result", result).increment();
+        }
+    }
+
+    /**
+     * Обрабатывает изображение и сохраняет ссылки в блюде
+     *
+     * @return результат задания (тег метрики)
+     */
+    private String runJob(ImageJob job) throws InterruptedException {
+        UUID dishId = job.dishId;
+        UUID jobId = job.jobId;
+        if (dishRepository.markImageProcessing(dishId, jobId, Dish.ImageStatus.PROCESSING,
+                ACTIVE_STATUSES, maxAttempts, LocalDateTime.now()) == 0) {
+            if (dishRepository.isImageJobActive(dishId, jobId, ACTIVE_STATUSES)) {
+                fail(job, "Превышено число попыток обработки изображения: " + maxAttempts);
+                return "failed";
+            }
+            log.info("Задание обработки изображения вытеснено: dishId={}, jobId={}", dishId, jobId);
+            return "superseded";
+        }
+
+        try {
+            if (job.file == null && !download(job)) {
+                fail(job, "Загруженный файл не найден в хранилище");
+                return "failed";
+            }
+        } catch (IOException e) {
+            fail(job, "Не удалось декодировать изображение: " + e.getMessage());
+            return "failed";
+        }
+
+        List<ImageVariantGenerator.EncodedVariant> encoded;
+        try {
+            encoded = decodeAndGenerate(job.file);
+        } catch (IOException | RuntimeException | LinkageError e) {
+            // Повтор декодирования того же файла даст ту же ошибку
+            fail(job, "Не удалось декодировать изображение: "
+                    + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+            return "failed";
+        }
+
+        String extension = job.extension;
+        String imageUrl = null;
+        List<ImageVariant> variants = null;
+        for (int attempt = 1; imageUrl == null; attempt++) {
+            Duration backoff = null;
+            Timer.Sample uploadTimer = metricsService.startImageUploadProcessingTimer();
+            try {
+                variants = uploadVariants(dishId, jobId, encoded);
+                String contentType = ImageVariantGenerator.contentType(extension);
+                imageUrl = job.sourceKey != null
+                        ? s3Service.copyImage(job.sourceKey,
+                                s3Service.imageKey(dishId, jobId, "original." + extension), contentType)
+                        : s3Service.uploadImage(dishId, jobId, job.file, extension, contentType);
+                metricsService.incrementImageUpload();
+            } catch (IOException | SdkClientException | ServiceOverloadedException e) {
+                imageUrl = null;
+                if (attempt >= maxAttempts) {
+                    fail(job, "Не удалось загрузить изображение в S3: " + e.getMessage());
+                    deleteImageVersion(dishId, jobId);
+                    return "failed";
+                }
+                backoff = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 10));
+                log.warn("Ошибка загрузки изображения в S3, повтор через {}: dishId={}, attempt={}, error={}",
+                        backoff, dishId, attempt, e.getMessage());
+            } finally {
+                metricsService.stopImageUploadProcessingTimer(uploadTimer);
+            }
+            if (backoff != null) {
+                Thread.sleep(backoff.toMillis());
+            }
+        }
+
+        String finalImageUrl = imageUrl;
+        String thumbnailUrl = thumbnailUrl(variants);
+        String variantsJson = toJson(variants);
+        AtomicReference<UUID> replacedJobId = new AtomicReference<>();
+        Boolean current = transactionTemplate.execute(status -> {
+            UUID readyJobId = dishRepository.findReadyImageJobIdForUpdate(dishId).orElse(null);
+            if (dishRepository.completeImage(dishId, jobId, finalImageUrl, thumbnailUrl,
+                    variantsJson, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            replacedJobId.set(readyJobId);
+            publishChanged(dishId);
+            return true;
+        });
+
+        if (!Boolean.TRUE.equals(current)) {
+            log.info("Блюдо изменено или удалено во время обработки изображения: dishId={}, jobId={}", dishId, jobId);
+            deleteImageVersion(dishId, jobId);
+            return "superseded";
+        }
+
+        evictCaches();
+        deleteSource(job);
+        deleteReplacedImage(dishId, jobId, replacedJobId.get());
+        log.info("Изображение блюда обработано: dishId={}, jobId={}, variants={}, imageUrl={}",
+                dishId, jobId, variants.size(), imageUrl);
+        return "ready";
+    }
+
+    /**
+     * Скачивает файл, загруженный по presigned URL, и определяет его формат
+     *
+     * @return false, если файла нет в хранилище
+     */
+    private boolean download(ImageJob job) throws IOException {
+        Path target = spoolDir.resolve(job.dishId + "_" + job.jobId + DOWNLOAD_SUFFIX);
+        if (!s3Service.downloadObject(job.sourceKey, target)) {
+            return false;
+        }
+        job.file = target;
+        job.extension = imageInspector.detectFormat(target)
+                .orElseThrow(() -> new IOException("формат не поддерживается"));
+        return true;
+    }
+
+    /**
+     * Декодирует изображение один раз и строит по нему все варианты
+     */
+    private List<ImageVariantGenerator.EncodedVariant> decodeAndGenerate(Path file) throws IOException {
+        BufferedImage image = imageInspector.decode(file);
+
+        List<ImageVariantGenerator.EncodedVariant> encoded = imageVariantGenerator.generate(image);
+        log.debug("Варианты изображения построены: оригинал={}x{} ({}KB), вариантов={}, всего={}KB",
+                image.getWidth(), image.getHeight(), Files.size(file) / 1024, encoded.size(),
+                encoded.stream().mapToLong(variant -> variant.bytes().length).sum() / 1024);
+        return encoded;
+    }
+
+    /**
+     * Загружает варианты в каталог задания: {@code {width}w.{format}}
+     */
+    private List<ImageVariant> uploadVariants(UUID dishId, UUID jobId,
+                                              List<ImageVariantGenerator.EncodedVariant> encoded) {
+        List<ImageVariant> variants = new ArrayList<>(encoded.size());
+        for (ImageVariantGenerator.EncodedVariant variant : encoded) {
+            String key = s3Service.imageKey(dishId, jobId, variant.width() + "w." + variant.format());
+            String url = s3Service.uploadVariant(key, ImageVariantGenerator.contentType(variant.format()),
+                    variant.bytes());
+            variants.add(new ImageVariant(key, url, variant.width(), variant.height(), variant.format()));
+        }
+        return variants;
+    }
+
+    /**
+     * Миниатюра для клиентов без {@code srcset}: наименьший JPEG не уже {@code thumbnail-width}
+     */
+    private String thumbnailUrl(List<ImageVariant> variants) {
+        List<ImageVariant> jpegVariants = variants.stream()
+                .filter(variant -> "jpg".equals(variant.format()))
+                .toList();
+        List<ImageVariant> candidates = jpegVariants.isEmpty() ? variants : jpegVariants;
+        return candidates.stream()
+                .filter(variant -> variant.width() >= thumbnailWidth)
+                .min(Comparator.comparingInt(ImageVariant::width))
+                .or(() -> candidates.stream().max(Comparator.comparingInt(ImageVariant::width)))
+                .map(ImageVariant::url)
+                .orElse(null);
+    }
+
+    private String toJson(List<ImageVariant> variants) {
+        try {
+            return objectMapper.writeValueAsString(variants);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать варианты изображения", e);
+        }
+    }
+
+    /**
+     * Отмечает ошибку обработки в блюде, если задание актуально, и удаляет загруженный файл
+     */
+    private void fail(ImageJob job, String reason) {
+        String error = reason.length() > MAX_ERROR_LENGTH ? reason.substring(0, MAX_ERROR_LENGTH) : reason;
+        log.error("Ошибка обработки изображения: dishId={}, jobId={}, error={}", job.dishId, job.jobId, error);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (dishRepository.failImage(job.dishId, job.jobId, Dish.ImageStatus.FAILED, error,
+                    LocalDateTime.now()) > 0) {
+                publishChanged(job.dishId);
+            }
+        });
+        evictCaches();
+        deleteSource(job);
+    }
+
+    /**
+     * Удаляет файл, загруженный по presigned URL, после завершения задания
+     */
+    private void deleteSource(ImageJob job) {
+        if (job.sourceKey == null) {
+            return;
+        }
+        try {
+            s3Service.deleteObject(job.sourceKey);
+        } catch (Exception e) {
+            log.warn("Не удалось удалить загруженный файл из S3: key={}, error={}", job.sourceKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Публикует изменение блюда в текущей транзакции, чтобы снимок меню и индексы обновились после фиксации
+     */
+    private void publishChanged(UUID dishId) {
+        dishRepository.findById(dishId).ifPresent(dish ->
+                eventPublisher.publishEvent(DishChangedEvent.of(dish, DishChangedEvent.ChangeType.UPDATED)));
+    }
+
+    private void evictCaches() {
+        Cache cache = cacheManager.getCache("available-dishes");
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Удаляет файлы изображения, замененного текущим заданием
+     *
+     * @param replacedJobId задание, файлы которого были опубликованы до завершения текущего,
+     *                      или null, если изображения не было или оно загружено без задания
+     */
+    private void deleteReplacedImage(UUID dishId, UUID jobId, UUID replacedJobId) {
+        if (jobId.equals(replacedJobId)) {
+            return;
+        }
+        try {
+            if (replacedJobId != null) {
+                s3Service.deleteImageVersion(dishId, replacedJobId);
+            } else {
+                s3Service.deleteLegacyImage(dishId);
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось удалить предыдущее изображение из S3: dishId={}, jobId={}, error={}",
+                    dishId, replacedJobId, e.getMessage());
+        }
+    }
+
+    private void deleteImageVersion(UUID dishId, UUID jobId) {
+        try {
+            s3Service.deleteImageVersion(dishId, jobId);
+        } catch (Exception e) {
+            log.warn("Не удалось удалить неактуальное изображение из S3: dishId={}, jobId={}, error={}",
+                    dishId, jobId, e.getMessage());
+        }
+    }
+
+    private void deleteSpoolFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить буферный файл {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Имя буферного файла: {@code {dishId}_{jobId}.{extension}}
+     */
+    private record SpoolFile(UUID dishId, UUID jobId) {
+
+        static SpoolFile parse(Path file) {
+            String name = file.getFileName().toString();
+            int separator = name.indexOf('_');
+            int dot = name.lastIndexOf('.');
+            if (separator < 0 || dot < separator) {
+                return null;
+            }
+            try {
+                return new SpoolFile(UUID.fromString(name.substring(0, separator)),
+                        UUID.fromString(name.substring(separator + 1, dot)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Задание обработки: буферный файл или ключ файла в хранилище
+     */
+    private static final class ImageJob {
+
+        private final UUID dishId;
+        private final UUID jobId;
+        private final String sourceKey;
+        private Path file;
+        private String extension;
+
+        ImageJob(UUID dishId, UUID jobId, Path file, String sourceKey) {
+            this.dishId = dishId;
+            this.jobId = jobId;
+            this.sourceKey = sourceKey;
+            this.file = file;
+            if (file != null) {
+                String name = file.getFileName().toString();
+                this.extension = name.substring(name.lastIndexOf('.') + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.menu.event.DishChangedEvent;
+import azhue.katering.azhurkateringbackendjava.menu.exception.dish.DishNotFoundException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageDimensionsException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageEmptyException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageSizeException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageTypeException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageUploadNotFoundException;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.ImageUploadFinalizeRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.ImageUploadRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishImageStatusResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.ImageUploadUrlResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.repository.DishRepository;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.DishImageUploadService;
+import azhue.katering.azhurkateringbackendjava.menu.service.mapper.DishMapper;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Реализация сервиса загрузки изображений блюд напрямую в хранилище.
+ *
+ * <p>Клиент получает presigned PUT URL с коротким сроком действия под
+ * {@code dishes/{id}/uploads/} и загружает файл в хранилище сам, минуя приложение.
+ * При завершении загрузки файл проверяется без скачивания: размер по метаданным,
+ * формат по сигнатуре и размеры в пикселях по заголовку из первых
+ * {@code app.images.presigned.header-bytes} байт. Затем файл ставится в обработку
+ * в {@link DishImagePipeline}.</p>
+ *
+ * <p>Presigned PUT не ограничивает размер тела, поэтому размер проверяется при
+ * завершении, а отклоненный файл удаляется. Незавершенные загрузки удаляются вместе
+ * с блюдом; для брошенных загрузок на бакете стоит настроить lifecycle правило на
+ * префикс {@code uploads/}.</p>
+ *
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DishImageUploadServiceImpl implements DishImageUploadService {
+
+    @Value("${app.images.max.file.size:5242880}") // 5MB
+    private long maxFileSize;
+
+    @Value("${app.images.presigned.expiry:10m}")
+    private Duration expiry;
+
+    @Value("${app.images.presigned.header-bytes:65536}")
+    private int headerBytes;
+
+    private final DishRepository dishRepository;
+    private final DishMapper dishMapper;
+    private final S3Service s3Service;
+    private final ImageInspector imageInspector;
+    private final DishImagePipeline dishImagePipeline;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public ImageUploadUrlResponse createUploadUrl(UUID dishId, ImageUploadRequest request) {
+        log.info("Запрос presigned URL для изображения блюда: dishId={}, contentType={}, size={}KB",
+                dishId, request.getContentType(), request.getSize() / 1024);
+
+        if (!dishRepository.existsById(dishId)) {
+            log.warn("Блюдо с id: {} не найдено", dishId);
+            throw new DishNotFoundException("Блюдо не найдено");
+        }
+        if (imageInspector.formatForContentType(request.getContentType()).isEmpty()) {
+            log.warn("Неподдерживаемый тип изображения: {}", request.getContentType());
+            throw new ImageTypeException("Неподдерживаемый тип изображения: " + request.getContentType());
+        }
+        checkSize(request.getSize());
+
+        UUID uploadId = UUID.randomUUID();
+        String key = s3Service.uploadKey(dishId, uploadId);
+        Instant expiresAt = Instant.now().plus(expiry);
+        String uploadUrl = s3Service.generateUploadUrl(key, request.getContentType(), Date.from(expiresAt)).toString();
+
+        log.info("Выдан presigned URL: dishId={}, uploadId={}, expiresAt={}", dishId, uploadId, expiresAt);
+        return ImageUploadUrlResponse.builder()
+                .uploadId(uploadId)
+                .uploadUrl(uploadUrl)
+                .method("PUT")
+                .headers(Map.of(HttpHeaders.CONTENT_TYPE, request.getContentType()))
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .build();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = "available-dishes", allEntries = true)
+    public DishImageStatusResponse finalizeUpload(UUID dishId, ImageUploadFinalizeRequest request)
+            throws IOException {
+        UUID uploadId = request.getUploadId();
+        log.info("Завершение загрузки изображения: dishId={}, uploadId={}", dishId, uploadId);
+
+        Dish dish = dishRepository.findById(dishId)
+                .orElseThrow(() -> {
+                    log.warn("Блюдо с id: {} не найдено", dishId);
+                    return new DishNotFoundException("Блюдо не найдено");
+                });
+
+        if (uploadId.equals(dish.getImageJobId())) {
+            // Повторный вызов: загрузка уже поставлена в обработку
+            return dishMapper.toImageStatusResponse(dish);
+        }
+
+        String key = s3Service.uploadKey(dishId, uploadId);
+        validateUploadedObject(key);
+
+        dish.setImageJobId(uploadId);
+        dish.setImageStatus(Dish.ImageStatus.PENDING);
+        dish.setImageError(null);
+        dish.setImageSourceKey(key);
+        dish.setImageAttempts(0);
+        dishImagePipeline.enqueueUploaded(dishId, uploadId, key);
+
+        Dish updatedDish = dishRepository.save(dish);
+        eventPublisher.publishEvent(DishChangedEvent.of(updatedDish, DishChangedEvent.ChangeType.UPDATED));
+
+        return dishMapper.toImageStatusResponse(updatedDish);
+    }
+
+    /**
+     * Проверяет загруженный объект по метаданным и заголовку, удаляя отклоненный
+     */
+    private void validateUploadedObject(String key) throws IOException {
+        ObjectMetadata metadata = s3Service.findObjectMetadata(key)
+                .orElseThrow(() -> {
+                    log.warn("Загруженный файл не найден: {}", key);
+                    return new ImageUploadNotFoundException("Файл не загружен или срок загрузки истек");
+                });
+
+        try {
+            if (metadata.getContentLength() == 0) {
+                throw new ImageEmptyException("Файл пустой");
+            }
+            checkSize(metadata.getContentLength());
+
+            byte[] header = s3Service.readObjectHead(key, headerBytes);
+            Optional<String> format = imageInspector.detectFormat(header);
+            if (format.isEmpty() || !format.equals(imageInspector.formatForContentType(metadata.getContentType()))) {
+                log.warn("Содержимое файла не соответствует типу {}: {}", metadata.getContentType(), key);
+                throw new ImageTypeException("Файл не является изображением заявленного типа");
+            }
+
+            // Если заголовок не поместился в прочитанные байты, размеры проверит обработчик
+            imageInspector.readDimensions(header).ifPresent(imageInspector::checkDimensions);
+        } catch (ImageEmptyException | ImageSizeException | ImageTypeException | ImageDimensionsException e) {
+            deleteQuietly(key);
+            throw e;
+        }
+    }
+
+    private void checkSize(long size) {
+        if (size > maxFileSize) {
+            log.warn("Размер файла превышает максимально допустимый: {} MB", maxFileSize / 1024 / 1024);
+            throw new ImageSizeException("Размер файла превышает максимально допустимый: " +
+                    (maxFileSize / 1024 / 1024) + "MB");
+        }
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            s3Service.deleteObject(key);
+        } catch (Exception e) {
+            log.warn("Не удалось удалить отклоненный файл из S3: key={}, error={}", key, e.getMessage());
+        }
+    }
+}
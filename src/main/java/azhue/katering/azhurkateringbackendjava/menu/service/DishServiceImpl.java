@@ -1,13 +1,18 @@
 package azhue.katering.azhurkateringbackendjava.menu.service;
 
+import azhue.katering.azhurkateringbackendjava.common.model.dto.CursorResponse;
 import azhue.katering.azhurkateringbackendjava.common.service.MetricsService;
+import azhue.katering.azhurkateringbackendjava.menu.event.DishChangedEvent;
 import azhue.katering.azhurkateringbackendjava.menu.exception.category.CategoryNotFoundException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.dish.DishNotFoundException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageEmptyException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageExtensionException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageSizeException;
 import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageTypeException;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.projection.DishVersion;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.DishCursor;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.DishRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishImageStatusResponse;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishResponse;
 import azhue.katering.azhurkateringbackendjava.menu.model.entity.Category;
 import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
@@ -22,6 +27,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,11 +37,15 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Реализация сервиса для работы с блюдами
- * Интегрирован с S3 хранилищем для изображений
+ * Интегрирован с S3 хранилищем для изображений. Загруженные изображения
+ * обрабатываются асинхронно через {@link DishImagePipeline}
  *
  * @version 1.0.0
  */
@@ -43,8 +54,13 @@ import java.util.UUID;
 @Service
 public class DishServiceImpl implements DishService {
 
+    private static final int MAX_SEARCH_QUERY_LENGTH = 100;
+
     @Value("${app.images.max.file.size:5242880}") // 5MB
     private long maxFileSize;
+
+    @Value("${app.search.similarity-threshold:0.3}")
+    private double searchSimilarityThreshold;
     
     private final DishRepository dishRepository;
     private final CategoryRepository categoryRepository;
@@ -52,6 +68,8 @@ public class DishServiceImpl implements DishService {
     private final DishMapper dishMapper;
     private final MetricsService metricsService;
     private final S3Service s3Service;
+    private final DishImagePipeline dishImagePipeline;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -103,6 +121,37 @@ public class DishServiceImpl implements DishService {
         }
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResponse<DishResponse> scrollDishes(UUID categoryId, Boolean isAvailable, String cursor, int size) {
+        log.debug("Получение блюд по курсору: categoryId={}, isAvailable={}, size={}", categoryId, isAvailable, size);
+
+        Limit limit = Limit.of(size + 1);
+        List<Dish> dishes;
+        if (cursor == null || cursor.isBlank()) {
+            dishes = dishRepository.findFirstByFilters(categoryId, isAvailable, limit);
+        } else {
+            DishCursor position = DishCursor.decode(cursor);
+            dishes = dishRepository.findNextByFilters(categoryId, isAvailable,
+                    position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasNext = dishes.size() > size;
+        List<Dish> page = hasNext ? dishes.subList(0, size) : dishes;
+        String nextCursor = null;
+        if (hasNext) {
+            Dish last = page.get(page.size() - 1);
+            nextCursor = new DishCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorResponse.<DishResponse>builder()
+                .content(dishMapper.toResponseList(page))
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public DishResponse getDishById(UUID id) {
@@ -116,6 +165,16 @@ public class DishServiceImpl implements DishService {
         
         return dishMapper.toResponse(dish);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DishVersion getDishVersion(UUID id) {
+        return dishRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.warn("Блюдо с id: {} не найдено", id);
+                    return new DishNotFoundException("Блюдо не найдено");
+                });
+    }
     
     @Override
     @Transactional
@@ -126,6 +185,10 @@ public class DishServiceImpl implements DishService {
         Timer.Sample timer = metricsService.startDishCreateProcessingTimer();
         
         try {
+            if (file != null) {
+                validateImageFile(file);
+            }
+
             // Поиск категории
             Category category = categoryRepository.findById(request.getCategoryId())
                     .orElseThrow(() -> {
@@ -147,26 +210,21 @@ public class DishServiceImpl implements DishService {
             Dish savedDish = dishRepository.save(dish);
             log.info("Блюдо сохранено в БД: {} (ID: {})", savedDish.getName(), savedDish.getId());
 
-            // Загрузка изображения в S3
+            // Изображение загружается в S3 после фиксации транзакции
             if (file != null) {
-
-                validateImageFile(file);
-
-                savedDish.setImageUrl(uploadImageToS3(savedDish.getId(), file));
-                savedDish.setThumbnailUrl(s3Service.uploadThumbnail(savedDish.getId(), file));
+                spoolImage(savedDish, file);
+                savedDish = dishRepository.save(savedDish);
             } else {
                 log.info("Изображение не предоставлено для блюда: {}", savedDish.getId());
             }
 
-            savedDish = dishRepository.save(savedDish);
-            log.info("Блюдо обновлено с путем к изображению");
-
             if(!category.getIsActive()) {
                 categoryService.toggleCategoryStatus(category.getId());
                 log.info("Статус категории обновлен: {} (ID: {})", category.getName(), category.getId());
             }
 
             metricsService.incrementDishCreate();
+            eventPublisher.publishEvent(DishChangedEvent.of(savedDish, DishChangedEvent.ChangeType.CREATED));
             log.info("Успешно создано блюдо: {} (ID: {})", savedDish.getName(), savedDish.getId());
             
             return dishMapper.toResponse(savedDish);
@@ -182,19 +240,17 @@ public class DishServiceImpl implements DishService {
         return filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
     }
 
-    private String uploadImageToS3(UUID dishId, MultipartFile file) throws IOException {
-
-        Timer.Sample timer = metricsService.startImageUploadProcessingTimer();
-
-        try {
-            String s3Url = s3Service.uploadImage(dishId, file);
-            metricsService.incrementImageUpload();
-
-            return s3Url;
-
-        } finally {
-            metricsService.stopImageUploadProcessingTimer(timer);
-        }
+    /**
+     * Сохраняет изображение в буферный каталог и переводит блюдо в ожидание обработки
+     */
+    private void spoolImage(Dish dish, MultipartFile file) throws IOException {
+        UUID jobId = dishImagePipeline.spool(dish.getId(), file, getFileExtension(file.getOriginalFilename()));
+
+        dish.setImageJobId(jobId);
+        dish.setImageStatus(Dish.ImageStatus.PENDING);
+        dish.setImageError(null);
+        dish.setImageSourceKey(null);
+        dish.setImageAttempts(0);
     }
 
     @Override
@@ -213,13 +269,12 @@ public class DishServiceImpl implements DishService {
                         return new DishNotFoundException("Блюдо не найдена");
                     });
 
-            // Обновляем поля, если они предоставлены
+            // Обновляем поля, если они предоставлены.
+            // Текущее изображение остается доступным до обработки нового
             if (file != null) {
                 validateImageFile(file);
-                String newImageUrl = updateImageInS3(id, file);
-
-                dish.setImageUrl(newImageUrl);
-                dish.setThumbnailUrl(s3Service.uploadThumbnail(dish.getId(), file));
+                spoolImage(dish, file);
+                metricsService.incrementImageUpdate();
             }
             if (request.getName() != null) {
                 log.info("Обновление названия: '{}' -> '{}'", dish.getName(), request.getName());
@@ -252,6 +307,7 @@ public class DishServiceImpl implements DishService {
             
             Dish updatedDish = dishRepository.save(dish);
             metricsService.incrementDishUpdate();
+            eventPublisher.publishEvent(DishChangedEvent.of(updatedDish, DishChangedEvent.ChangeType.UPDATED));
             
             log.info("Успешно обновлено блюдо: {} (ID: {})", updatedDish.getName(), id);
             
@@ -305,27 +361,18 @@ public class DishServiceImpl implements DishService {
                 extension.equals("webp");
     }
 
-    private String updateImageInS3(UUID dishId, MultipartFile file) throws IOException {
-
-        Timer.Sample timer = metricsService.startImageUpdateProcessingTimer();
-
-        try {
-            // Удаляем старое изображение из S3
-            log.info("Удаление старого изображения из S3 для блюда: {}", dishId);
-            s3Service.deleteImage(dishId);
-
-            // Загружаем новое изображение в S3
-            log.info("Загрузка нового изображения в S3 для блюда: {}", dishId);
-            String newImageUrl = uploadImageToS3(dishId, file);
-
-            metricsService.incrementImageUpdate();
+    @Override
+    @Transactional(readOnly = true)
+    public DishImageStatusResponse getDishImageStatus(UUID id) {
+        Dish dish = dishRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Блюдо с id: {} не найдено", id);
+                    return new DishNotFoundException("Блюдо не найдено");
+                });
 
-            return newImageUrl;
-        } finally {
-            metricsService.stopImageUpdateProcessingTimer(timer);
-        }
+        return dishMapper.toImageStatusResponse(dish);
     }
-    
+
     @Override
     @Transactional
     @CacheEvict(value = "available-dishes", allEntries = true)
@@ -348,6 +395,7 @@ public class DishServiceImpl implements DishService {
             
             dishRepository.delete(dish);
             metricsService.incrementDishDelete();
+            eventPublisher.publishEvent(DishChangedEvent.of(dish, DishChangedEvent.ChangeType.DELETED));
             
             log.info("Успешно удалено блюдо: {} (ID: {})", dish.getName(), id);
         } finally {
@@ -375,6 +423,7 @@ public class DishServiceImpl implements DishService {
             
             Dish updatedDish = dishRepository.save(dish);
             metricsService.incrementDishAvailabilityToggle();
+            eventPublisher.publishEvent(DishChangedEvent.of(updatedDish, DishChangedEvent.ChangeType.UPDATED));
             
             log.info("Статус доступности изменен: {} -> {} (ID: {})",
                     !newStatus, newStatus, id);
@@ -387,20 +436,44 @@ public class DishServiceImpl implements DishService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<DishResponse> searchDishesByName(String name) {
-        log.debug("Поиск блюд по названию: '{}'", name);
+    public Page<DishResponse> searchDishesByName(String query, Pageable pageable) {
+        log.debug("Поиск блюд по запросу: '{}'", query);
         Timer.Sample timer = metricsService.startDishSearchProcessingTimer();
 
         try {
-            List<Dish> dishes = dishRepository.findByNameContainingIgnoreCase(name);
+            String normalized = query != null ? query.trim() : "";
+            if (normalized.length() > MAX_SEARCH_QUERY_LENGTH) {
+                normalized = normalized.substring(0, MAX_SEARCH_QUERY_LENGTH);
+            }
+            if (normalized.isEmpty()) {
+                return Page.empty(pageable);
+            }
+
+            dishRepository.setWordSimilarityThreshold(searchSimilarityThreshold);
+            Page<UUID> ids = dishRepository.searchAvailableDishIds(
+                    normalized, toContainsPattern(normalized), pageable);
+
+            Map<UUID, Dish> dishesById = dishRepository.findByIdIn(ids.getContent()).stream()
+                    .collect(Collectors.toMap(Dish::getId, Function.identity()));
             metricsService.incrementDishSearch();
 
-            log.debug("Найдено {} блюд по запросу '{}'", dishes.size(), name);
-            return dishMapper.toResponseList(dishes);
+            log.debug("Найдено {} блюд по запросу '{}'", ids.getTotalElements(), normalized);
+            return ids.map(id -> dishMapper.toResponse(dishesById.get(id)));
         } finally {
             metricsService.stopDishSearchProcessingTimer(timer);
         }
     }
 
+    /**
+     * Шаблон LIKE для поиска подстроки с экранированием спецсимволов
+     */
+    private String toContainsPattern(String query) {
+        String escaped = query.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
 
 }
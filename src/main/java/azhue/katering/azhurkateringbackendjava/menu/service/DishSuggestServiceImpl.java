@@ -0,0 +1,380 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.menu.event.DishChangedEvent;
+import azhue.katering.azhurkateringbackendjava.menu.event.MenuChangedEvent;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishSuggestionResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Category;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.repository.CategoryRepository;
+import azhue.katering.azhurkateringbackendjava.menu.repository.DishRepository;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.DishSuggestService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Реализация сервиса автодополнения.
+ *
+ * <p>Держит в памяти неизменяемый индекс по названиям доступных блюд и активных категорий:
+ * отсортированный массив слов для поиска по префиксу и триграммы для поиска по части слова.
+ * Названия нормализуются: нижний регистр, «ё» → «е», знаки препинания → пробел.</p>
+ *
+ * <p>Изменения блюд применяются инкрементально по {@link DishChangedEvent} без обращения
+ * к базе данных. Изменения категорий, старт приложения и периодическое обновление
+ * (изменения на других инстансах) перестраивают индекс из базы данных.</p>
+ *
+ * <p>Перестроения выполняются по одному. Изменения блюд, пришедшие, пока перестроение
+ * читает базу данных, запоминаются и повторно применяются к прочитанным данным перед
+ * заменой индекса: иначе изменение, зафиксированное между чтением и заменой, пропало бы
+ * из подсказок до следующего перестроения.</p>
+ *
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class DishSuggestServiceImpl implements DishSuggestService {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final String TYPE_DISH = "DISH";
+    private static final String TYPE_CATEGORY = "CATEGORY";
+    private static final int NGRAM = 3;
+
+    private final DishRepository dishRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor taskExecutor;
+
+    private final Map<UUID, Entry> dishEntries = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> categoryEntries = new ConcurrentHashMap<>();
+    private final AtomicReference<SuggestIndex> index = new AtomicReference<>(SuggestIndex.build(List.of()));
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * Изменения блюд, полученные во время текущего перестроения, или {@code null} вне перестроения
+     */
+    private List<DishChangedEvent> changesDuringRebuild;
+
+    public DishSuggestServiceImpl(DishRepository dishRepository,
+                                  CategoryRepository categoryRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.dishRepository = dishRepository;
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Получает подсказки по началу названия или слова, либо по части слова (от 3 символов)
+     */
+    @Override
+    public List<DishSuggestionResponse> suggest(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return index.get().search(normalized, Math.min(limit, MAX_LIMIT)).stream()
+                .map(entry -> DishSuggestionResponse.builder()
+                        .id(entry.id())
+                        .type(entry.type())
+                        .name(entry.name())
+                        .categoryName(entry.categoryName())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Перестраивает индекс из базы данных
+     */
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            readOnlyTransaction.executeWithoutResult(status -> {
+                Map<UUID, Entry> dishes = new HashMap<>();
+                for (Dish dish : dishRepository.findByIsAvailableTrue()) {
+                    String categoryName = dish.getCategory() != null ? dish.getCategory().getName() : null;
+                    dishes.put(dish.getId(), Entry.of(dish.getId(), TYPE_DISH, dish.getName(), categoryName));
+                }
+                Map<UUID, Entry> categories = new HashMap<>();
+                for (Category category : categoryRepository.findByIsActiveTrue()) {
+                    categories.put(category.getId(), Entry.of(category.getId(), TYPE_CATEGORY, category.getName(), null));
+                }
+
+                int replayed;
+                synchronized (this) {
+                    dishEntries.clear();
+                    dishEntries.putAll(dishes);
+                    categoryEntries.clear();
+                    categoryEntries.putAll(categories);
+                    replayed = changesDuringRebuild.size();
+                    changesDuringRebuild.forEach(this::applyDishChange);
+                    changesDuringRebuild = null;
+                    swapIndex();
+                }
+                log.info("Индекс автодополнения перестроен: блюд={}, категорий={}, повторно применено изменений={}",
+                        dishes.size(), categories.size(), replayed);
+            });
+        } finally {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Строит индекс после старта приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildAsync();
+    }
+
+    /**
+     * Инкрементально обновляет индекс после фиксации изменения блюда
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDishChanged(DishChangedEvent event) {
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+            applyDishChange(event);
+            swapIndex();
+        }
+    }
+
+    /**
+     * Перестраивает индекс после изменения категории
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        rebuildAsync();
+    }
+
+    /**
+     * Периодическое перестроение, чтобы подхватить изменения с других инстансов
+     */
+    @Scheduled(fixedDelayString = "${app.menu.suggest.refresh-interval:60000}",
+               initialDelayString = "${app.menu.suggest.refresh-interval:60000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    private void rebuildAsync() {
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("Ошибка при перестроении индекса автодополнения: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private void applyDishChange(DishChangedEvent event) {
+        if (event.available()) {
+            dishEntries.put(event.dishId(), Entry.of(event.dishId(), TYPE_DISH, event.name(), event.categoryName()));
+        } else {
+            dishEntries.remove(event.dishId());
+        }
+    }
+
+    private void swapIndex() {
+        List<Entry> entries = new ArrayList<>(dishEntries.size() + categoryEntries.size());
+        entries.addAll(categoryEntries.values());
+        entries.addAll(dishEntries.values());
+        index.set(SuggestIndex.build(entries));
+    }
+
+    /**
+     * Нормализует текст: нижний регистр, «ё» → «е», все кроме букв и цифр → пробел
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c == 'ё') {
+                c = 'е';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                result.append(c);
+                space = false;
+            } else if (!space) {
+                result.append(' ');
+                space = true;
+            }
+        }
+        int length = result.length();
+        if (length > 0 && result.charAt(length - 1) == ' ') {
+            result.setLength(length - 1);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Запись индекса
+     */
+    private record Entry(UUID id, String type, String name, String categoryName, String normalized) {
+
+        static Entry of(UUID id, String type, String name, String categoryName) {
+            return new Entry(id, type, name, categoryName, normalize(name));
+        }
+    }
+
+    /**
+     * Неизменяемый индекс: отсортированные слова для префиксов и триграммы для подстрок
+     */
+    private static final class SuggestIndex {
+
+        private static final int SCORE_NAME_PREFIX = 0;
+        private static final int SCORE_WORD_PREFIX = 1;
+        private static final int SCORE_CONTAINS = 2;
+
+        private final Entry[] entries;
+        private final String[] words;
+        private final int[] wordEntries;
+        private final Map<String, int[]> ngrams;
+
+        private SuggestIndex(Entry[] entries, String[] words, int[] wordEntries, Map<String, int[]> ngrams) {
+            this.entries = entries;
+            this.words = words;
+            this.wordEntries = wordEntries;
+            this.ngrams = ngrams;
+        }
+
+        static SuggestIndex build(List<Entry> source) {
+            Entry[] entries = source.toArray(new Entry[0]);
+
+            List<Map.Entry<String, Integer>> wordList = new ArrayList<>();
+            Map<String, List<Integer>> ngramLists = new HashMap<>();
+            for (int i = 0; i < entries.length; i++) {
+                String normalized = entries[i].normalized();
+                for (String word : normalized.split(" ")) {
+                    if (!word.isEmpty()) {
+                        wordList.add(Map.entry(word, i));
+                    }
+                }
+                Set<String> entryNgrams = new LinkedHashSet<>();
+                for (int j = 0; j + NGRAM <= normalized.length(); j++) {
+                    entryNgrams.add(normalized.substring(j, j + NGRAM));
+                }
+                for (String ngram : entryNgrams) {
+                    ngramLists.computeIfAbsent(ngram, k -> new ArrayList<>()).add(i);
+                }
+            }
+            wordList.sort(Map.Entry.comparingByKey());
+
+            String[] words = new String[wordList.size()];
+            int[] wordEntries = new int[wordList.size()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = wordList.get(i).getKey();
+                wordEntries[i] = wordList.get(i).getValue();
+            }
+
+            Map<String, int[]> ngrams = new HashMap<>(ngramLists.size() * 2);
+            ngramLists.forEach((ngram, list) -> ngrams.put(ngram, list.stream().mapToInt(Integer::intValue).toArray()));
+
+            return new SuggestIndex(entries, words, wordEntries, ngrams);
+        }
+
+        List<Entry> search(String query, int limit) {
+            int[] scores = new int[entries.length];
+            Arrays.fill(scores, Integer.MAX_VALUE);
+
+            // Префикс слова (бинарный поиск по отсортированным словам)
+            String firstWord = query.contains(" ") ? query.substring(0, query.indexOf(' ')) : query;
+            int from = lowerBound(firstWord);
+            for (int i = from; i < words.length && words[i].startsWith(firstWord); i++) {
+                int entry = wordEntries[i];
+                String normalized = entries[entry].normalized();
+                if (normalized.startsWith(query)) {
+                    scores[entry] = Math.min(scores[entry], SCORE_NAME_PREFIX);
+                } else if (normalized.contains(" " + query)) {
+                    scores[entry] = Math.min(scores[entry], SCORE_WORD_PREFIX);
+                }
+            }
+
+            // Часть слова (пересечение списков триграмм с проверкой вхождения)
+            if (query.length() >= NGRAM) {
+                for (int entry : ngramCandidates(query)) {
+                    if (scores[entry] == Integer.MAX_VALUE && entries[entry].normalized().contains(query)) {
+                        scores[entry] = SCORE_CONTAINS;
+                    }
+                }
+            }
+
+            List<Integer> matched = new ArrayList<>();
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] != Integer.MAX_VALUE) {
+                    matched.add(i);
+                }
+            }
+            return matched.stream()
+                    .sorted(Comparator.<Integer>comparingInt(i -> scores[i])
+                            .thenComparingInt(i -> entries[i].name().length())
+                            .thenComparing(i -> entries[i].name()))
+                    .limit(limit)
+                    .map(i -> entries[i])
+                    .toList();
+        }
+
+        private int[] ngramCandidates(String query) {
+            int[] smallest = null;
+            for (int j = 0; j + NGRAM <= query.length(); j++) {
+                int[] list = ngrams.get(query.substring(j, j + NGRAM));
+                if (list == null) {
+                    return new int[0];
+                }
+                if (smallest == null || list.length < smallest.length) {
+                    smallest = list;
+                }
+            }
+            return smallest != null ? smallest : new int[0];
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = words.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (words[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageDimensionsException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Проверка изображений без полного декодирования.
+ *
+ * <p>Определяет формат по сигнатуре файла (magic bytes), а размеры в пикселях по
+ * заголовку через {@link ImageReader}, не декодируя растр. Размеры ограничены
+ * {@code app.images.max.dimension} по каждой стороне и {@code app.images.max.pixels}
+ * по площади: небольшой по объему файл может декодироваться в растр на гигабайты.</p>
+ *
+ * <p>Декодер WebP ({@code webp-imageio}) регистрируется на любой платформе, а нативную
+ * библиотеку загружает при первом чтении. Поэтому при старте каждый формат пробно
+ * декодирует изображение 1×1, и MIME типы форматов, которые не удалось декодировать,
+ * не принимаются.</p>
+ *
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ImageInspector {
+
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] RIFF_SIGNATURE = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_SIGNATURE = {'W', 'E', 'B', 'P'};
+
+    /**
+     * Байт, достаточных для определения формата
+     */
+    public static final int SIGNATURE_LENGTH = 12;
+
+    /**
+     * WebP 1×1 без потерь для проверки декодера
+     */
+    private static final byte[] WEBP_PROBE =
+            Base64.getDecoder().decode("UklGRhoAAABXRUJQVlA4TA0AAAAvAAAAEAcQERGIiP4HAA==");
+
+    @Value("${app.images.max.dimension:10000}")
+    private int maxDimension;
+
+    @Value("${app.images.max.pixels:40000000}")
+    private long maxPixels;
+
+    private Set<String> decodableFormats;
+
+    /**
+     * Оставляет форматы, из которых удается декодировать пробное изображение
+     */
+    @PostConstruct
+    void init() {
+        // Плагины из вложенных jar Spring Boot видны только через загрузчик классов приложения
+        ImageIO.scanForPlugins();
+        Set<String> decodable = new HashSet<>();
+        for (String format : List.of("jpg", "png", "webp")) {
+            try {
+                byte[] probe = "webp".equals(format) ? WEBP_PROBE : encodeProbe(format);
+                if (ImageIO.read(new ByteArrayInputStream(probe)) != null) {
+                    decodable.add(format);
+                } else {
+                    log.warn("Нет декодера ImageIO для формата {}, загрузки в этом формате не принимаются", format);
+                }
+            } catch (LinkageError | RuntimeException | IOException e) {
+                log.warn("Декодер ImageIO для формата {} не работает, загрузки в этом формате не принимаются: {}",
+                        format, e.toString());
+            }
+        }
+        this.decodableFormats = Set.copyOf(decodable);
+        log.info("Декодируемые форматы изображений: {}", decodableFormats);
+    }
+
+    /**
+     * Определяет формат по сигнатуре
+     *
+     * @param header первые байты файла (не меньше {@link #SIGNATURE_LENGTH})
+     * @return {@code jpg}, {@code png}, {@code webp} или пусто
+     */
+    public Optional<String> detectFormat(byte[] header) {
+        if (startsWith(header, 0, JPEG_SIGNATURE)) {
+            return Optional.of("jpg");
+        }
+        if (startsWith(header, 0, PNG_SIGNATURE)) {
+            return Optional.of("png");
+        }
+        if (startsWith(header, 0, RIFF_SIGNATURE) && startsWith(header, 8, WEBP_SIGNATURE)) {
+            return Optional.of("webp");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Определяет формат файла по сигнатуре
+     */
+    public Optional<String> detectFormat(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return detectFormat(inputStream.readNBytes(SIGNATURE_LENGTH));
+        }
+    }
+
+    /**
+     * Возвращает формат для MIME типа, если изображения этого формата можно декодировать
+     */
+    public Optional<String> formatForContentType(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        String format = switch (contentType.trim().toLowerCase(Locale.ROOT)) {
+            case "image/jpeg", "image/jpg" -> "jpg";
+            case "image/png" -> "png";
+            case "image/webp" -> "webp";
+            default -> null;
+        };
+        if (format == null || !decodableFormats.contains(format)) {
+            return Optional.empty();
+        }
+        return Optional.of(format);
+    }
+
+    /**
+     * Читает размеры из заголовка изображения
+     *
+     * @param header начало файла
+     * @return размеры или пусто, если заголовок не поместился в переданные байты
+     */
+    public Optional<Dimension> readDimensions(byte[] header) {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(new ByteArrayInputStream(header))) {
+            return Optional.of(readDimensions(imageInputStream));
+        } catch (IOException e) {
+            log.debug("Размеры изображения не определены по заголовку: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Проверяет размеры изображения
+     *
+     * @throws ImageDimensionsException если размеры превышают допустимые
+     */
+    public void checkDimensions(Dimension dimension) {
+        if (dimension.width <= 0 || dimension.height <= 0
+                || dimension.width > maxDimension || dimension.height > maxDimension
+                || (long) dimension.width * dimension.height > maxPixels) {
+            throw new ImageDimensionsException("Недопустимые размеры изображения: " + dimension.width + "x"
+                    + dimension.height + ". Максимум " + maxDimension + " пикселей по стороне и "
+                    + maxPixels / 1_000_000 + " мегапикселей");
+        }
+    }
+
+    /**
+     * Декодирует изображение, предварительно проверив размеры по заголовку
+     *
+     * @throws IOException если формат не поддерживается или файл поврежден
+     * @throws ImageDimensionsException если размеры превышают допустимые
+     */
+    public BufferedImage decode(Path file) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(file.toFile())) {
+            checkDimensions(readDimensions(imageInputStream));
+        }
+
+        BufferedImage image = ImageIO.read(file.toFile());
+        if (image == null) {
+            throw new IOException("формат не поддерживается");
+        }
+        return image;
+    }
+
+    private Dimension readDimensions(ImageInputStream imageInputStream) throws IOException {
+        if (imageInputStream == null) {
+            throw new IOException("не удалось открыть изображение");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+        if (!readers.hasNext()) {
+            throw new IOException("формат не поддерживается");
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(imageInputStream, true, true);
+            return new Dimension(reader.getWidth(0), reader.getHeight(0));
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static byte[] encodeProbe(String format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if (!ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), format, outputStream)) {
+            throw new IOException("нет кодировщика для пробного изображения");
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+        return data.length >= offset + prefix.length
+                && Arrays.equals(data, offset, offset + prefix.length, prefix, 0, prefix.length);
+    }
+}
@@ -0,0 +1,192 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Генератор вариантов изображения разной ширины.
+ *
+ * <p>Изображение декодируется один раз, варианты строятся от большего к меньшему:
+ * каждый следующий уменьшается из предыдущего, а не из оригинала. Ширины задаются
+ * {@code app.images.variants.widths}, изображение не увеличивается: ширины больше
+ * оригинала пропускаются, а если оригинал уже самой маленькой ширины, создается
+ * один вариант в исходном размере.</p>
+ *
+ * <p>Каждый вариант кодируется во все форматы {@code app.images.variants.formats},
+ * для которых в ImageIO есть кодировщик. Стандартный JDK кодирует только JPEG и PNG,
+ * WebP кодирует плагин {@code webp-imageio}. Плагин регистрируется на любой платформе,
+ * а нативная библиотека (только x86/x64) загружается при первом кодировании, поэтому
+ * при старте каждый формат пробно кодирует изображение 1×1. Формат, для которого это
+ * не удалось (например, {@link UnsatisfiedLinkError} на aarch64 или musl), пропускается
+ * с предупреждением.</p>
+ *
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ImageVariantGenerator {
+
+    @Value("${app.images.variants.widths:160,320,640,1280}")
+    private List<Integer> widths;
+
+    @Value("${app.images.variants.formats:webp,jpg}")
+    private List<String> formats;
+
+    @Value("${app.images.variants.quality:0.8}")
+    private float quality;
+
+    private List<String> supportedFormats;
+
+    /**
+     * Закодированный вариант изображения
+     *
+     * @param width ширина в пикселях
+     * @param height высота в пикселях
+     * @param format формат
+     * @param bytes содержимое файла
+     */
+    public record EncodedVariant(int width, int height, String format, byte[] bytes) {
+    }
+
+    /**
+     * Оставляет форматы, в которые удается закодировать пробное изображение
+     */
+    @PostConstruct
+    void init() {
+        // Плагины из вложенных jar Spring Boot видны только через загрузчик классов приложения
+        ImageIO.scanForPlugins();
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        List<String> supported = new ArrayList<>();
+        for (String format : formats) {
+            String normalized = format.trim().toLowerCase(Locale.ROOT);
+            if (!ImageIO.getImageWritersByFormatName(normalized).hasNext()) {
+                log.warn("Нет кодировщика ImageIO для формата {}, варианты в этом формате не создаются", normalized);
+                continue;
+            }
+            try {
+                encode(probe, normalized);
+                supported.add(normalized);
+            } catch (LinkageError | RuntimeException | IOException e) {
+                log.warn("Кодировщик ImageIO для формата {} не работает, варианты в этом формате не создаются: {}",
+                        normalized, e.toString());
+            }
+        }
+        if (supported.isEmpty()) {
+            supported.add("jpg");
+        }
+        this.supportedFormats = List.copyOf(supported);
+        log.info("Варианты изображений: ширины={}, форматы={}", widths, supportedFormats);
+    }
+
+    /**
+     * Строит и кодирует варианты декодированного изображения
+     *
+     * @param image декодированное изображение
+     * @return варианты по убыванию ширины
+     */
+    public List<EncodedVariant> generate(BufferedImage image) throws IOException {
+        List<Integer> targetWidths = widths.stream()
+                .filter(width -> width > 0 && width <= image.getWidth())
+                .distinct()
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        if (targetWidths.isEmpty()) {
+            targetWidths = List.of(image.getWidth());
+        }
+
+        List<EncodedVariant> variants = new ArrayList<>(targetWidths.size() * supportedFormats.size());
+        BufferedImage source = image;
+        for (int width : targetWidths) {
+            BufferedImage resized = width == source.getWidth()
+                    ? source
+                    : Thumbnails.of(source).width(width).asBufferedImage();
+            for (String format : supportedFormats) {
+                variants.add(new EncodedVariant(resized.getWidth(), resized.getHeight(), format,
+                        encode(resized, format)));
+            }
+            source = resized;
+        }
+        return variants;
+    }
+
+    /**
+     * Возвращает MIME тип формата
+     */
+    public static String contentType(String format) {
+        return switch (format) {
+            case "png" -> "image/png";
+            case "webp" -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+
+    /**
+     * Кодирует изображение с качеством {@code app.images.variants.quality}
+     */
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("Нет кодировщика для формата " + format);
+        }
+        ImageWriter writer = writers.next();
+        BufferedImage encodable = "jpg".equals(format) ? withoutAlpha(image) : image;
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            String[] compressionTypes = param.getCompressionTypes();
+            if (compressionTypes != null && compressionTypes.length > 0 && param.getCompressionType() == null) {
+                param.setCompressionType(compressionTypes[0]);
+            }
+            param.setCompressionQuality(quality);
+        }
+
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+             ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(encodable, null, null), param);
+            imageOutputStream.flush();
+            return outputStream.toByteArray();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * JPEG не поддерживает прозрачность: накладывает изображение на белый фон
+     */
+    private BufferedImage withoutAlpha(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+}
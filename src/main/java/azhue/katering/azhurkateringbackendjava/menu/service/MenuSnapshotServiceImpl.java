@@ -0,0 +1,261 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.menu.event.DishChangedEvent;
+import azhue.katering.azhurkateringbackendjava.menu.event.MenuChangedEvent;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.CategoryWithDishesResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.MenuResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Category;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.repository.CategoryRepository;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.MenuSnapshotService;
+import azhue.katering.azhurkateringbackendjava.menu.service.mapper.DishMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Реализация сервиса снимка меню.
+ *
+ * <p>Хранит в памяти один неизменяемый снимок дерева категория → доступные блюда.
+ * Чтение не обращается ни к базе данных, ни к Redis. После изменения блюда или категории
+ * снимок перестраивается в фоновом потоке и подменяется атомарно, поэтому читатели
+ * никогда не видят частично обновленное меню. Несколько изменений подряд
+ * схлопываются в одно перестроение.</p>
+ *
+ * <p>Другие инстансы узнают об изменении через Redis pub/sub. Периодическое
+ * перестроение страхует от потерянных сообщений.</p>
+ *
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class MenuSnapshotServiceImpl implements MenuSnapshotService, MessageListener {
+
+    private final CategoryRepository categoryRepository;
+    private final DishMapper dishMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor taskExecutor;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.menu.snapshot.channel:menu:changed}")
+    private String channel;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicReference<MenuResponse> snapshot = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+
+    public MenuSnapshotServiceImpl(CategoryRepository categoryRepository,
+                                   DishMapper dishMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("taskExecutor") Executor taskExecutor,
+                                   StringRedisTemplate redisTemplate,
+                                   RedisMessageListenerContainer listenerContainer) {
+        this.categoryRepository = categoryRepository;
+        this.dishMapper = dishMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    /**
+     * Подписывается на изменения меню от других инстансов
+     */
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Получает текущий снимок меню.
+     *
+     * <p>Если снимок еще не построен (первый запрос до старта фоновой сборки),
+     * он строится синхронно один раз.</p>
+     */
+    @Override
+    public MenuResponse getMenu() {
+        MenuResponse current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot.get();
+            if (current == null) {
+                current = buildSnapshot();
+                snapshot.compareAndSet(null, current);
+            }
+            return snapshot.get();
+        }
+    }
+
+    /**
+     * Получает версию данных меню.
+     *
+     * <p>Увеличивается сразу после фиксации изменения на этом инстансе или
+     * при получении оповещения от другого инстанса.</p>
+     */
+    @Override
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Запрашивает перестроение снимка в фоновом потоке.
+     *
+     * <p>Если перестроение уже идет, после его окончания будет выполнено еще одно,
+     * чтобы учесть изменения, сделанные во время сборки.</p>
+     */
+    @Override
+    public void requestRebuild() {
+        rebuildRequested.set(true);
+        if (rebuildRunning.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(this::drainRebuilds);
+            } catch (Exception e) {
+                rebuildRunning.set(false);
+                log.error("Не удалось запустить перестроение меню: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Строит первый снимок после старта приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRebuild();
+    }
+
+    /**
+     * Перестраивает снимок после фиксации транзакции, изменившей меню
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        log.debug("Меню изменено ({}), запрашиваем перестроение снимка", event.reason());
+        dataVersion.incrementAndGet();
+        requestRebuild();
+        publishChange();
+    }
+
+    /**
+     * Перестраивает снимок после фиксации транзакции, изменившей блюдо
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDishChanged(DishChangedEvent event) {
+        onMenuChanged(new MenuChangedEvent("dish " + event.type().name().toLowerCase()));
+    }
+
+    /**
+     * Перестраивает снимок по сообщению от другого инстанса
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String origin = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!instanceId.equals(origin)) {
+            dataVersion.incrementAndGet();
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Периодическое перестроение на случай потерянных сообщений pub/sub
+     */
+    @Scheduled(fixedDelayString = "${app.menu.snapshot.refresh-interval:300000}",
+               initialDelayString = "${app.menu.snapshot.refresh-interval:300000}")
+    public void scheduledRebuild() {
+        requestRebuild();
+    }
+
+    private void drainRebuilds() {
+        try {
+            while (rebuildRequested.getAndSet(false)) {
+                try {
+                    MenuResponse rebuilt = buildSnapshot();
+                    snapshot.set(rebuilt);
+                    log.info("Снимок меню перестроен: версия={}, категорий={}, блюд={}",
+                            rebuilt.getVersion(), rebuilt.getCategories().size(), rebuilt.getDishCount());
+                } catch (Exception e) {
+                    log.error("Ошибка при перестроении снимка меню: {}", e.getMessage(), e);
+                }
+            }
+        } finally {
+            rebuildRunning.set(false);
+            if (rebuildRequested.get()) {
+                requestRebuild();
+            }
+        }
+    }
+
+    private MenuResponse buildSnapshot() {
+        List<CategoryWithDishesResponse> categories = readOnlyTransaction.execute(status ->
+                categoryRepository.findActiveCategoriesWithDishes().stream()
+                        .map(this::toCategoryWithDishes)
+                        .filter(category -> category.getDishCount() > 0)
+                        .toList());
+
+        int dishCount = categories.stream()
+                .mapToInt(CategoryWithDishesResponse::getDishCount)
+                .sum();
+
+        return MenuResponse.builder()
+                .version(version.incrementAndGet())
+                .generatedAt(Instant.now())
+                .categories(categories)
+                .dishCount(dishCount)
+                .build();
+    }
+
+    private CategoryWithDishesResponse toCategoryWithDishes(Category category) {
+        List<DishResponse> dishes = category.getDishes().stream()
+                .filter(dish -> Boolean.TRUE.equals(dish.getIsAvailable()))
+                .sorted(Comparator.comparing(Dish::getName))
+                .map(dishMapper::toResponse)
+                .toList();
+
+        return CategoryWithDishesResponse.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .isActive(category.getIsActive())
+                .dishes(dishes)
+                .dishCount(dishes.size())
+                .build();
+    }
+
+    private void publishChange() {
+        try {
+            redisTemplate.convertAndSend(channel, instanceId);
+        } catch (Exception e) {
+            log.warn("Не удалось оповестить другие инстансы об изменении меню: {}", e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,30 @@
 package azhue.katering.azhurkateringbackendjava.menu.service;
 
+import azhue.katering.azhurkateringbackendjava.common.service.Bulkhead;
+import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.*;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.coobird.thumbnailator.Thumbnails;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Сервис для работы с S3-совместимым хранилищем VK Cloud
- * Обеспечивает загрузку, удаление и получение URL изображений
+ * Обеспечивает загрузку, удаление и получение URL изображений.
+ * Обращения к S3 проходят через {@link Bulkhead}, чтобы число одновременных
+ * вызовов не превышало пул HTTP соединений клиента
  *
  * @version 1.0.0
  */
@@ -26,8 +33,11 @@ import java.util.UUID;
 @Getter
 @RequiredArgsConstructor
 public class S3Service {
+
+    private static final String UPLOADS_DIRECTORY = "uploads/";
     
     private final AmazonS3 s3Client;
+    private final Bulkhead s3Bulkhead;
 
     @Value("${app.s3.bucket}")
     private String bucketName;
@@ -39,98 +49,164 @@ public class S3Service {
     private String endpoint;
     
     /**
-     * Загружает изображение в S3
+     * Загружает оригинал изображения из буферного файла в S3
+     *
+     * @param dishId идентификатор блюда
+     * @param jobId идентификатор задания обработки (часть ключа, чтобы новая версия не затирала текущую)
+     * @param file буферный файл
+     * @param extension расширение файла
+     * @param contentType MIME тип изображения
      */
-    public String uploadImage(UUID dishId, MultipartFile file) throws IOException {
+    public String uploadImage(UUID dishId, UUID jobId, Path file, String extension, String contentType)
+            throws IOException {
 
-        log.info("Загрузка изображения в S3: dishId={}, filename={}, size={}KB",
-                dishId, file.getOriginalFilename(), file.getSize() / 1024);
+        log.info("Загрузка изображения в S3: dishId={}, jobId={}, size={}KB",
+                dishId, jobId, Files.size(file) / 1024);
 
-        String key = "dishes/" + dishId + "/original." + getFileExtension(file.getOriginalFilename());
+        String key = imageKey(dishId, jobId, "original." + extension);
 
-        return upload(file, key);
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return upload(inputStream, Files.size(file), contentType, key);
+        }
     }
 
-    private String upload(MultipartFile file, String key) throws IOException {
+    /**
+     * Загружает вариант изображения в S3
+     *
+     * @param key ключ объекта (см. {@link #imageKey})
+     * @param contentType MIME тип варианта
+     * @param bytes содержимое варианта
+     */
+    public String uploadVariant(String key, String contentType, byte[] bytes) {
+        log.debug("Загрузка варианта изображения в S3: key={}, size={}KB", key, bytes.length / 1024);
 
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentType(file.getContentType());
-        metadata.setContentLength(file.getSize());
-        metadata.setCacheControl(cacheControl);
+        return upload(new ByteArrayInputStream(bytes), bytes.length, contentType, key);
+    }
 
+    /**
+     * Ключ файла изображения в каталоге задания обработки
+     */
+    public String imageKey(UUID dishId, UUID jobId, String fileName) {
+        return imagePrefix(dishId, jobId) + fileName;
+    }
 
-        // Создаем PutObjectRequest с публичным ACL
-        PutObjectRequest putRequest = new PutObjectRequest(bucketName, key, file.getInputStream(), metadata)
-                .withCannedAcl(CannedAccessControlList.PublicRead);
+    /**
+     * Ключ файла, загружаемого клиентом по presigned URL
+     */
+    public String uploadKey(UUID dishId, UUID uploadId) {
+        return "dishes/" + dishId + "/" + UPLOADS_DIRECTORY + uploadId;
+    }
 
-        s3Client.putObject(putRequest);
+    /**
+     * Создает presigned URL для загрузки файла клиентом напрямую в хранилище.
+     *
+     * <p>Content-Type входит в подпись: клиент должен передать его без изменений.
+     * Объект создается приватным, публичные копии делает обработчик изображений.</p>
+     */
+    public URL generateUploadUrl(String key, String contentType, Date expiration) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, key, HttpMethod.PUT)
+                .withExpiration(expiration)
+                .withContentType(contentType);
 
-        String url = getS3Url(key);
+        return s3Client.generatePresignedUrl(request);
+    }
 
-        log.info("Изображение загружено в S3 с публичным доступом: {}", url);
-        return url;
+    /**
+     * Возвращает метаданные объекта или пусто, если объекта нет
+     */
+    public Optional<ObjectMetadata> findObjectMetadata(String key) {
+        try {
+            return Optional.of(s3Bulkhead.execute(() -> s3Client.getObjectMetadata(bucketName, key)));
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
     }
 
     /**
-     * Получает расширение файла
+     * Читает начало объекта ranged запросом, не скачивая его целиком
      */
-    private String getFileExtension(String filename) {
-        if (filename == null || filename.lastIndexOf('.') == -1) {
-            return "jpg";
+    public byte[] readObjectHead(String key, int length) throws IOException {
+        GetObjectRequest request = new GetObjectRequest(bucketName, key).withRange(0, length - 1L);
+
+        return s3Bulkhead.execute(() -> {
+            try (S3Object object = s3Client.getObject(request);
+                 InputStream inputStream = object.getObjectContent()) {
+                return inputStream.readNBytes(length);
+            }
+        });
+    }
+
+    /**
+     * Скачивает объект в файл
+     *
+     * @return false, если объекта нет
+     */
+    public boolean downloadObject(String key, Path target) {
+        try {
+            s3Bulkhead.execute(() -> s3Client.getObject(new GetObjectRequest(bucketName, key), target.toFile()));
+            return true;
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                return false;
+            }
+            throw e;
         }
-        return filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
     }
 
-    public String uploadThumbnail(UUID dishId, MultipartFile file) throws IOException {
-        log.info("Загрузка сжатого изображения в S3: dishId={}, filename={}, size={}KB",
-                dishId, file.getOriginalFilename(), file.getSize() / 1024);
+    /**
+     * Копирует объект внутри хранилища с публичным доступом, без передачи данных через приложение
+     */
+    public String copyImage(String sourceKey, String targetKey, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        metadata.setCacheControl(cacheControl);
+
+        CopyObjectRequest request = new CopyObjectRequest(bucketName, sourceKey, bucketName, targetKey)
+                .withNewObjectMetadata(metadata)
+                .withCannedAccessControlList(CannedAccessControlList.PublicRead);
 
-        String key = "dishes/" + dishId + "/thumbnail." + getFileExtension(file.getOriginalFilename());
+        s3Bulkhead.execute(() -> s3Client.copyObject(request));
 
-        // Сжимаем БЕЗ изменения размера (как на photo-editor.ai)
-        return uploadCompressedImage(file, key);
+        String url = getS3Url(targetKey);
+        log.info("Изображение скопировано в S3 с публичным доступом: {}", url);
+        return url;
     }
 
     /**
-     * Загружает сжатое изображение в S3 с заданным качеством БЕЗ изменения размера
+     * Удаляет объект
      */
-    private String uploadCompressedImage(MultipartFile originalFile, String key) throws IOException {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-            double quality = 0.8;
-
-            // Сжимаем изображение БЕЗ изменения размера
-            Thumbnails.of(originalFile.getInputStream())
-                    .scale(1.0)  // Сохраняем оригинальный размер
-                    .outputQuality(quality)
-                    .outputFormat("jpg")  // Принудительно JPEG для лучшего сжатия
-                    .toOutputStream(outputStream);
-
-            byte[] compressedBytes = outputStream.toByteArray();
-
-            log.info("Изображение сжато без изменения размера: оригинал={}KB, сжато={}KB, качество={}%, экономия={}%",
-                    originalFile.getSize() / 1024,
-                    compressedBytes.length / 1024,
-                    (int)(quality * 100),
-                    (int)((1.0 - (double)compressedBytes.length / originalFile.getSize()) * 100));
-
-            // Создаем метаданные для сжатого изображения
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentType("image/jpeg");
-            metadata.setContentLength(compressedBytes.length);
-            metadata.setCacheControl(cacheControl);
-
-            // Загружаем сжатое изображение в S3
-            PutObjectRequest putRequest = new PutObjectRequest(bucketName, key,
-                    new ByteArrayInputStream(compressedBytes), metadata)
-                    .withCannedAcl(CannedAccessControlList.PublicRead);
-
-            s3Client.putObject(putRequest);
-
-            String url = getS3Url(key);
-            log.info("Сжатое изображение загружено в S3: {}", url);
-            return url;
-        }
+    public void deleteObject(String key) {
+        s3Bulkhead.execute(() -> {
+            s3Client.deleteObject(bucketName, key);
+            return null;
+        });
+        log.debug("Удален файл из S3: {}", key);
+    }
+
+    private String upload(InputStream inputStream, long contentLength, String contentType, String key) {
+
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        metadata.setContentLength(contentLength);
+        metadata.setCacheControl(cacheControl);
+
+        // Создаем PutObjectRequest с публичным ACL
+        PutObjectRequest putRequest = new PutObjectRequest(bucketName, key, inputStream, metadata)
+                .withCannedAcl(CannedAccessControlList.PublicRead);
+
+        s3Bulkhead.execute(() -> s3Client.putObject(putRequest));
+
+        String url = getS3Url(key);
+
+        log.info("Изображение загружено в S3 с публичным доступом: {}", url);
+        return url;
+    }
+
+    private String imagePrefix(UUID dishId, UUID jobId) {
+        return "dishes/" + dishId + "/" + jobId + "/";
     }
 
     /**
@@ -146,21 +222,55 @@ public class S3Service {
     public void deleteImage(UUID dishId) {
         log.info("Удаление изображения из S3: dishId={}", dishId);
 
-
         // Удаляем все файлы для блюда
+        int deletedCount = deleteByPrefix("dishes/" + dishId + "/", null);
+
+        log.info("Удалено {} файлов из S3 для блюда: {}", deletedCount, dishId);
+    }
+
+    /**
+     * Удаляет файлы одного задания обработки (загрузка вытеснена или блюдо удалено)
+     */
+    public void deleteImageVersion(UUID dishId, UUID jobId) {
+        int deletedCount = deleteByPrefix(imagePrefix(dishId, jobId), null);
+        log.info("Удалено {} файлов неактуальной загрузки из S3: dishId={}, jobId={}", deletedCount, dishId, jobId);
+    }
+
+    /**
+     * Удаляет файлы изображения, загруженного до появления заданий обработки
+     * ({@code dishes/{dishId}/original.*} без каталога задания). Каталоги заданий
+     * и незавершенные загрузки по presigned URL не затрагиваются
+     */
+    public void deleteLegacyImage(UUID dishId) {
+        int deletedCount = deleteByPrefix("dishes/" + dishId + "/", "/");
+        log.info("Удалено {} файлов изображения без задания из S3 для блюда: {}", deletedCount, dishId);
+    }
+
+    /**
+     * Удаляет объекты с префиксом постранично: ListObjectsV2 возвращает не больше 1000 ключей
+     *
+     * @param delimiter "/", чтобы не спускаться во вложенные каталоги, или null
+     */
+    private int deleteByPrefix(String prefix, String delimiter) {
         ListObjectsV2Request request = new ListObjectsV2Request()
                 .withBucketName(bucketName)
-                .withPrefix("dishes/" + dishId + "/");
+                .withPrefix(prefix)
+                .withDelimiter(delimiter);
 
-        ListObjectsV2Result result = s3Client.listObjectsV2(request);
         int deletedCount = 0;
-
-        for (S3ObjectSummary object : result.getObjectSummaries()) {
-            s3Client.deleteObject(bucketName, object.getKey());
-            deletedCount++;
-            log.debug("Удален файл из S3: {}", object.getKey());
-        }
-
-        log.info("Удалено {} файлов из S3 для блюда: {}", deletedCount, dishId);
+        ListObjectsV2Result result;
+        do {
+            result = s3Bulkhead.execute(() -> s3Client.listObjectsV2(request));
+            for (S3ObjectSummary object : result.getObjectSummaries()) {
+                s3Bulkhead.execute(() -> {
+                    s3Client.deleteObject(bucketName, object.getKey());
+                    return null;
+                });
+                deletedCount++;
+                log.debug("Удален файл из S3: {}", object.getKey());
+            }
+            request.setContinuationToken(result.getNextContinuationToken());
+        } while (result.isTruncated());
+        return deletedCount;
     }
 }
@@ -0,0 +1,27 @@
+package azhue.katering.azhurkateringbackendjava.menu.service.contract;
+
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.ImageUploadFinalizeRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.ImageUploadRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishImageStatusResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.ImageUploadUrlResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Интерфейс сервиса загрузки изображений блюд напрямую в хранилище по presigned URL
+ *
+ * @version 1.0.0
+ */
+public interface DishImageUploadService {
+
+    /**
+     * Выдать presigned URL для загрузки изображения блюда
+     */
+    ImageUploadUrlResponse createUploadUrl(UUID dishId, ImageUploadRequest request);
+
+    /**
+     * Проверить загруженный файл и поставить его в обработку
+     */
+    DishImageStatusResponse finalizeUpload(UUID dishId, ImageUploadFinalizeRequest request) throws IOException;
+}
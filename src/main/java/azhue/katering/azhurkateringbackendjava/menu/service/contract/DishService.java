@@ -1,6 +1,9 @@
 package azhue.katering.azhurkateringbackendjava.menu.service.contract;
 
+import azhue.katering.azhurkateringbackendjava.common.model.dto.CursorResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.projection.DishVersion;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.DishRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishImageStatusResponse;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -27,11 +30,26 @@ public interface DishService {
      */
     List<DishResponse> getAvailableDishes();
     
+    /**
+     * Получить страницу блюд с фильтрами по курсору (keyset), без подсчета общего количества
+     */
+    CursorResponse<DishResponse> scrollDishes(UUID categoryId, Boolean isAvailable, String cursor, int size);
+    
     /**
      * Получить блюдо по ID
      */
     DishResponse getDishById(UUID id);
     
+    /**
+     * Получить версию блюда без загрузки сущности
+     */
+    DishVersion getDishVersion(UUID id);
+
+    /**
+     * Получить статус обработки изображения блюда
+     */
+    DishImageStatusResponse getDishImageStatus(UUID id);
+    
     /**
      * Создать новое блюдо
      */
@@ -58,9 +76,9 @@ public interface DishService {
     Page<DishResponse> getDishesByCategory(UUID categoryId, Pageable pageable);
 
     /**
-     * Поиск блюд по названию
+     * Ранжированный поиск доступных блюд по названию и описанию
      */
-    List<DishResponse> searchDishesByName(String name);
+    Page<DishResponse> searchDishesByName(String query, Pageable pageable);
 
     /**
      * Поиск блюд с фильтрами и пагинацией
@@ -0,0 +1,23 @@
+package azhue.katering.azhurkateringbackendjava.menu.service.contract;
+
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishSuggestionResponse;
+
+import java.util.List;
+
+/**
+ * Интерфейс сервиса автодополнения по названиям блюд и категорий
+ *
+ * @version 1.0.0
+ */
+public interface DishSuggestService {
+
+    /**
+     * Получить подсказки по началу или части названия
+     */
+    List<DishSuggestionResponse> suggest(String query, int limit);
+
+    /**
+     * Перестроить индекс из базы данных
+     */
+    void rebuild();
+}
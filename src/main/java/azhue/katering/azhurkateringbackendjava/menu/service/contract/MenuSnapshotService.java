@@ -0,0 +1,26 @@
+package azhue.katering.azhurkateringbackendjava.menu.service.contract;
+
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.MenuResponse;
+
+/**
+ * Интерфейс сервиса снимка меню
+ *
+ * @version 1.0.0
+ */
+public interface MenuSnapshotService {
+
+    /**
+     * Получить текущий снимок меню
+     */
+    MenuResponse getMenu();
+
+    /**
+     * Получить версию данных меню, которая увеличивается при каждом изменении блюд или категорий
+     */
+    long getDataVersion();
+
+    /**
+     * Запросить перестроение снимка меню
+     */
+    void requestRebuild();
+}
@@ -1,9 +1,13 @@
 package azhue.katering.azhurkateringbackendjava.menu.service.mapper;
 
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishImageStatusResponse;
 import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.ImageVariantResponse;
 import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.ImageVariant;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -41,10 +45,45 @@ public class DishMapper {
                 .category(categoryMapper.toResponse(dish.getCategory()))
                 .imageUrl(imageUrl)
                 .thumbnailUrl(dish.getThumbnailUrl())
+                .imageVariants(toVariantResponseList(dish.getImageVariants()))
+                .imageStatus(dish.getImageStatus())
                 .isAvailable(dish.getIsAvailable())
                 .build();
     }
     
+    /**
+     * Преобразовать варианты изображения в DTO по возрастанию ширины
+     */
+    private List<ImageVariantResponse> toVariantResponseList(List<ImageVariant> variants) {
+        if (variants == null || variants.isEmpty()) {
+            return List.of();
+        }
+
+        return variants.stream()
+                .sorted(Comparator.comparing(ImageVariant::format).thenComparingInt(ImageVariant::width))
+                .map(variant -> ImageVariantResponse.builder()
+                        .url(variant.url())
+                        .width(variant.width())
+                        .height(variant.height())
+                        .format(variant.format())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Преобразовать Dish в DishImageStatusResponse
+     */
+    public DishImageStatusResponse toImageStatusResponse(Dish dish) {
+        return DishImageStatusResponse.builder()
+                .dishId(dish.getId())
+                .status(dish.getImageStatus())
+                .imageUrl(dish.getImageUrl())
+                .thumbnailUrl(dish.getThumbnailUrl())
+                .imageVariants(toVariantResponseList(dish.getImageVariants()))
+                .error(dish.getImageError())
+                .build();
+    }
+
     /**
      * Преобразовать список Dish в список DishResponse
      */
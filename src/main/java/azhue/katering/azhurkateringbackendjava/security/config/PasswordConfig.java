@@ -1,20 +1,73 @@
 package azhue.katering.azhurkateringbackendjava.security.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Arrays;
+
 /**
  * Конфигурация для кодирования паролей
+ *
+ * <p>Стоимость BCrypt задается {@code app.security.bcrypt.strength}. В режиме
+ * калибровки ({@code app.security.bcrypt.calibrate=true}) стоимость подбирается при
+ * старте: выбирается наибольшая, при которой хэш вычисляется не дольше
+ * {@code app.security.bcrypt.target-ms} на текущем железе. Существующие хэши
+ * остаются валидными, так как стоимость хранится в самом хэше.</p>
  * 
  * @version 1.0.0
  */
 @Configuration
+@Slf4j
 public class PasswordConfig {
 
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+    private static final int CALIBRATION_SAMPLES = 3;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.bcrypt.strength:12}") int strength,
+            @Value("${app.security.bcrypt.calibrate:false}") boolean calibrate,
+            @Value("${app.security.bcrypt.target-ms:250}") long targetMs) {
+        if (calibrate) {
+            strength = calibrate(targetMs);
+        }
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Подбирает стоимость BCrypt под целевое время хэширования
+     */
+    private static int calibrate(long targetMs) {
+        int chosen = MIN_STRENGTH;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            long millis = measure(new BCryptPasswordEncoder(strength));
+            log.info("Калибровка BCrypt: strength={}, {} мс на хэш", strength, millis);
+            if (millis > targetMs) {
+                break;
+            }
+            chosen = strength;
+        }
+        log.info("Калибровка BCrypt завершена: выбрана strength={} для цели {} мс", chosen, targetMs);
+        return chosen;
+    }
+
+    /**
+     * Измеряет медианное время хэширования
+     */
+    private static long measure(BCryptPasswordEncoder encoder) {
+        encoder.encode("calibration-warmup");
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            samples[i] = (System.nanoTime() - start) / 1_000_000L;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
     }
 }
@@ -1,6 +1,7 @@
 package azhue.katering.azhurkateringbackendjava.security.config;
 
 import azhue.katering.azhurkateringbackendjava.security.filter.JwtAuthenticationFilter;
+import azhue.katering.azhurkateringbackendjava.security.filter.RateLimitFilter;
 import azhue.katering.azhurkateringbackendjava.security.filter.SecurityHeadersFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -28,6 +29,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final RateLimitFilter rateLimitFilter;
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final SecurityHeadersFilter securityHeadersFilter;
     private final CorsConfigurationSource corsConfigurationSource;
@@ -73,6 +75,8 @@ public class SecurityConfig {
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
+            // Rate limit проверяется первым, до JWT и разбора тела запроса
+            .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(securityHeadersFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
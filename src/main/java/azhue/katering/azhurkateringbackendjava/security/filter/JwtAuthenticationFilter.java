@@ -1,7 +1,10 @@
 package azhue.katering.azhurkateringbackendjava.security.filter;
 
-import azhue.katering.azhurkateringbackendjava.auth.service.UserDetailsServiceImpl;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.security.AuthenticatedUser;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.security.SecurityStamp;
 import azhue.katering.azhurkateringbackendjava.auth.service.contract.CookieService;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.SecurityStampService;
+import azhue.katering.azhurkateringbackendjava.security.jwt.model.VerifiedToken;
 import azhue.katering.azhurkateringbackendjava.security.jwt.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,13 +14,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Фильтр для аутентификации пользователей на основе JWT токенов.
@@ -37,9 +41,13 @@ import java.io.IOException;
  *   <li>Использует HTTP-only cookies для предотвращения XSS атак</li>
  *   <li>Проверяет тип токена (только access token)</li>
  *   <li>Валидирует токен перед установкой аутентификации</li>
+ *   <li>Отклоняет токены, выпущенные до смены пароля, и токены деактивированных пользователей</li>
  *   <li>Логирует ошибки без раскрытия чувствительной информации</li>
  * </ul>
  * 
+ * <p>Principal собирается из claims токена и закэшированного {@link SecurityStamp},
+ * поэтому большинство запросов не обращается к базе данных для аутентификации.</p>
+ * 
  * @version 1.0.0
  */
 @Component
@@ -48,7 +56,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final SecurityStampService securityStampService;
     private final CookieService cookieService;
 
     /**
@@ -57,10 +65,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * <p>Метод выполняет следующие шаги:</p>
      * <ol>
      *   <li>Извлекает JWT токен из запроса</li>
+     *   <li>Один раз проверяет подпись и срок действия токена</li>
      *   <li>Проверяет, что токен является access token</li>
-     *   <li>Извлекает email пользователя из токена</li>
-     *   <li>Загружает детали пользователя из базы данных</li>
-     *   <li>Валидирует токен</li>
+     *   <li>Сверяет токен с security stamp пользователя</li>
      *   <li>Устанавливает аутентификацию в Security контексте</li>
      * </ol>
      * 
@@ -81,25 +88,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && jwtUtil.isAccessToken(jwt)) {
-                String email = jwtUtil.extractEmail(jwt);
+            if (StringUtils.hasText(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
+                VerifiedToken token = jwtUtil.verifyToken(jwt)
+                        .filter(VerifiedToken::isAccessToken)
+                        .orElse(null);
+                
+                AuthenticatedUser principal = token != null && !token.isExpired()
+                        ? resolvePrincipal(token).orElse(null)
+                        : null;
                 
-                if (StringUtils.hasText(email) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                if (principal != null) {
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(
+                            principal, 
+                            null, 
+                            principal.getAuthorities()
+                        );
                     
-                    if (jwtUtil.validateToken(jwt, email)) {
-                        UsernamePasswordAuthenticationToken authentication = 
-                            new UsernamePasswordAuthenticationToken(
-                                userDetails, 
-                                null, 
-                                userDetails.getAuthorities()
-                            );
-                        
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                        
-                        log.debug("Аутентификация успешна для пользователя: {}", email);
-                    }
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    
+                    log.debug("Аутентификация успешна для пользователя: {}", principal.email());
                 }
             }
         } catch (Exception e) {
@@ -109,6 +118,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Собирает principal из claims токена и security stamp пользователя.
+     * 
+     * <p>Токен отклоняется, если пользователь не найден или деактивирован,
+     * email в токене не совпадает с текущим или токен выпущен до последней смены пароля.
+     * Роль берется из stamp, поэтому изменение роли применяется без перевыпуска токена.</p>
+     * 
+     * @param token проверенный access token
+     * @return principal или пустой результат, если токен больше не действителен
+     */
+    private Optional<AuthenticatedUser> resolvePrincipal(VerifiedToken token) {
+        if (!StringUtils.hasText(token.subject()) || !StringUtils.hasText(token.userId())) {
+            return Optional.empty();
+        }
+        
+        UUID userId;
+        try {
+            userId = UUID.fromString(token.userId());
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректный userId в токене");
+            return Optional.empty();
+        }
+        
+        return securityStampService.getStamp(userId)
+                .filter(stamp -> Boolean.TRUE.equals(stamp.isActive()))
+                .filter(stamp -> token.subject().equals(stamp.email()))
+                .filter(stamp -> !stamp.isIssuedBeforePasswordChange(token.issuedAt()))
+                .map(AuthenticatedUser::from);
+    }
+
     /**
      * Извлекает JWT токен из HTTP запроса.
      * 
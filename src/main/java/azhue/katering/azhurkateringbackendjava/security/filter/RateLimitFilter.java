@@ -0,0 +1,142 @@
+package azhue.katering.azhurkateringbackendjava.security.filter;
+
+import azhue.katering.azhurkateringbackendjava.common.annotation.RateLimit;
+import azhue.katering.azhurkateringbackendjava.common.model.dto.ApiResponse;
+import azhue.katering.azhurkateringbackendjava.common.service.KeyedRateLimiter;
+import azhue.katering.azhurkateringbackendjava.common.service.RateLimitRouteTable;
+import azhue.katering.azhurkateringbackendjava.common.util.contract.HttpUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр ограничения частоты запросов.
+ *
+ * <p>Стоит в цепочке Spring Security перед {@link SecurityHeadersFilter} и
+ * {@link JwtAuthenticationFilter}, поэтому отклоненный запрос не проверяет JWT,
+ * не обращается к базе данных и не разбирает тело. Политики берутся из
+ * {@link RateLimitRouteTable}, собранной по аннотациям {@link RateLimit}.</p>
+ *
+ * <p>Здесь проверяются стратегии, ключ которых известен по самому запросу:
+ * IP адрес, общий лимит и email из параметра запроса. Проверенные стратегии
+ * сохраняются в атрибуте запроса {@link #ENFORCED_STRATEGIES_ATTRIBUTE}, и
+ * {@code RateLimitAspect} проверяет только оставшиеся (пользователь, email из тела).</p>
+ *
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Атрибут запроса со стратегиями, уже проверенными фильтром
+     */
+    public static final String ENFORCED_STRATEGIES_ATTRIBUTE = RateLimitFilter.class.getName() + ".ENFORCED";
+
+    private static final String GLOBAL_KEY = "*";
+
+    private final RateLimitRouteTable routeTable;
+    private final KeyedRateLimiter keyedRateLimiter;
+    private final HttpUtils httpUtils;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Проверяет лимиты маршрута до остальной обработки запроса
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimitRouteTable.Route route = routeTable.find(request.getMethod(), path);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Set<RateLimit.KeyStrategy> enforced = EnumSet.noneOf(RateLimit.KeyStrategy.class);
+        for (RateLimit.KeyStrategy strategy : route.strategies()) {
+            Object key = resolveKey(strategy, request);
+            if (key == null) {
+                continue;
+            }
+
+            long waitNanos = keyedRateLimiter.tryConsumeAndGetWait(route.limiterName(), key);
+            if (waitNanos > 0) {
+                log.warn("Rate limit exceeded for {} {} with limiter: {} by {}",
+                        request.getMethod(), path, route.limiterName(), strategy);
+                reject(response, route.message(), waitNanos);
+                return;
+            }
+            enforced.add(strategy);
+        }
+
+        request.setAttribute(ENFORCED_STRATEGIES_ATTRIBUTE, enforced);
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Определяет ключ клиента или {@code null}, если его нельзя получить без разбора тела
+     */
+    private Object resolveKey(RateLimit.KeyStrategy strategy, HttpServletRequest request) {
+        return switch (strategy) {
+            case IP -> httpUtils.getClientIpAddress(request);
+            case GLOBAL -> GLOBAL_KEY;
+            case EMAIL -> {
+                String email = queryParameter(request, "email");
+                yield email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Читает параметр только из строки запроса, не затрагивая тело формы
+     */
+    private static String queryParameter(HttpServletRequest request, String name) {
+        String query = request.getQueryString();
+        if (query == null || !query.contains(name + "=")) {
+            return null;
+        }
+        return request.getParameter(name);
+    }
+
+    /**
+     * Отвечает 429 с заголовком Retry-After
+     */
+    private void reject(HttpServletResponse response, String message, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        ApiResponse<Void> body = ApiResponse.<Void>builder()
+                .success(false)
+                .message(message)
+                .errorCode("RATE_LIMIT_EXCEEDED")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
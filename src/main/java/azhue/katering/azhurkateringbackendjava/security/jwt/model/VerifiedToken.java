@@ -0,0 +1,62 @@
+package azhue.katering.azhurkateringbackendjava.security.jwt.model;
+
+import java.time.Instant;
+
+/**
+ * Проверенный JWT токен.
+ *
+ * <p>Результат однократной проверки подписи и разбора claims. Все данные,
+ * нужные фильтру аутентификации и сервисам, читаются из этого объекта
+ * без повторного парсинга токена.</p>
+ *
+ * @param type тип токена ({@code access} или {@code refresh})
+ * @param subject email пользователя
+ * @param userId идентификатор пользователя
+ * @param role роль пользователя (только для access токена)
+ * @param issuedAt время выпуска
+ * @param expiresAt время истечения
+ * @version 1.0.0
+ */
+public record VerifiedToken(
+        String type,
+        String subject,
+        String userId,
+        String role,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    /**
+     * Проверяет, является ли токен access token
+     */
+    public boolean isAccessToken() {
+        return TYPE_ACCESS.equals(type);
+    }
+
+    /**
+     * Проверяет, является ли токен refresh token
+     */
+    public boolean isRefreshToken() {
+        return TYPE_REFRESH.equals(type);
+    }
+
+    /**
+     * Проверяет, истек ли токен
+     */
+    public boolean isExpired() {
+        return expiresAt == null || !Instant.now().isBefore(expiresAt);
+    }
+
+    /**
+     * Возвращает время до истечения токена в секундах
+     */
+    public long getTimeUntilExpiration() {
+        if (expiresAt == null) {
+            return 0L;
+        }
+        return Math.max(0L, (expiresAt.toEpochMilli() - System.currentTimeMillis()) / 1000);
+    }
+}
@@ -1,28 +1,42 @@
 package azhue.katering.azhurkateringbackendjava.security.jwt.util;
 
+import azhue.katering.azhurkateringbackendjava.security.jwt.model.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Утилита для работы с JWT токенами.
- * 
+ *
  * <p>Предоставляет методы для создания, валидации и извлечения данных из JWT токенов.
  * Поддерживает два типа токенов: access token (короткий срок) и refresh token (долгий срок).</p>
- * 
+ *
+ * <p>Подпись и claims проверяются один раз через {@link #verifyToken(String)}, результат
+ * возвращается как {@link VerifiedToken}. Проверенные access токены хранятся в ограниченном
+ * локальном кэше по SHA-256 дайджесту до момента истечения, поэтому повторные запросы
+ * с тем же токеном не выполняют HMAC и разбор JSON.</p>
+ *
  * @version 1.0.0
  */
 @Component
@@ -38,12 +52,26 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<ByteBuffer, VerifiedToken> verifiedTokenCache;
+
     /**
-     * Создает секретный ключ для подписи токенов
+     * Создает ключ подписи, парсер и кэш проверенных токенов один раз при старте
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     /**
@@ -66,27 +94,66 @@ public class JwtUtil {
     private String generateToken(String email, String userId, String role, long expiration) {
         Instant now = Instant.now();
         Instant expiryDate = now.plus(expiration, ChronoUnit.MILLIS);
-        
+
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         if (role != null) {
             claims.put("role", role);
-            claims.put("type", "access");
+            claims.put("type", VerifiedToken.TYPE_ACCESS);
         } else {
-            claims.put("type", "refresh");
+            claims.put("type", VerifiedToken.TYPE_REFRESH);
         }
-        
+
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiryDate))
                 .issuer("azhur-katering")
                 .audience().add("azhur-katering-frontend").and()
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
+                .signWith(signingKey, Jwts.SIG.HS512)
                 .compact();
     }
 
+    /**
+     * Проверяет подпись и срок действия токена один раз и возвращает его данные.
+     *
+     * <p>Access токены берутся из кэша, если уже проверялись ранее. Для
+     * невалидного, поддельного или истекшего токена возвращается пустой результат.</p>
+     */
+    public Optional<VerifiedToken> verifyToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ByteBuffer digest = digest(token);
+        VerifiedToken cached = verifiedTokenCache.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return Optional.of(cached);
+        }
+
+        try {
+            VerifiedToken verified = toVerifiedToken(extractAllClaims(token));
+            if (verified.isAccessToken()) {
+                verifiedTokenCache.put(digest, verified);
+            }
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Удаляет токен из кэша проверенных токенов
+     */
+    public void evictFromCache(String token) {
+        if (token != null && !token.isEmpty()) {
+            verifiedTokenCache.invalidate(digest(token));
+        }
+    }
+
     /**
      * Извлекает email из токена
      */
@@ -127,9 +194,7 @@ public class JwtUtil {
      * Извлекает все claims из токена
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -138,60 +203,92 @@ public class JwtUtil {
      * Проверяет, истек ли токен
      */
     public Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            log.warn("Error checking token expiration: {}", e.getMessage());
-            return true;
-        }
+        return verifyToken(token)
+                .map(VerifiedToken::isExpired)
+                .orElse(true);
     }
 
     /**
      * Валидирует токен для указанного email
      */
     public Boolean validateToken(String token, String email) {
-        try {
-            final String extractedEmail = extractEmail(token);
-            return (email.equals(extractedEmail) && !isTokenExpired(token));
-        } catch (JwtException | IllegalArgumentException e) {
-            log.warn("Invalid JWT token: {}", e.getMessage());
-            return false;
-        }
+        return verifyToken(token)
+                .map(verified -> email.equals(verified.subject()) && !verified.isExpired())
+                .orElse(false);
     }
 
     /**
      * Проверяет, является ли токен access token
      */
     public Boolean isAccessToken(String token) {
-        try {
-            String type = extractClaim(token, claims -> claims.get("type", String.class));
-            return "access".equals(type);
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token)
+                .map(VerifiedToken::isAccessToken)
+                .orElse(false);
     }
 
     /**
      * Проверяет, является ли токен refresh token
      */
     public Boolean isRefreshToken(String token) {
-        try {
-            String type = extractClaim(token, claims -> claims.get("type", String.class));
-            return "refresh".equals(type);
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token)
+                .map(VerifiedToken::isRefreshToken)
+                .orElse(false);
     }
 
     /**
      * Возвращает время до истечения токена в секундах
      */
     public Long getTimeUntilExpiration(String token) {
-        try {
-            Date expiration = extractExpiration(token);
-            return (expiration.getTime() - System.currentTimeMillis()) / 1000;
-        } catch (Exception e) {
-            return 0L;
+        return verifyToken(token)
+                .map(VerifiedToken::getTimeUntilExpiration)
+                .orElse(0L);
+    }
+
+    /**
+     * Преобразует claims в {@link VerifiedToken}
+     */
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(
+                claims.get("type", String.class),
+                claims.getSubject(),
+                claims.get("userId", String.class),
+                claims.get("role", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    /**
+     * Вычисляет SHA-256 дайджест токена для ключа кэша.
+     *
+     * <p>В кэше не хранится сам токен, только его дайджест.</p>
+     */
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(TokenDigest.sha256(token));
+    }
+
+    /**
+     * Политика истечения записей кэша: запись живет до истечения самого токена
+     */
+    private static class TokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return 0L;
+            }
+            long millis = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0L, millis) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package azhue.katering.azhurkateringbackendjava.security.jwt.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Утилита для вычисления SHA-256 дайджеста токенов.
+ *
+ * <p>Дайджест используется вместо самого токена в ключах кэша и в базе данных:
+ * 32 байта фиксированной длины вместо подписанного JWT, а значение токена
+ * нигде не хранится в открытом виде.</p>
+ *
+ * @version 1.0.0
+ */
+public final class TokenDigest {
+
+    /**
+     * Длина дайджеста в байтах
+     */
+    public static final int LENGTH = 32;
+
+    private TokenDigest() {
+    }
+
+    /**
+     * Вычисляет SHA-256 дайджест токена
+     */
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
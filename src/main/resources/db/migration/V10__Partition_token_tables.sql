@@ -0,0 +1,109 @@
+-- Секционирование refresh_tokens (по неделям) и email_verifications (по дням) по expires_at.
+-- Истекшие строки удаляются удалением секции целиком. Будущие секции создает
+-- PartitionMaintenanceService, секция по умолчанию принимает строки вне созданных диапазонов.
+-- Переносятся только неистекшие строки: истекшие удалила бы очистка.
+
+-- ========================================
+-- refresh_tokens
+-- ========================================
+ALTER TABLE refresh_tokens RENAME TO refresh_tokens_legacy;
+ALTER INDEX refresh_tokens_pkey RENAME TO refresh_tokens_legacy_pkey;
+DROP INDEX IF EXISTS idx_refresh_tokens_token_hash;
+DROP INDEX IF EXISTS idx_refresh_tokens_user_expires;
+DROP INDEX IF EXISTS idx_refresh_tokens_expires_at;
+
+CREATE TABLE refresh_tokens (
+    id UUID NOT NULL,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    token_hash BYTEA NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    is_revoked BOOLEAN DEFAULT false,
+    revoked_at TIMESTAMP,
+    ip_address VARCHAR(45),
+    user_agent TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT DEFAULT 0,
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (id, expires_at),
+    CONSTRAINT chk_refresh_tokens_token_hash_length CHECK (octet_length(token_hash) = 32)
+) PARTITION BY RANGE (expires_at);
+
+CREATE TABLE refresh_tokens_default PARTITION OF refresh_tokens DEFAULT;
+
+DO $$
+DECLARE
+    week_start TIMESTAMP := date_trunc('week', LOCALTIMESTAMP);
+BEGIN
+    FOR i IN 0..4 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF refresh_tokens FOR VALUES FROM (%L) TO (%L)',
+                       'refresh_tokens_p' || to_char(week_start, 'YYYYMMDD'),
+                       week_start, week_start + INTERVAL '1 week');
+        week_start := week_start + INTERVAL '1 week';
+    END LOOP;
+END $$;
+
+INSERT INTO refresh_tokens (id, user_id, token_hash, expires_at, is_revoked, revoked_at,
+                            ip_address, user_agent, created_at, updated_at, version)
+SELECT id, user_id, token_hash, expires_at, is_revoked, revoked_at,
+       ip_address, user_agent, created_at, updated_at, version
+FROM refresh_tokens_legacy
+WHERE expires_at >= LOCALTIMESTAMP;
+
+DROP TABLE refresh_tokens_legacy;
+
+-- Уникальность дайджеста в секционированной таблице возможна только вместе с ключом секционирования
+CREATE UNIQUE INDEX idx_refresh_tokens_token_hash ON refresh_tokens(token_hash, expires_at);
+CREATE INDEX idx_refresh_tokens_user_expires ON refresh_tokens(user_id, expires_at) WHERE is_revoked = false;
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+
+-- ========================================
+-- email_verifications
+-- ========================================
+ALTER TABLE email_verifications RENAME TO email_verifications_legacy;
+ALTER INDEX email_verifications_pkey RENAME TO email_verifications_legacy_pkey;
+DROP INDEX IF EXISTS idx_email_verifications_user_id;
+DROP INDEX IF EXISTS idx_email_verifications_email_code;
+DROP INDEX IF EXISTS idx_email_verifications_expires_at;
+DROP INDEX IF EXISTS idx_email_verifications_used;
+
+CREATE TABLE email_verifications (
+    id UUID NOT NULL,
+    user_id UUID REFERENCES users(id) ON DELETE CASCADE,
+    verification_code VARCHAR(10) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    is_used BOOLEAN DEFAULT false,
+    used_at TIMESTAMP,
+    ip_address VARCHAR(45),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT DEFAULT 0,
+    CONSTRAINT email_verifications_pkey PRIMARY KEY (id, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+CREATE TABLE email_verifications_default PARTITION OF email_verifications DEFAULT;
+
+DO $$
+DECLARE
+    day_start TIMESTAMP := date_trunc('day', LOCALTIMESTAMP);
+BEGIN
+    FOR i IN 0..7 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF email_verifications FOR VALUES FROM (%L) TO (%L)',
+                       'email_verifications_p' || to_char(day_start, 'YYYYMMDD'),
+                       day_start, day_start + INTERVAL '1 day');
+        day_start := day_start + INTERVAL '1 day';
+    END LOOP;
+END $$;
+
+INSERT INTO email_verifications (id, user_id, verification_code, expires_at, is_used, used_at,
+                                 ip_address, created_at, updated_at, version)
+SELECT id, user_id, verification_code, expires_at, is_used, used_at,
+       ip_address, created_at, updated_at, version
+FROM email_verifications_legacy
+WHERE expires_at >= LOCALTIMESTAMP;
+
+DROP TABLE email_verifications_legacy;
+
+CREATE INDEX idx_email_verifications_user_id ON email_verifications(user_id);
+CREATE INDEX idx_email_verifications_email_code ON email_verifications(user_id, verification_code) WHERE is_used = false;
+CREATE INDEX idx_email_verifications_expires_at ON email_verifications(expires_at);
+CREATE INDEX idx_email_verifications_used ON email_verifications(id) WHERE is_used = true;
@@ -0,0 +1,11 @@
+-- Статус асинхронной обработки изображения блюда.
+-- image_job_id указывает на последнюю загрузку: обработчик обновляет блюдо,
+-- только если задание не вытеснено более новой загрузкой.
+ALTER TABLE dishes
+    ADD COLUMN image_status VARCHAR(20) NOT NULL DEFAULT 'NONE',
+    ADD COLUMN image_job_id UUID,
+    ADD COLUMN image_error TEXT;
+
+UPDATE dishes SET image_status = 'READY' WHERE image_url IS NOT NULL;
+
+CREATE INDEX idx_dishes_image_pending ON dishes(image_job_id) WHERE image_status IN ('PENDING', 'PROCESSING');
@@ -0,0 +1,3 @@
+-- Варианты изображения блюда разной ширины и формата: [{key, url, width, height, format}].
+-- Хранятся в строке блюда, чтобы список блюд загружался одним запросом.
+ALTER TABLE dishes ADD COLUMN image_variants JSONB;
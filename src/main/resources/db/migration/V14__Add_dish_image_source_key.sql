@@ -0,0 +1,3 @@
+-- Ключ файла, загруженного клиентом напрямую в хранилище по presigned URL.
+-- Заполнен, пока задание обработки такого файла не завершено.
+ALTER TABLE dishes ADD COLUMN image_source_key VARCHAR(500);
@@ -0,0 +1,4 @@
+-- Число запусков текущего задания обработки изображения.
+-- Сбрасывается при новой загрузке; после app.images.pipeline.max-attempts
+-- запусков задание отмечается FAILED и больше не восстанавливается.
+ALTER TABLE dishes ADD COLUMN image_attempts INTEGER NOT NULL DEFAULT 0;
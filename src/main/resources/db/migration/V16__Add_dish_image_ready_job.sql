@@ -0,0 +1,7 @@
+-- Задание, файлы которого опубликованы в image_url. При завершении нового задания
+-- из S3 удаляется только каталог этого задания, а не файлы более новых загрузок.
+ALTER TABLE dishes ADD COLUMN image_ready_job_id UUID;
+
+UPDATE dishes
+SET image_ready_job_id = CAST(substring(image_url from '/dishes/[0-9a-f-]{36}/([0-9a-f-]{36})/') AS UUID)
+WHERE image_url IS NOT NULL;
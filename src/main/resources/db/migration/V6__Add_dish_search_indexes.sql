@@ -0,0 +1,13 @@
+-- Поиск блюд: триграммы по названию и полнотекстовый поиск по названию и описанию
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Вектор полнотекстового поиска с русским стеммингом (название важнее описания)
+ALTER TABLE dishes ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- Создание индексов для поиска
+CREATE INDEX idx_dishes_search_vector ON dishes USING GIN (search_vector);
+CREATE INDEX idx_dishes_name_trgm ON dishes USING GIN (lower(name) gin_trgm_ops);
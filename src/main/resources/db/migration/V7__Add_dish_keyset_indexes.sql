@@ -0,0 +1,3 @@
+-- Индексы для курсорной (keyset) пагинации блюд по (created_at, id)
+CREATE INDEX idx_dishes_created_id ON dishes(created_at DESC, id DESC);
+CREATE INDEX idx_dishes_category_created_id ON dishes(category_id, created_at DESC, id DESC);
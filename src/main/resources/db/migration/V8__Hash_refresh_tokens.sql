@@ -0,0 +1,13 @@
+-- Хранение refresh токенов в виде SHA-256 дайджеста вместо полного JWT
+ALTER TABLE refresh_tokens ADD COLUMN token_hash BYTEA;
+
+-- Перенос существующих токенов
+UPDATE refresh_tokens SET token_hash = sha256(convert_to(token, 'UTF8'));
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens ADD CONSTRAINT chk_refresh_tokens_token_hash_length CHECK (octet_length(token_hash) = 32);
+CREATE UNIQUE INDEX idx_refresh_tokens_token_hash ON refresh_tokens(token_hash);
+
+-- Удаление колонки с токенами вместе с уникальным ограничением и idx_refresh_tokens_token
+DROP INDEX IF EXISTS idx_refresh_tokens_token;
+ALTER TABLE refresh_tokens DROP COLUMN token;
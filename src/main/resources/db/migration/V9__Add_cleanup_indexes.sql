@@ -0,0 +1,4 @@
+-- Индексы для пачечной очистки истекших токенов и использованных верификаций
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+CREATE INDEX idx_email_verifications_expires_at ON email_verifications(expires_at);
+CREATE INDEX idx_email_verifications_used ON email_verifications(id) WHERE is_used = true;
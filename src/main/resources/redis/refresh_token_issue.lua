@@ -0,0 +1,19 @@
+-- Сохранение refresh токена с индексом токенов пользователя.
+-- KEYS[1] - ключ токена, KEYS[2] - индекс токенов пользователя
+-- ARGV[1] - ID пользователя, ARGV[2] - время истечения (мс с эпохи),
+-- ARGV[3] - IP адрес, ARGV[4] - User-Agent.
+local expires_at = tonumber(ARGV[2])
+
+redis.call('HSET', KEYS[1], 'userId', ARGV[1], 'revoked', '0', 'expiresAt', ARGV[2],
+        'ip', ARGV[3], 'ua', ARGV[4])
+redis.call('PEXPIREAT', KEYS[1], expires_at)
+
+-- Индекс живет не меньше самого долгого токена пользователя
+redis.call('SADD', KEYS[2], KEYS[1])
+local index_ttl = redis.call('PTTL', KEYS[2])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+if index_ttl < 0 or now + index_ttl < expires_at then
+    redis.call('PEXPIREAT', KEYS[2], expires_at)
+end
+return 1
@@ -0,0 +1,9 @@
+-- Отзыв одного refresh токена.
+-- KEYS[1] - ключ токена.
+-- Проверка и запись выполняются атомарно, чтобы не создать ключ без TTL
+-- для токена, истекшего между ними. Возвращает 1, если токен отозван.
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'revoked', '1')
+return 1
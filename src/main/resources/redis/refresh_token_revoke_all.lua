@@ -0,0 +1,15 @@
+-- Отзыв всех refresh токенов пользователя по индексу.
+-- KEYS[1] - индекс токенов пользователя.
+-- Истекшие токены удаляются из индекса. Возвращает число отозванных токенов.
+local revoked = 0
+for _, key in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+    if redis.call('EXISTS', key) == 1 then
+        if redis.call('HGET', key, 'revoked') == '0' then
+            redis.call('HSET', key, 'revoked', '1')
+            revoked = revoked + 1
+        end
+    else
+        redis.call('SREM', KEYS[1], key)
+    end
+end
+return revoked
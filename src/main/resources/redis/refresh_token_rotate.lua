@@ -0,0 +1,28 @@
+-- Атомарная ротация refresh токена.
+-- KEYS[1] - ключ старого токена, KEYS[2] - ключ нового токена,
+-- KEYS[3] - индекс токенов пользователя
+-- ARGV[1] - ID пользователя, ARGV[2] - время истечения нового токена (мс с эпохи),
+-- ARGV[3] - IP адрес, ARGV[4] - User-Agent.
+-- Возвращает 1, если токен ротирован, и 0, если он не найден, отозван, истек
+-- или принадлежит другому пользователю.
+local state = redis.call('HMGET', KEYS[1], 'userId', 'revoked')
+if state[1] ~= ARGV[1] or state[2] ~= '0' then
+    return 0
+end
+
+-- Отозванный токен остается до истечения, чтобы повторное предъявление отличалось от неизвестного
+redis.call('HSET', KEYS[1], 'revoked', '1')
+
+local expires_at = tonumber(ARGV[2])
+redis.call('HSET', KEYS[2], 'userId', ARGV[1], 'revoked', '0', 'expiresAt', ARGV[2],
+        'ip', ARGV[3], 'ua', ARGV[4])
+redis.call('PEXPIREAT', KEYS[2], expires_at)
+
+redis.call('SADD', KEYS[3], KEYS[2])
+local index_ttl = redis.call('PTTL', KEYS[3])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+if index_ttl < 0 or now + index_ttl < expires_at then
+    redis.call('PEXPIREAT', KEYS[3], expires_at)
+end
+return 1
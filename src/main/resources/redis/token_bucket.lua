@@ -0,0 +1,33 @@
+-- Атомарное получение пачки токенов из распределенного token bucket.
+-- KEYS[1] - ключ bucket'а
+-- ARGV[1] - емкость, ARGV[2] - токенов за период, ARGV[3] - период пополнения (мс),
+-- ARGV[4] - запрошенное число токенов.
+-- Возвращает число выданных токенов (от 0 до запрошенного).
+local capacity = tonumber(ARGV[1])
+local refill_tokens = tonumber(ARGV[2])
+local refill_period = tonumber(ARGV[3])
+local requested = tonumber(ARGV[4])
+
+-- Время берется из Redis, чтобы расхождение часов между инстансами не влияло на лимит
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1])
+local ts = tonumber(state[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+local elapsed = math.max(0, now - ts)
+tokens = math.min(capacity, tokens + elapsed * refill_tokens / refill_period)
+
+local granted = math.min(requested, math.floor(tokens))
+tokens = tokens - granted
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+-- Ключ живет до полного пополнения, после этого состояние совпадает с новым bucket'ом
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * refill_period / refill_tokens))
+
+return granted
@@ -0,0 +1,8 @@
+-- Выпуск кода подтверждения email с заменой предыдущего.
+-- KEYS[1] - ключ кода пользователя
+-- ARGV[1] - код, ARGV[2] - ID пользователя, ARGV[3] - IP адрес,
+-- ARGV[4] - время истечения (мс с эпохи).
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], 'code', ARGV[1], 'userId', ARGV[2], 'ip', ARGV[3])
+redis.call('PEXPIREAT', KEYS[1], tonumber(ARGV[4]))
+return 1
@@ -5,7 +5,10 @@ import org.springframework.boot.SpringApplication;
 public class TestAzhurKateringBackendJavaApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.from(AzhurKateringBackendJavaApplication::main).run(args);
+		SpringApplication.from(AzhurKateringBackendJavaApplication::main)
+				.with(TestcontainersConfiguration.class)
+				.withAdditionalProfiles("dev", "test")
+				.run(args);
 	}
 
 }
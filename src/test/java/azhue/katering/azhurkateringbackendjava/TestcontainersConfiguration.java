@@ -0,0 +1,33 @@
+package azhue.katering.azhurkateringbackendjava;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Контейнеры PostgreSQL и Redis для интеграционных тестов.
+ *
+ * <p>Контейнеры живут вместе с тестовым контекстом Spring и переиспользуются
+ * всеми тестами с одинаковой конфигурацией контекста. Подключение к ним
+ * настраивается через {@link ServiceConnection}.</p>
+ *
+ * @version 1.0.0
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class TestcontainersConfiguration {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+    }
+
+    @Bean
+    @ServiceConnection(name = "redis")
+    GenericContainer<?> redisContainer() {
+        return new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+    }
+}
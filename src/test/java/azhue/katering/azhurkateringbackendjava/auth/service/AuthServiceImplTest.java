@@ -0,0 +1,127 @@
+package azhue.katering.azhurkateringbackendjava.auth.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.exception.account.AccountIsLockedException;
+import azhue.katering.azhurkateringbackendjava.auth.exception.account.IncorrectPasswordException;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.request.LoginRequest;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.request.RegisterRequest;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.response.AuthResponse;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.AuthService;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.PasswordHashingService;
+import azhue.katering.azhurkateringbackendjava.support.IntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Хэширование паролей вне транзакции и запись результата входа.
+ *
+ * <p>Пока запрос ждет пул хэширования, соединение JDBC не должно быть занято:
+ * шпион {@link PasswordHashingService} запоминает, была ли активна транзакция.</p>
+ */
+@IntegrationTest
+class AuthServiceImplTest {
+
+    private static final String IP = "127.0.0.1";
+    private static final String USER_AGENT = "test";
+    private static final String PASSWORD = "Password1!";
+
+    @MockitoSpyBean
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Boolean> hashedInTransaction = new CopyOnWriteArrayList<>();
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            hashedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordHashingService).encode(any());
+        doAnswer(invocation -> {
+            hashedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordHashingService).matches(any(), any());
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        email = "auth_" + suffix + "@azhur-katering.ru";
+        authService.register(RegisterRequest.builder()
+                .username("auth_" + suffix)
+                .email(email)
+                .password(PASSWORD)
+                .build(), IP, USER_AGENT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient = ?", email);
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", email);
+    }
+
+    @Test
+    void passwordsAreHashedOutsideTransaction() {
+        User registered = userRepository.findByEmail(email).orElseThrow();
+        assertThat(registered.getPasswordHash()).isNotEqualTo(PASSWORD);
+        verify(registered);
+
+        AuthResponse login = authService.login(login(PASSWORD), IP, USER_AGENT);
+        assertThat(login.getAccessToken()).isNotNull();
+
+        AuthResponse changed = authService.changePassword(registered.getId(), PASSWORD, "Password2!", IP, USER_AGENT);
+        assertThat(changed.getRefreshToken()).isNotNull();
+        assertThat(authService.login(login("Password2!"), IP, USER_AGENT).getAccessToken()).isNotNull();
+
+        // encode при регистрации, matches при входе, matches и encode при смене пароля, matches при входе
+        assertThat(hashedInTransaction).hasSize(5).containsOnly(false);
+    }
+
+    @Test
+    void failedAttemptsAreCommittedAndLockAccount() {
+        verify(userRepository.findByEmail(email).orElseThrow());
+
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            assertThatThrownBy(() -> authService.login(login("wrong-password"), IP, USER_AGENT))
+                    .isInstanceOf(IncorrectPasswordException.class);
+        }
+
+        User locked = userRepository.findByEmail(email).orElseThrow();
+        assertThat(locked.getFailedAttempts()).isEqualTo(5);
+        assertThat(locked.isAccountLocked()).isTrue();
+        assertThatThrownBy(() -> authService.login(login(PASSWORD), IP, USER_AGENT))
+                .isInstanceOf(AccountIsLockedException.class);
+    }
+
+    private void verify(User user) {
+        jdbcTemplate.update("UPDATE users SET is_verified = true WHERE id = ?", user.getId());
+    }
+
+    private LoginRequest login(String password) {
+        return LoginRequest.builder()
+                .email(email)
+                .password(password)
+                .build();
+    }
+}
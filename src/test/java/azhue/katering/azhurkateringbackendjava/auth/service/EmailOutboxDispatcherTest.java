@@ -0,0 +1,197 @@
+package azhue.katering.azhurkateringbackendjava.auth.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.EmailOutboxRepository;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.EmailOutboxService;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.EmailService;
+import azhue.katering.azhurkateringbackendjava.support.IntegrationTest;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox исходящих писем с SMTP сервером GreenMail.
+ *
+ * <p>GreenMail слушает порт и принимает учетные данные из профиля {@code test}. Задержки повторов уменьшены,
+ * чтобы перевод письма в FAILED укладывался в несколько секунд.</p>
+ */
+@IntegrationTest
+@TestPropertySource(properties = {
+        "app.mail.outbox.enabled=true",
+        "app.mail.outbox.poll-interval=100ms",
+        "app.mail.outbox.max-attempts=3",
+        "app.mail.outbox.initial-backoff=1s",
+        "app.mail.outbox.max-backoff=2s"
+})
+class EmailOutboxDispatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("test@azhur-katering.ru", "test"));
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("outbox_" + suffix)
+                .email("outbox_" + suffix + "@azhur-katering.ru")
+                .passwordHash("not-a-real-hash")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient = ?", user.getEmail());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void verificationCodeIsEnqueuedInCallerTransactionAndDelivered() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            emailService.enqueueVerificationCode(user, "127.0.0.1");
+            emailOutboxRepository.flush();
+
+            // Письмо видно в транзакции вызывающего кода и не видно снаружи до фиксации
+            assertThat(outboxRows()).isEqualTo(1);
+            assertThat(inNewTransaction(this::outboxRows)).isZero();
+            assertThat(inNewTransaction(this::verificationCodes)).isZero();
+        });
+
+        assertThat(greenMail.waitForIncomingEmail(TIMEOUT.toMillis(), 1)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
+        assertThat(received[0].getSubject()).isEqualTo("Код подтверждения - Azhur Katering");
+        assertThat(verificationCodes()).isEqualTo(1);
+        awaitUntil(() -> outboxRows() == 0);
+    }
+
+    @Test
+    void rollbackLeavesNoOutboxRow() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            emailOutboxService.enqueue(user.getEmail(), "Тема", "Текст");
+            emailOutboxRepository.flush();
+            assertThat(outboxRows()).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxRows()).isZero();
+        assertThat(greenMail.waitForIncomingEmail(1_000, 1)).isFalse();
+    }
+
+    @Test
+    void smtpFailureIsRetriedWithBackoffAndMarkedFailed() throws Exception {
+        greenMail.stop();
+
+        emailOutboxService.enqueue(user.getEmail(), "Тема", "Текст");
+
+        awaitUntil(() -> attempts() >= 1);
+        Map<String, Object> firstFailure = outboxRow();
+        assertThat(firstFailure.get("status")).isEqualTo("PENDING");
+        assertThat(firstFailure.get("attempts")).isEqualTo(1);
+        assertThat(firstFailure.get("last_error")).isNotNull();
+        // Первая задержка в пределах [initial-backoff / 2, initial-backoff]
+        assertThat(delay(firstFailure)).isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+
+        awaitUntil(() -> attempts() >= 2);
+        Map<String, Object> secondFailure = outboxRow();
+        assertThat(secondFailure.get("status")).isEqualTo("PENDING");
+        // Вторая задержка удвоена и ограничена max-backoff
+        assertThat(delay(secondFailure)).isBetween(Duration.ofSeconds(1), Duration.ofSeconds(2));
+
+        awaitUntil(() -> "FAILED".equals(outboxRow().get("status")));
+        Map<String, Object> failed = outboxRow();
+        assertThat(failed.get("attempts")).isEqualTo(3);
+        assertThat(failed.get("last_error")).isNotNull();
+
+        // Письмо в статусе FAILED больше не отправляется
+        greenMail.start();
+        assertThat(greenMail.waitForIncomingEmail(1_000, 1)).isFalse();
+        assertThat(attempts()).isEqualTo(3);
+    }
+
+    private <T> T inNewTransaction(Supplier<T> query) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(status -> query.get());
+    }
+
+    private long outboxRows() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM email_outbox WHERE recipient = ?", Long.class, user.getEmail());
+    }
+
+    private long verificationCodes() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM email_verifications WHERE user_id = ?", Long.class, user.getId());
+    }
+
+    private int attempts() {
+        List<Integer> attempts = jdbcTemplate.queryForList(
+                "SELECT attempts FROM email_outbox WHERE recipient = ?", Integer.class, user.getEmail());
+        return attempts.isEmpty() ? 0 : attempts.get(0);
+    }
+
+    private Map<String, Object> outboxRow() {
+        return jdbcTemplate.queryForMap(
+                "SELECT status, attempts, last_error, next_attempt_at, updated_at FROM email_outbox WHERE recipient = ?",
+                user.getEmail());
+    }
+
+    private static Duration delay(Map<String, Object> row) {
+        return Duration.between(((Timestamp) row.get("updated_at")).toLocalDateTime(),
+                ((Timestamp) row.get("next_attempt_at")).toLocalDateTime());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
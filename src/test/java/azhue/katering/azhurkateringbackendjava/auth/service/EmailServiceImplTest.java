@@ -0,0 +1,74 @@
+package azhue.katering.azhurkateringbackendjava.auth.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.EmailOutboxService;
+import azhue.katering.azhurkateringbackendjava.auth.store.VerificationCodeStore;
+import azhue.katering.azhurkateringbackendjava.common.service.MetricsService;
+import azhue.katering.azhurkateringbackendjava.common.util.LogUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Теги логирования при постановке кода подтверждения в outbox.
+ *
+ * <p>{@code enqueueVerificationCode} выполняется внутри регистрации и входа и не должен
+ * стирать теги их операции.</p>
+ */
+class EmailServiceImplTest {
+
+    private final VerificationCodeStore verificationCodeStore = mock(VerificationCodeStore.class);
+    private final EmailOutboxService emailOutboxService = mock(EmailOutboxService.class);
+
+    private EmailServiceImpl emailService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        emailService = new EmailServiceImpl(mock(UserRepository.class), verificationCodeStore, emailOutboxService,
+                mock(MetricsService.class), mock(ApplicationEventPublisher.class));
+        user = User.builder()
+                .username("mdc")
+                .email("mdc@azhur-katering.ru")
+                .build();
+        user.setId(UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void callerOperationTagsAreRestored() {
+        LogUtils.setOperationTags(LogUtils.OPERATION_REGISTER, user.getId().toString(), user.getEmail(),
+                "127.0.0.1", LogUtils.STATUS_SUCCESS);
+
+        emailService.enqueueVerificationCode(user, "127.0.0.1");
+
+        verify(emailOutboxService).enqueue(eq(user.getEmail()), any(), any());
+        assertThat(MDC.get(LogUtils.OPERATION_TAG)).isEqualTo(LogUtils.OPERATION_REGISTER);
+        assertThat(MDC.get(LogUtils.USER_ID_TAG)).isEqualTo(user.getId().toString());
+        assertThat(MDC.get(LogUtils.EMAIL_TAG)).isEqualTo(user.getEmail());
+        assertThat(MDC.get(LogUtils.IP_TAG)).isEqualTo("127.0.0.1");
+        assertThat(MDC.get(LogUtils.STATUS_TAG)).isEqualTo(LogUtils.STATUS_SUCCESS);
+    }
+
+    @Test
+    void tagsAreClearedWithoutCallerOperation() {
+        emailService.enqueueVerificationCode(user, "127.0.0.1");
+
+        assertThat(LogUtils.captureTags()).isEmpty();
+    }
+}
@@ -0,0 +1,161 @@
+package azhue.katering.azhurkateringbackendjava.auth.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.exception.token.TokenNotValidException;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.response.AuthResponse;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.AuthService;
+import azhue.katering.azhurkateringbackendjava.auth.store.RefreshTokenStore;
+import azhue.katering.azhurkateringbackendjava.security.jwt.util.JwtUtil;
+import azhue.katering.azhurkateringbackendjava.support.IntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Параллельная ротация одного refresh токена.
+ *
+ * <p>Проверка, отзыв старого и вставка нового токена выполняются одним оператором,
+ * поэтому из N одновременных запросов с одним токеном успешен ровно один,
+ * остальные получают {@link TokenNotValidException}, а в {@code refresh_tokens}
+ * появляется ровно одна новая строка. Схема - секционированная таблица из V10,
+ * старый токен лежит либо в недельной секции, либо в секции по умолчанию.</p>
+ */
+@IntegrationTest
+class RefreshTokenRotationConcurrencyTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("rotation_" + suffix)
+                .email("rotation_" + suffix + "@azhur-katering.ru")
+                .passwordHash("not-a-real-hash")
+                .isVerified(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void refreshTokensTableIsPartitioned() {
+        Integer partitioned = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = 'refresh_tokens'::regclass",
+                Integer.class);
+
+        assertThat(partitioned).isEqualTo(1);
+    }
+
+    /**
+     * @param expiresInDays срок хранения старого токена: 7 дней попадает в недельную секцию,
+     *                      400 дней - за пределы созданных секций, в секцию по умолчанию
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {7, 400})
+    void onlyOneConcurrentRefreshRotatesToken(int expiresInDays) throws Exception {
+        String refreshToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId().toString());
+        refreshTokenStore.save(user, refreshToken, LocalDateTime.now().plusDays(expiresInDays), "127.0.0.1", "test");
+        assertThat(partitionsOfUserTokens()).containsExactly(expiresInDays == 7
+                ? weeklyPartitionOf(expiresInDays)
+                : "refresh_tokens_default");
+
+        List<Future<AuthResponse>> results = refreshConcurrently(refreshToken);
+
+        List<AuthResponse> succeeded = new ArrayList<>();
+        List<Throwable> failed = new ArrayList<>();
+        for (Future<AuthResponse> result : results) {
+            try {
+                succeeded.add(result.get());
+            } catch (ExecutionException e) {
+                failed.add(e.getCause());
+            }
+        }
+
+        assertThat(succeeded).hasSize(1);
+        assertThat(failed).hasSize(CONCURRENT_REQUESTS - 1)
+                .allSatisfy(error -> assertThat(error).isInstanceOf(TokenNotValidException.class));
+        assertThat(countUserTokens()).isEqualTo(2);
+        assertThat(countActiveUserTokens()).isEqualTo(1);
+        assertThat(refreshTokenStore.exists(succeeded.get(0).getRefreshToken())).isTrue();
+    }
+
+    private List<Future<AuthResponse>> refreshConcurrently(String refreshToken) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            List<Future<AuthResponse>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return authService.refreshToken(refreshToken, "127.0.0.1", "test");
+                }));
+            }
+            start.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private String weeklyPartitionOf(int expiresInDays) {
+        return jdbcTemplate.queryForObject(
+                "SELECT 'refresh_tokens_p' || to_char(date_trunc('week', LOCALTIMESTAMP + make_interval(days => ?)), 'YYYYMMDD')",
+                String.class, expiresInDays);
+    }
+
+    private List<String> partitionsOfUserTokens() {
+        return jdbcTemplate.queryForList(
+                "SELECT tableoid::regclass::text FROM refresh_tokens WHERE user_id = ?", String.class, user.getId());
+    }
+
+    private long countUserTokens() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM refresh_tokens WHERE user_id = ?", Long.class, user.getId());
+    }
+
+    private long countActiveUserTokens() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM refresh_tokens WHERE user_id = ? AND is_revoked = false",
+                Long.class, user.getId());
+    }
+}
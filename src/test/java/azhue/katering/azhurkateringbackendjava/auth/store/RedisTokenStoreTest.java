@@ -0,0 +1,262 @@
+package azhue.katering.azhurkateringbackendjava.auth.store;
+
+import azhue.katering.azhurkateringbackendjava.auth.exception.token.TokenNotFoundException;
+import azhue.katering.azhurkateringbackendjava.auth.exception.token.TokenNotValidException;
+import azhue.katering.azhurkateringbackendjava.auth.model.dto.response.AuthResponse;
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.auth.service.contract.AuthService;
+import azhue.katering.azhurkateringbackendjava.security.jwt.util.JwtUtil;
+import azhue.katering.azhurkateringbackendjava.security.jwt.util.TokenDigest;
+import azhue.katering.azhurkateringbackendjava.support.IntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Хранилища refresh токенов и кодов подтверждения в Redis.
+ *
+ * <p>Проверяет Lua скрипты из {@code redis/}: атомарную ротацию при параллельных
+ * запросах, отзыв одного и всех токенов по индексу пользователя, истечение ключей
+ * по {@code PEXPIREAT} с продлением индекса и замену кода подтверждения.</p>
+ */
+@IntegrationTest
+@TestPropertySource(properties = "app.auth.token-store=redis")
+class RedisTokenStoreTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+    private static final long TTL_TOLERANCE_MILLIS = 2_000;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private VerificationCodeStore verificationCodeStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.auth.redis.refresh-token-prefix}")
+    private String refreshTokenPrefix;
+
+    @Value("${app.auth.redis.verification-code-prefix}")
+    private String verificationCodePrefix;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("redis_" + suffix)
+                .email("redis_" + suffix + "@azhur-katering.ru")
+                .passwordHash("not-a-real-hash")
+                .isVerified(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        Set<String> tokenKeys = redisTemplate.opsForSet().members(userIndexKey());
+        if (tokenKeys != null && !tokenKeys.isEmpty()) {
+            redisTemplate.delete(tokenKeys);
+        }
+        redisTemplate.delete(List.of(userIndexKey(), verificationCodeKey()));
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void redisStoresAreSelected() {
+        assertThat(refreshTokenStore).isInstanceOf(RedisRefreshTokenStore.class);
+        assertThat(verificationCodeStore).isInstanceOf(RedisVerificationCodeStore.class);
+    }
+
+    @Test
+    void onlyOneConcurrentRefreshRotatesToken() throws Exception {
+        String refreshToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId().toString());
+        refreshTokenStore.save(user, refreshToken, LocalDateTime.now().plusDays(7), "127.0.0.1", "test");
+
+        List<AuthResponse> succeeded = new ArrayList<>();
+        List<Throwable> failed = new ArrayList<>();
+        for (Future<AuthResponse> result : refreshConcurrently(refreshToken)) {
+            try {
+                succeeded.add(result.get());
+            } catch (ExecutionException e) {
+                failed.add(e.getCause());
+            }
+        }
+
+        assertThat(succeeded).hasSize(1);
+        assertThat(failed).hasSize(CONCURRENT_REQUESTS - 1)
+                .allSatisfy(error -> assertThat(error).isInstanceOf(TokenNotValidException.class));
+        String newToken = succeeded.get(0).getRefreshToken();
+        assertThat(redisTemplate.opsForSet().members(userIndexKey()))
+                .containsExactlyInAnyOrder(tokenKey(refreshToken), tokenKey(newToken));
+        assertThat(revokedFlag(refreshToken)).isEqualTo("1");
+        assertThat(revokedFlag(newToken)).isEqualTo("0");
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndUnknownTokenIsNotFound() {
+        String refreshToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId().toString());
+        refreshTokenStore.save(user, refreshToken, LocalDateTime.now().plusDays(7), "127.0.0.1", "test");
+
+        refreshTokenStore.revoke(refreshToken);
+
+        // Отозванный токен хранится до истечения и отличается от неизвестного
+        assertThat(refreshTokenStore.exists(refreshToken)).isTrue();
+        assertThatThrownBy(() -> authService.refreshToken(refreshToken, "127.0.0.1", "test"))
+                .isInstanceOf(TokenNotValidException.class);
+
+        String unknownToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId().toString());
+        assertThatThrownBy(() -> authService.refreshToken(unknownToken, "127.0.0.1", "test"))
+                .isInstanceOf(TokenNotFoundException.class);
+        // Отзыв неизвестного токена не создает ключ без TTL
+        refreshTokenStore.revoke(unknownToken);
+        assertThat(refreshTokenStore.exists(unknownToken)).isFalse();
+    }
+
+    @Test
+    void revokeAllForUserRevokesIndexedTokensAndDropsExpiredOnes() throws Exception {
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        String shortLived = UUID.randomUUID().toString();
+        refreshTokenStore.save(user, first, LocalDateTime.now().plusDays(7), "127.0.0.1", "test");
+        refreshTokenStore.save(user, second, LocalDateTime.now().plusDays(1), null, null);
+        refreshTokenStore.save(user, shortLived, LocalDateTime.now().plusNanos(200_000_000), "127.0.0.1", "test");
+        assertThat(redisTemplate.opsForSet().size(userIndexKey())).isEqualTo(3);
+
+        Thread.sleep(400);
+        refreshTokenStore.revokeAllForUser(user);
+
+        assertThat(revokedFlag(first)).isEqualTo("1");
+        assertThat(revokedFlag(second)).isEqualTo("1");
+        assertThat(refreshTokenStore.exists(shortLived)).isFalse();
+        assertThat(redisTemplate.opsForSet().members(userIndexKey()))
+                .containsExactlyInAnyOrder(tokenKey(first), tokenKey(second));
+        assertThat(refreshTokenStore.rotate(first, user.getId(), UUID.randomUUID().toString(),
+                LocalDateTime.now().plusDays(7), "127.0.0.1", "test")).isEmpty();
+    }
+
+    @Test
+    void tokensExpireAtTheirDeadlineAndIndexLivesUntilTheLongest() throws Exception {
+        String longLived = UUID.randomUUID().toString();
+        String shortLived = UUID.randomUUID().toString();
+        String expiring = UUID.randomUUID().toString();
+
+        refreshTokenStore.save(user, longLived, LocalDateTime.now().plusDays(7), "127.0.0.1", "test");
+        assertThat(ttlMillis(tokenKey(longLived))).isCloseTo(Duration.ofDays(7).toMillis(), within(TTL_TOLERANCE_MILLIS));
+        assertThat(ttlMillis(userIndexKey())).isCloseTo(Duration.ofDays(7).toMillis(), within(TTL_TOLERANCE_MILLIS));
+
+        // Более короткий токен не сокращает жизнь индекса
+        refreshTokenStore.save(user, shortLived, LocalDateTime.now().plusDays(1), "127.0.0.1", "test");
+        assertThat(ttlMillis(tokenKey(shortLived))).isCloseTo(Duration.ofDays(1).toMillis(), within(TTL_TOLERANCE_MILLIS));
+        assertThat(ttlMillis(userIndexKey())).isCloseTo(Duration.ofDays(7).toMillis(), within(TTL_TOLERANCE_MILLIS));
+
+        // Ротация в более долгий токен продлевает индекс
+        String rotated = UUID.randomUUID().toString();
+        assertThat(refreshTokenStore.rotate(shortLived, user.getId(), rotated,
+                LocalDateTime.now().plusDays(30), "127.0.0.1", "test")).isPresent();
+        assertThat(ttlMillis(tokenKey(rotated))).isCloseTo(Duration.ofDays(30).toMillis(), within(TTL_TOLERANCE_MILLIS));
+        assertThat(ttlMillis(userIndexKey())).isCloseTo(Duration.ofDays(30).toMillis(), within(TTL_TOLERANCE_MILLIS));
+
+        refreshTokenStore.save(user, expiring, LocalDateTime.now().plusNanos(300_000_000), "127.0.0.1", "test");
+        assertThat(refreshTokenStore.exists(expiring)).isTrue();
+        Thread.sleep(500);
+        assertThat(refreshTokenStore.exists(expiring)).isFalse();
+        assertThat(refreshTokenStore.rotate(expiring, user.getId(), UUID.randomUUID().toString(),
+                LocalDateTime.now().plusDays(7), "127.0.0.1", "test")).isEmpty();
+    }
+
+    @Test
+    void newVerificationCodeReplacesPreviousOne() throws Exception {
+        verificationCodeStore.issue(user, "111111", LocalDateTime.now().plusMinutes(15), "127.0.0.1");
+        assertThat(verificationCodeStore.findValidCode(user.getEmail())).contains("111111");
+
+        verificationCodeStore.issue(user, "222222", LocalDateTime.now().plusMinutes(5), null);
+        assertThat(verificationCodeStore.findValidCode(user.getEmail())).contains("222222");
+        // Замена переписывает и срок действия
+        assertThat(ttlMillis(verificationCodeKey())).isCloseTo(Duration.ofMinutes(5).toMillis(), within(TTL_TOLERANCE_MILLIS));
+
+        verificationCodeStore.revoke(user.getEmail());
+        assertThat(verificationCodeStore.findValidCode(user.getEmail())).isEmpty();
+
+        verificationCodeStore.issue(user, "333333", LocalDateTime.now().plusNanos(300_000_000), "127.0.0.1");
+        Thread.sleep(500);
+        assertThat(verificationCodeStore.findValidCode(user.getEmail())).isEmpty();
+    }
+
+    private List<Future<AuthResponse>> refreshConcurrently(String refreshToken) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            List<Future<AuthResponse>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return authService.refreshToken(refreshToken, "127.0.0.1", "test");
+                }));
+            }
+            start.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private Object revokedFlag(String token) {
+        return redisTemplate.opsForHash().get(tokenKey(token), "revoked");
+    }
+
+    private long ttlMillis(String key) {
+        return redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+    }
+
+    private String tokenKey(String token) {
+        return refreshTokenPrefix + ':' + HexFormat.of().formatHex(TokenDigest.sha256(token));
+    }
+
+    private String userIndexKey() {
+        return refreshTokenPrefix + ":user:" + user.getId();
+    }
+
+    private String verificationCodeKey() {
+        return verificationCodePrefix + ':' + user.getEmail();
+    }
+}
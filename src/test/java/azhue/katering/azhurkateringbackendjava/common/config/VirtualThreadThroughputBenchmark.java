@@ -0,0 +1,164 @@
+package azhue.katering.azhurkateringbackendjava.common.config;
+
+import azhue.katering.azhurkateringbackendjava.AzhurKateringBackendJavaApplication;
+import azhue.katering.azhurkateringbackendjava.TestcontainersConfiguration;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Category;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.repository.CategoryRepository;
+import azhue.katering.azhurkateringbackendjava.menu.repository.DishRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность JDBC эндпоинта с платформенными и виртуальными потоками.
+ *
+ * <p>Каждый fork поднимает приложение с PostgreSQL и Redis из
+ * {@link TestcontainersConfiguration} на случайном порту, с
+ * {@code spring.threads.virtual.enabled} из параметра {@code virtualThreads}, и
+ * заполняет меню блюдами. Одна операция - {@value #CONCURRENCY} одновременных запросов
+ * {@code GET /api/v1/dishes/search}: три запроса к PostgreSQL (порог сходства, ID
+ * найденных блюд по pg_trgm, блюда с категориями) через пул Hikari по умолчанию
+ * (10 соединений). Результат - запросы в секунду, счетчики {@code ok} и
+ * {@code rejected} (ответы не 200, например 503 от JDBC bulkhead) выводятся рядом.</p>
+ *
+ * <p>Запуск (нужен Docker): {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=VirtualThreadThroughputBenchmark}</p>
+ *
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class VirtualThreadThroughputBenchmark {
+
+    private static final int CONCURRENCY = 256;
+    private static final int DISHES = 500;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    /**
+     * Ответы по статусу за итерацию
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Responses {
+        public long ok;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ok = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.from(AzhurKateringBackendJavaApplication::main)
+                .with(TestcontainersConfiguration.class)
+                .withAdditionalProfiles("dev", "test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        // Отладочные логгеры из logback-spring.xml забивают CPU и искажают результат
+                        "--logging.level.root=WARN",
+                        "--logging.level.azhue.katering=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .getApplicationContext();
+        seedMenu();
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String port = context.getEnvironment().getProperty("local.server.port");
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/dishes/search?size=20&query="
+                        + URLEncoder.encode("борщ", StandardCharsets.UTF_8)))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public void search(Responses responses) {
+        List<CompletableFuture<HttpResponse<Void>>> inFlight = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            inFlight.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : inFlight) {
+            if (response.join().statusCode() == 200) {
+                responses.ok++;
+            } else {
+                responses.rejected++;
+            }
+        }
+    }
+
+    private void seedMenu() {
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        DishRepository dishRepository = context.getBean(DishRepository.class);
+        Category category = categoryRepository.save(Category.builder()
+                .name("Супы")
+                .isActive(true)
+                .build());
+
+        List<Dish> dishes = new ArrayList<>(DISHES);
+        for (int i = 0; i < DISHES; i++) {
+            dishes.add(Dish.builder()
+                    .name((i % 2 == 0 ? "Борщ " : "Солянка ") + i)
+                    .description("Блюдо для нагрузочного теста")
+                    .price(BigDecimal.valueOf(100 + i % 50))
+                    .category(category)
+                    .isAvailable(true)
+                    .build());
+        }
+        dishRepository.saveAll(dishes);
+    }
+}
@@ -0,0 +1,88 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Прокси соединений {@link BulkheadDataSource}.
+ */
+class BulkheadDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+
+    private Bulkhead bulkhead;
+    private BulkheadDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        bulkhead = new Bulkhead("jdbc", 2, Duration.ofMillis(100), new SimpleMeterRegistry());
+        dataSource = new BulkheadDataSource(target, bulkhead);
+    }
+
+    @Test
+    void closeReleasesPermitOnce() throws Exception {
+        Connection proxy = dataSource.getConnection();
+        assertThat(bulkhead.getInFlight()).isEqualTo(1);
+
+        proxy.close();
+        proxy.close();
+
+        assertThat(bulkhead.getInFlight()).isZero();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void identityMethodsAreHandledByProxy() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertThat(first).isEqualTo(first).isNotEqualTo(second).isNotEqualTo(connection);
+        assertThat(first.hashCode()).isEqualTo(System.identityHashCode(first));
+        Set<Connection> connections = new HashSet<>(Set.of(first, second));
+        assertThat(connections).contains(first, second);
+        assertThat(first.toString()).contains("jdbc");
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void unwrapToConnectionReturnsProxy() throws Exception {
+        Connection proxy = dataSource.getConnection();
+
+        assertThat(proxy.unwrap(Connection.class)).isSameAs(proxy);
+        assertThat(proxy.isWrapperFor(Connection.class)).isTrue();
+
+        // Закрытие полученного через unwrap соединения освобождает разрешение
+        proxy.unwrap(Connection.class).close();
+        assertThat(bulkhead.getInFlight()).isZero();
+    }
+
+    @Test
+    void unwrapToVendorInterfaceIsDelegated() throws Exception {
+        Runnable vendorConnection = mock(Runnable.class);
+        when(connection.unwrap(Runnable.class)).thenReturn(vendorConnection);
+        when(connection.isWrapperFor(Runnable.class)).thenReturn(true);
+        Connection proxy = dataSource.getConnection();
+
+        assertThat(proxy.unwrap(Runnable.class)).isSameAs(vendorConnection);
+        assertThat(proxy.isWrapperFor(Runnable.class)).isTrue();
+
+        proxy.close();
+    }
+}
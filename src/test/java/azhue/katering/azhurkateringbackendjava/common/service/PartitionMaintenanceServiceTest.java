@@ -0,0 +1,128 @@
+package azhue.katering.azhurkateringbackendjava.common.service;
+
+import azhue.katering.azhurkateringbackendjava.auth.model.entity.User;
+import azhue.katering.azhurkateringbackendjava.auth.repository.UserRepository;
+import azhue.katering.azhurkateringbackendjava.auth.store.RefreshTokenStore;
+import azhue.katering.azhurkateringbackendjava.common.service.PartitionMaintenanceService.PartitionedTable;
+import azhue.katering.azhurkateringbackendjava.support.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Создание секции, диапазон которой уже занят строками секции по умолчанию.
+ */
+@IntegrationTest
+class PartitionMaintenanceServiceTest {
+
+    private static final int WEEKS_AHEAD = 20;
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private List<String> partitionsBefore;
+    private Object premake;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("partition_" + suffix)
+                .email("partition_" + suffix + "@azhur-katering.ru")
+                .passwordHash("not-a-real-hash")
+                .build());
+        partitionsBefore = refreshTokenPartitions();
+        premake = ReflectionTestUtils.getField(partitionMaintenanceService, "premake");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(partitionMaintenanceService, "premake", premake);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+        List<String> created = new ArrayList<>(refreshTokenPartitions());
+        created.removeAll(partitionsBefore);
+        created.forEach(name -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + name));
+    }
+
+    @Test
+    void rowsFromDefaultPartitionAreMovedIntoNewPartition() {
+        LocalDate weekStart = LocalDate.now()
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                .plusWeeks(WEEKS_AHEAD);
+        String partition = "refresh_tokens_p" + weekStart.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        assertThat(partitionsBefore).doesNotContain(partition);
+
+        refreshTokenStore.save(user, UUID.randomUUID().toString(), weekStart.atStartOfDay().plusDays(2),
+                "127.0.0.1", "test");
+        assertThat(partitionsOfUserTokens()).containsExactly("refresh_tokens_default");
+        long defaultRowsBefore = partitionMaintenanceService.refreshDefaultRows(PartitionedTable.REFRESH_TOKENS);
+        assertThat(defaultRowsBefore).isPositive();
+        assertThat(defaultRowsGauge()).isEqualTo(defaultRowsBefore);
+
+        ReflectionTestUtils.setField(partitionMaintenanceService, "premake", WEEKS_AHEAD);
+        int created = partitionMaintenanceService.createFuturePartitions(PartitionedTable.REFRESH_TOKENS);
+
+        assertThat(created).isPositive();
+        assertThat(partitionsOfUserTokens()).containsExactly(partition);
+        assertThat(refreshTokenPartitions()).contains(partition, "refresh_tokens_default");
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT pg_get_expr(c.relpartbound, c.oid)
+                FROM pg_class c
+                WHERE c.relname = 'refresh_tokens_default'
+                """, String.class)).isEqualTo("DEFAULT");
+        assertThat(partitionMaintenanceService.refreshDefaultRows(PartitionedTable.REFRESH_TOKENS))
+                .isEqualTo(defaultRowsBefore - 1);
+        assertThat(defaultRowsGauge()).isEqualTo(defaultRowsBefore - 1);
+
+        // Новые строки из диапазона попадают в созданную секцию
+        refreshTokenStore.save(user, UUID.randomUUID().toString(), weekStart.atStartOfDay().plusDays(3),
+                "127.0.0.1", "test");
+        assertThat(partitionsOfUserTokens()).containsExactly(partition, partition);
+    }
+
+    private double defaultRowsGauge() {
+        return meterRegistry.get("partition.default.rows").tag("table", "refresh_tokens").gauge().value();
+    }
+
+    private List<String> refreshTokenPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'refresh_tokens'::regclass
+                """, String.class);
+    }
+
+    private List<String> partitionsOfUserTokens() {
+        return jdbcTemplate.queryForList(
+                "SELECT tableoid::regclass::text FROM refresh_tokens WHERE user_id = ?", String.class, user.getId());
+    }
+}
@@ -0,0 +1,192 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Category;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.repository.CategoryRepository;
+import azhue.katering.azhurkateringbackendjava.menu.repository.DishRepository;
+import azhue.katering.azhurkateringbackendjava.support.IntegrationTest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Ограничение повторов заданий обработки изображений.
+ *
+ * <p>Задание, которое каждый раз завершается необработанной ошибкой, восстанавливается
+ * не больше {@code max-attempts} раз и затем отмечается FAILED. Ошибка декодирования
+ * не повторяется.</p>
+ */
+@IntegrationTest
+@TestPropertySource(properties = {
+        "app.images.pipeline.max-attempts=3",
+        "app.images.pipeline.recovery-delay=0s",
+        "app.images.pipeline.recovery-interval=3600000"
+})
+class DishImagePipelineTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @MockitoSpyBean
+    private S3Service s3Service;
+
+    @MockitoSpyBean
+    private ImageVariantGenerator imageVariantGenerator;
+
+    @Autowired
+    private DishImagePipeline dishImagePipeline;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.images.pipeline.spool-dir}")
+    private Path spoolDir;
+
+    private Category category;
+    private Dish dish;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        category = categoryRepository.save(Category.builder()
+                .name("Изображения " + suffix)
+                .isActive(true)
+                .build());
+        dish = dishRepository.save(Dish.builder()
+                .name("Борщ " + suffix)
+                .description("Тестовое блюдо")
+                .price(BigDecimal.valueOf(350))
+                .category(category)
+                .isAvailable(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reset(s3Service, imageVariantGenerator);
+        dishRepository.deleteById(dish.getId());
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    void jobFailingWithUnexpectedErrorIsMarkedFailedAfterMaxAttempts() throws Exception {
+        doThrow(new IllegalStateException("S3 недоступен")).when(s3Service).uploadVariant(any(), any(), any());
+
+        Counter errors = meterRegistry.counter("dish.image.jobs", "result", "error");
+        double errorsBefore = errors.count();
+
+        UUID jobId = spool();
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            if (attempt > 1) {
+                dishImagePipeline.recover();
+            }
+            double expectedErrors = errorsBefore + attempt;
+            awaitUntil(() -> errors.count() >= expectedErrors);
+            // Задание осталось незавершенным, буферный файл сохранен для повтора
+            assertThat(currentDish().getImageAttempts()).isEqualTo(attempt);
+            assertThat(currentDish().getImageStatus()).isEqualTo(Dish.ImageStatus.PROCESSING);
+            assertThat(spoolFile(jobId)).exists();
+        }
+
+        // Четвертый запуск не выполняется: задание завершается ошибкой, буферный файл удаляется
+        dishImagePipeline.recover();
+        awaitUntil(() -> currentDish().getImageStatus() == Dish.ImageStatus.FAILED);
+        Dish failed = currentDish();
+        assertThat(failed.getImageAttempts()).isEqualTo(3);
+        assertThat(failed.getImageError()).contains("Превышено число попыток");
+        awaitUntil(() -> !Files.exists(spoolFile(jobId)));
+
+        dishImagePipeline.recover();
+        assertThat(currentDish().getImageAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void decodingErrorFailsJobWithoutRetry() throws Exception {
+        doThrow(new UnsatisfiedLinkError("no webp-imageio in java.library.path"))
+                .when(imageVariantGenerator).generate(any());
+
+        UUID jobId = spool();
+        awaitUntil(() -> currentDish().getImageStatus() == Dish.ImageStatus.FAILED);
+
+        Dish failed = currentDish();
+        assertThat(failed.getImageAttempts()).isEqualTo(1);
+        assertThat(failed.getImageError()).contains("webp-imageio");
+        awaitUntil(() -> !Files.exists(spoolFile(jobId)));
+    }
+
+    /**
+     * Сохраняет изображение в буферный каталог так же, как обновление блюда
+     */
+    private UUID spool() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            try {
+                UUID jobId = dishImagePipeline.spool(dish.getId(),
+                        new MockMultipartFile("file", "dish.png", "image/png", png()), "png");
+                Dish current = currentDish();
+                current.setImageJobId(jobId);
+                current.setImageStatus(Dish.ImageStatus.PENDING);
+                current.setImageAttempts(0);
+                dishRepository.save(current);
+                return jobId;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private Path spoolFile(UUID jobId) {
+        return spoolDir.resolve(dish.getId() + "_" + jobId + ".png");
+    }
+
+    private Dish currentDish() {
+        return dishRepository.findById(dish.getId()).orElseThrow();
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageSizeException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageTypeException;
+import azhue.katering.azhurkateringbackendjava.menu.exception.image.ImageUploadNotFoundException;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.ImageUploadFinalizeRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.request.ImageUploadRequest;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishImageStatusResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.ImageUploadUrlResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.ImageVariantResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Category;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.ImageVariant;
+import azhue.katering.azhurkateringbackendjava.menu.repository.CategoryRepository;
+import azhue.katering.azhurkateringbackendjava.menu.repository.DishRepository;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.DishImageUploadService;
+import azhue.katering.azhurkateringbackendjava.support.IntegrationTest;
+import com.amazonaws.services.s3.AmazonS3;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistrar;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Загрузка изображения блюда по presigned URL в MinIO.
+ *
+ * <p>Клиент загружает файл PUT запросом по выданному URL с заголовками из ответа, затем
+ * завершает загрузку. Обработчик изображений работает с тем же бакетом, поэтому готовые
+ * варианты проверяются в хранилище.</p>
+ */
+@IntegrationTest
+class DishImageUploadIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class MinioConfiguration {
+
+        @Bean
+        MinIOContainer minioContainer() {
+            return new MinIOContainer(DockerImageName.parse("minio/minio:RELEASE.2024-12-18T13-15-44Z"));
+        }
+
+        @Bean
+        DynamicPropertyRegistrar minioProperties(MinIOContainer minio) {
+            return registry -> {
+                registry.add("app.s3.endpoint", minio::getS3URL);
+                registry.add("app.s3.access-key", minio::getUserName);
+                registry.add("app.s3.secret-key", minio::getPassword);
+            };
+        }
+    }
+
+    @Autowired
+    private DishImageUploadService dishImageUploadService;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private AmazonS3 s3Client;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.s3.bucket}")
+    private String bucket;
+
+    @Value("${app.images.max.file.size}")
+    private long maxFileSize;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private Category category;
+    private Dish dish;
+
+    @BeforeEach
+    void setUp() {
+        if (!s3Client.doesBucketExistV2(bucket)) {
+            s3Client.createBucket(bucket);
+        }
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        category = categoryRepository.save(Category.builder()
+                .name("Загрузки " + suffix)
+                .isActive(true)
+                .build());
+        dish = dishRepository.save(Dish.builder()
+                .name("Борщ " + suffix)
+                .description("Тестовое блюдо")
+                .price(BigDecimal.valueOf(350))
+                .category(category)
+                .isAvailable(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dishRepository.deleteById(dish.getId());
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    void uploadedImageIsProcessedIntoVariants() throws Exception {
+        ImageUploadUrlResponse upload = createUploadUrl("image/png", png(800, 600));
+        assertThat(put(upload, png(800, 600))).isEqualTo(200);
+
+        DishImageStatusResponse finalized = finalizeUpload(upload.getUploadId());
+        assertThat(finalized.getStatus()).isIn(Dish.ImageStatus.PENDING, Dish.ImageStatus.PROCESSING);
+
+        awaitUntil(() -> currentDish().getImageStatus() == Dish.ImageStatus.READY);
+        Dish ready = currentDish();
+        assertThat(ready.getImageJobId()).isEqualTo(upload.getUploadId());
+        assertThat(ready.getImageUrl()).isNotNull();
+        assertThat(ready.getThumbnailUrl()).isNotNull();
+        assertThat(ready.getImageVariants()).isNotEmpty();
+        ready.getImageVariants().forEach(variant ->
+                assertThat(s3Client.doesObjectExist(bucket, variant.key())).as(variant.key()).isTrue());
+        assertThat(s3Client.doesObjectExist(bucket,
+                s3Service.imageKey(dish.getId(), upload.getUploadId(), "original.png"))).isTrue();
+        // Исходный файл загрузки удаляется после обработки
+        assertThat(s3Client.doesObjectExist(bucket, uploadKey(upload))).isFalse();
+    }
+
+    @Test
+    void oversizeObjectIsRejectedAndDeleted() throws Exception {
+        byte[] image = png(800, 600);
+        // Presigned PUT не ограничивает размер тела: клиент заявляет один размер, а загружает другой
+        ImageUploadUrlResponse upload = createUploadUrl("image/png", image);
+        byte[] oversize = Arrays.copyOf(image, Math.toIntExact(maxFileSize + 1));
+        assertThat(put(upload, oversize)).isEqualTo(200);
+
+        assertThatThrownBy(() -> finalizeUpload(upload.getUploadId())).isInstanceOf(ImageSizeException.class);
+
+        assertThat(s3Client.doesObjectExist(bucket, uploadKey(upload))).isFalse();
+        assertThat(currentDish().getImageStatus()).isEqualTo(Dish.ImageStatus.NONE);
+        assertThat(currentDish().getImageJobId()).isNull();
+    }
+
+    @Test
+    void objectWithWrongSignatureIsRejectedAndDeleted() throws Exception {
+        byte[] text = "это не изображение".repeat(64).getBytes(StandardCharsets.UTF_8);
+        ImageUploadUrlResponse upload = createUploadUrl("image/png", text);
+        assertThat(put(upload, text)).isEqualTo(200);
+
+        assertThatThrownBy(() -> finalizeUpload(upload.getUploadId())).isInstanceOf(ImageTypeException.class);
+
+        assertThat(s3Client.doesObjectExist(bucket, uploadKey(upload))).isFalse();
+        assertThat(currentDish().getImageStatus()).isEqualTo(Dish.ImageStatus.NONE);
+        assertThat(currentDish().getImageJobId()).isNull();
+    }
+
+    @Test
+    void repeatedFinalizeIsIdempotent() throws Exception {
+        Counter readyJobs = meterRegistry.counter("dish.image.jobs", "result", "ready");
+        double readyBefore = readyJobs.count();
+        byte[] image = png(640, 480);
+        ImageUploadUrlResponse upload = createUploadUrl("image/png", image);
+        assertThat(put(upload, image)).isEqualTo(200);
+
+        DishImageStatusResponse first = finalizeUpload(upload.getUploadId());
+        DishImageStatusResponse second = finalizeUpload(upload.getUploadId());
+        assertThat(second.getDishId()).isEqualTo(first.getDishId());
+        assertThat(second.getStatus()).isIn(Dish.ImageStatus.PENDING, Dish.ImageStatus.PROCESSING,
+                Dish.ImageStatus.READY);
+
+        awaitUntil(() -> currentDish().getImageStatus() == Dish.ImageStatus.READY);
+        Dish ready = currentDish();
+
+        // Исходный файл уже удален, но повтор отвечает текущим статусом, а не ошибкой
+        DishImageStatusResponse afterReady = finalizeUpload(upload.getUploadId());
+        assertThat(afterReady.getStatus()).isEqualTo(Dish.ImageStatus.READY);
+        assertThat(afterReady.getImageUrl()).isEqualTo(ready.getImageUrl());
+        assertThat(afterReady.getImageVariants()).extracting(ImageVariantResponse::getUrl)
+                .containsExactlyInAnyOrderElementsOf(ready.getImageVariants().stream()
+                        .map(ImageVariant::url)
+                        .toList());
+
+        // Задание обработано один раз
+        Thread.sleep(500);
+        assertThat(readyJobs.count() - readyBefore).isEqualTo(1);
+        assertThat(currentDish().getImageStatus()).isEqualTo(Dish.ImageStatus.READY);
+    }
+
+    @Test
+    void completedJobDeletesOnlyReplacedImage() throws Exception {
+        String legacyKey = "dishes/" + dish.getId() + "/original.png";
+        s3Client.putObject(bucket, legacyKey, "legacy");
+
+        ImageUploadUrlResponse first = uploadAndAwaitReady(png(640, 480));
+        assertThat(currentDish().getImageReadyJobId()).isEqualTo(first.getUploadId());
+        // Изображение, загруженное без задания, заменено первым заданием.
+        // Файлы удаляются после сохранения ссылок, поэтому удаление ожидается
+        awaitUntil(() -> !s3Client.doesObjectExist(bucket, legacyKey));
+        String firstOriginal = s3Service.imageKey(dish.getId(), first.getUploadId(), "original.png");
+        assertThat(s3Client.doesObjectExist(bucket, firstOriginal)).isTrue();
+
+        // Файлы более новой загрузки, которая еще обрабатывается
+        String newerKey = s3Service.imageKey(dish.getId(), UUID.randomUUID(), "w320.png");
+        s3Client.putObject(bucket, newerKey, "newer");
+
+        ImageUploadUrlResponse second = uploadAndAwaitReady(png(800, 600));
+        assertThat(currentDish().getImageReadyJobId()).isEqualTo(second.getUploadId());
+        awaitUntil(() -> !s3Client.doesObjectExist(bucket, firstOriginal));
+        assertThat(s3Client.doesObjectExist(bucket,
+                s3Service.imageKey(dish.getId(), second.getUploadId(), "original.png"))).isTrue();
+        assertThat(s3Client.doesObjectExist(bucket, newerKey)).isTrue();
+    }
+
+    @Test
+    void imageVersionWithMoreThanOnePageOfKeysIsDeleted() {
+        UUID jobId = UUID.randomUUID();
+        for (int i = 0; i < 1005; i++) {
+            s3Client.putObject(bucket, s3Service.imageKey(dish.getId(), jobId, "w" + i + ".png"), "x");
+        }
+
+        s3Service.deleteImageVersion(dish.getId(), jobId);
+
+        assertThat(s3Client.listObjectsV2(bucket, "dishes/" + dish.getId() + "/" + jobId + "/")
+                .getKeyCount()).isZero();
+    }
+
+    @Test
+    void finalizeWithoutUploadedObjectFails() {
+        ImageUploadUrlResponse upload = dishImageUploadService.createUploadUrl(dish.getId(),
+                ImageUploadRequest.builder().contentType("image/png").size(1024L).build());
+
+        assertThatThrownBy(() -> finalizeUpload(upload.getUploadId()))
+                .isInstanceOf(ImageUploadNotFoundException.class);
+        assertThat(currentDish().getImageStatus()).isEqualTo(Dish.ImageStatus.NONE);
+        assertThat(currentDish().getImageJobId()).isNull();
+    }
+
+    private ImageUploadUrlResponse uploadAndAwaitReady(byte[] image) throws Exception {
+        ImageUploadUrlResponse upload = createUploadUrl("image/png", image);
+        assertThat(put(upload, image)).isEqualTo(200);
+        finalizeUpload(upload.getUploadId());
+        awaitUntil(() -> {
+            Dish current = currentDish();
+            return current.getImageStatus() == Dish.ImageStatus.READY
+                    && upload.getUploadId().equals(current.getImageReadyJobId());
+        });
+        return upload;
+    }
+
+    private ImageUploadUrlResponse createUploadUrl(String contentType, byte[] content) {
+        return dishImageUploadService.createUploadUrl(dish.getId(), ImageUploadRequest.builder()
+                .contentType(contentType)
+                .size((long) content.length)
+                .build());
+    }
+
+    private DishImageStatusResponse finalizeUpload(UUID uploadId) throws IOException {
+        return dishImageUploadService.finalizeUpload(dish.getId(),
+                ImageUploadFinalizeRequest.builder().uploadId(uploadId).build());
+    }
+
+    /**
+     * Загружает файл так, как это делает клиент: методом и заголовками из ответа
+     */
+    private int put(ImageUploadUrlResponse upload, byte[] content) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(upload.getUploadUrl()))
+                .method(upload.getMethod(), HttpRequest.BodyPublishers.ofByteArray(content));
+        upload.getHeaders().forEach(request::header);
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String uploadKey(ImageUploadUrlResponse upload) {
+        return s3Service.uploadKey(dish.getId(), upload.getUploadId());
+    }
+
+    private Dish currentDish() {
+        return dishRepository.findById(dish.getId()).orElseThrow();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.menu.event.DishChangedEvent;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishSuggestionResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Category;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.repository.CategoryRepository;
+import azhue.katering.azhurkateringbackendjava.menu.repository.DishRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Инкрементальные изменения индекса автодополнения во время перестроения из базы данных.
+ */
+class DishSuggestServiceImplTest {
+
+    private final DishRepository dishRepository = mock(DishRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+
+    private DishSuggestServiceImpl suggestService;
+    private Category soups;
+
+    @BeforeEach
+    void setUp() {
+        suggestService = new DishSuggestServiceImpl(dishRepository, categoryRepository,
+                mock(PlatformTransactionManager.class), Runnable::run);
+        soups = Category.builder().name("Супы").isActive(true).build();
+        soups.setId(UUID.randomUUID());
+        when(categoryRepository.findByIsActiveTrue()).thenReturn(List.of(soups));
+    }
+
+    @Test
+    void dishCreatedWhileRebuildReadsDatabaseIsKept() {
+        Dish borscht = dish("Борщ");
+        UUID solyankaId = UUID.randomUUID();
+        when(dishRepository.findByIsAvailableTrue()).thenAnswer(invocation -> {
+            // Изменение зафиксировано после чтения базы данных, но до замены индекса
+            suggestService.onDishChanged(new DishChangedEvent(solyankaId, DishChangedEvent.ChangeType.CREATED,
+                    "Солянка", "Супы", true));
+            return List.of(borscht);
+        });
+
+        suggestService.rebuild();
+
+        assertThat(names(suggestService.suggest("бор", 10))).containsExactly("Борщ");
+        assertThat(names(suggestService.suggest("сол", 10))).containsExactly("Солянка");
+    }
+
+    @Test
+    void dishRemovedWhileRebuildReadsDatabaseStaysRemoved() {
+        Dish borscht = dish("Борщ");
+        when(dishRepository.findByIsAvailableTrue()).thenAnswer(invocation -> {
+            suggestService.onDishChanged(new DishChangedEvent(borscht.getId(), DishChangedEvent.ChangeType.DELETED,
+                    "Борщ", "Супы", false));
+            return List.of(borscht);
+        });
+
+        suggestService.rebuild();
+
+        assertThat(suggestService.suggest("бор", 10)).isEmpty();
+    }
+
+    @Test
+    void changesBeforeRebuildAreNotReplayed() {
+        Dish borscht = dish("Борщ");
+        suggestService.onDishChanged(new DishChangedEvent(borscht.getId(), DishChangedEvent.ChangeType.UPDATED,
+                "Старый борщ", "Супы", true));
+        when(dishRepository.findByIsAvailableTrue()).thenReturn(List.of(borscht));
+
+        suggestService.rebuild();
+
+        assertThat(names(suggestService.suggest("бор", 10))).containsExactly("Борщ");
+        assertThat(suggestService.suggest("стар", 10)).isEmpty();
+    }
+
+    private Dish dish(String name) {
+        Dish dish = Dish.builder().name(name).category(soups).isAvailable(true).build();
+        dish.setId(UUID.randomUUID());
+        return dish;
+    }
+
+    private static List<String> names(List<DishSuggestionResponse> suggestions) {
+        return suggestions.stream()
+                .filter(suggestion -> "DISH".equals(suggestion.getType()))
+                .map(DishSuggestionResponse::getName)
+                .toList();
+    }
+}
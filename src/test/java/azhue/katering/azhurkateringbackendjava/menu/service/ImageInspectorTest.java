@@ -0,0 +1,33 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Форматы, принимаемые по MIME типу после пробного декодирования.
+ */
+class ImageInspectorTest {
+
+    private ImageInspector imageInspector;
+
+    @BeforeEach
+    void setUp() {
+        imageInspector = new ImageInspector();
+        imageInspector.init();
+    }
+
+    @Test
+    void decodableFormatsAreAccepted() {
+        assertThat(imageInspector.formatForContentType("image/jpeg")).contains("jpg");
+        assertThat(imageInspector.formatForContentType("image/png")).contains("png");
+        assertThat(imageInspector.formatForContentType("image/webp")).contains("webp");
+    }
+
+    @Test
+    void unknownContentTypeIsRejected() {
+        assertThat(imageInspector.formatForContentType("image/gif")).isEmpty();
+        assertThat(imageInspector.formatForContentType(null)).isEmpty();
+    }
+}
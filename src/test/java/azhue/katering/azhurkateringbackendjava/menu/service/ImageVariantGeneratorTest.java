@@ -0,0 +1,148 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.menu.service.ImageVariantGenerator.EncodedVariant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.spi.IIORegistry;
+import javax.imageio.spi.ImageWriterSpi;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Кодирование вариантов в форматы по умолчанию {@code webp,jpg}.
+ */
+class ImageVariantGeneratorTest {
+
+    private ImageVariantGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new ImageVariantGenerator();
+        ReflectionTestUtils.setField(generator, "widths", List.of(160, 320, 640, 1280));
+        ReflectionTestUtils.setField(generator, "formats", List.of("webp", "jpg"));
+        ReflectionTestUtils.setField(generator, "quality", 0.8f);
+        generator.init();
+    }
+
+    @Test
+    void defaultFormatsAreBothEncoded() throws Exception {
+        List<EncodedVariant> variants = generator.generate(gradient(800, 600));
+
+        assertThat(variants).extracting(EncodedVariant::width, EncodedVariant::format).containsExactly(
+                tuple(640, "webp"), tuple(640, "jpg"),
+                tuple(320, "webp"), tuple(320, "jpg"),
+                tuple(160, "webp"), tuple(160, "jpg"));
+    }
+
+    @Test
+    void webpVariantIsDecodableWebp() throws Exception {
+        EncodedVariant webp = generator.generate(gradient(400, 300)).stream()
+                .filter(variant -> "webp".equals(variant.format()))
+                .findFirst()
+                .orElseThrow();
+
+        byte[] bytes = webp.bytes();
+        assertThat(new String(Arrays.copyOfRange(bytes, 0, 4), StandardCharsets.US_ASCII)).isEqualTo("RIFF");
+        assertThat(new String(Arrays.copyOfRange(bytes, 8, 12), StandardCharsets.US_ASCII)).isEqualTo("WEBP");
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bytes));
+        assertThat(decoded.getWidth()).isEqualTo(webp.width());
+        assertThat(decoded.getHeight()).isEqualTo(webp.height());
+        assertThat(ImageVariantGenerator.contentType(webp.format())).isEqualTo("image/webp");
+    }
+
+    @Test
+    void formatFailingProbeEncodingIsSkipped() throws Exception {
+        BrokenWriterSpi brokenWriterSpi = new BrokenWriterSpi();
+        IIORegistry.getDefaultInstance().registerServiceProvider(brokenWriterSpi, ImageWriterSpi.class);
+        try {
+            ReflectionTestUtils.setField(generator, "formats", List.of(BrokenWriterSpi.FORMAT, "jpg"));
+            generator.init();
+
+            assertThat(generator.generate(gradient(400, 300))).extracting(EncodedVariant::format)
+                    .containsOnly("jpg");
+        } finally {
+            IIORegistry.getDefaultInstance().deregisterServiceProvider(brokenWriterSpi, ImageWriterSpi.class);
+        }
+    }
+
+    private static BufferedImage gradient(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Кодировщик, зарегистрированный в ImageIO, но без нативной библиотеки для платформы
+     */
+    private static class BrokenWriterSpi extends ImageWriterSpi {
+
+        static final String FORMAT = "broken-native";
+
+        BrokenWriterSpi() {
+            vendorName = "test";
+            version = "1";
+            names = new String[]{FORMAT};
+            outputTypes = STANDARD_OUTPUT_TYPE;
+        }
+
+        @Override
+        public boolean canEncodeImage(ImageTypeSpecifier type) {
+            return true;
+        }
+
+        @Override
+        public ImageWriter createWriterInstance(Object extension) {
+            return new ImageWriter(this) {
+                @Override
+                public IIOMetadata getDefaultStreamMetadata(ImageWriteParam param) {
+                    return null;
+                }
+
+                @Override
+                public IIOMetadata getDefaultImageMetadata(ImageTypeSpecifier imageType, ImageWriteParam param) {
+                    return null;
+                }
+
+                @Override
+                public IIOMetadata convertStreamMetadata(IIOMetadata inData, ImageWriteParam param) {
+                    return null;
+                }
+
+                @Override
+                public IIOMetadata convertImageMetadata(IIOMetadata inData, ImageTypeSpecifier imageType,
+                                                        ImageWriteParam param) {
+                    return null;
+                }
+
+                @Override
+                public void write(IIOMetadata streamMetadata, IIOImage image, ImageWriteParam param) {
+                    throw new UnsatisfiedLinkError("no " + FORMAT + " in java.library.path");
+                }
+            };
+        }
+
+        @Override
+        public String getDescription(Locale locale) {
+            return "Broken native writer";
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package azhue.katering.azhurkateringbackendjava.menu.service;
+
+import azhue.katering.azhurkateringbackendjava.common.model.dto.CursorResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.CategoryResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.CategoryWithDishesResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.dto.response.DishResponse;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Category;
+import azhue.katering.azhurkateringbackendjava.menu.model.entity.Dish;
+import azhue.katering.azhurkateringbackendjava.menu.repository.CategoryRepository;
+import azhue.katering.azhurkateringbackendjava.menu.repository.DishRepository;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.CategoryService;
+import azhue.katering.azhurkateringbackendjava.menu.service.contract.DishService;
+import azhue.katering.azhurkateringbackendjava.menu.service.mapper.DishMapper;
+import azhue.katering.azhurkateringbackendjava.support.IntegrationTest;
+import azhue.katering.azhurkateringbackendjava.support.SqlStatementCounter;
+import azhue.katering.azhurkateringbackendjava.support.SqlStatementCounter.Recorded;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL запросов списочных методов меню.
+ *
+ * <p>Каждый список блюд загружает категории вместе с блюдами, поэтому число
+ * запросов не зависит от числа блюд на странице. Возврат к ленивой загрузке
+ * категории по одному SELECT на блюдо (N+1) ломает эти тесты.</p>
+ */
+@IntegrationTest
+class MenuListStatementCountTest {
+
+    private static final int CATEGORIES = 3;
+    private static final int DISHES_PER_CATEGORY = 4;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DishMapper dishMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> categoryIds = new ArrayList<>();
+    private final List<UUID> dishIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int c = 0; c < CATEGORIES; c++) {
+                Category category = categoryRepository.save(Category.builder()
+                        .name("Категория " + c + " " + suffix)
+                        .isActive(true)
+                        .build());
+                categoryIds.add(category.getId());
+                for (int d = 0; d < DISHES_PER_CATEGORY; d++) {
+                    Dish dish = dishRepository.save(Dish.builder()
+                            .name("Борщ " + c + "-" + d + " " + suffix)
+                            .description("Тестовое блюдо")
+                            .price(BigDecimal.valueOf(100 + d))
+                            .category(category)
+                            .isAvailable(true)
+                            .build());
+                    dishIds.add(dish.getId());
+                }
+            }
+        });
+        Objects.requireNonNull(cacheManager.getCache("available-dishes")).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            dishRepository.deleteAllById(dishIds);
+            categoryRepository.deleteAllById(categoryIds);
+        });
+        Objects.requireNonNull(cacheManager.getCache("available-dishes")).clear();
+    }
+
+    @Test
+    void availableDishesLoadCategoriesInOneSelect() {
+        Recorded<List<DishResponse>> recorded = SqlStatementCounter.record(dishService::getAvailableDishes);
+
+        assertThat(recorded.result()).hasSizeGreaterThanOrEqualTo(CATEGORIES * DISHES_PER_CATEGORY);
+        assertCategoriesMapped(recorded.result());
+        assertThat(recorded.selects()).hasSize(1);
+    }
+
+    @Test
+    void pagedDishListsLoadCategoriesInOneSelect() {
+        PageRequest pageable = PageRequest.of(0, 100);
+
+        Recorded<Page<DishResponse>> all = SqlStatementCounter.record(() -> dishService.getAllDishes(pageable));
+        Recorded<Page<DishResponse>> byCategory = SqlStatementCounter.record(
+                () -> dishService.getDishesByCategory(categoryIds.get(0), pageable));
+        Recorded<Page<DishResponse>> filtered = SqlStatementCounter.record(
+                () -> dishService.searchDishes(null, true, pageable));
+
+        assertCategoriesMapped(all.result().getContent());
+        assertThat(all.selects()).hasSize(1);
+        assertThat(byCategory.result().getContent()).hasSize(DISHES_PER_CATEGORY);
+        assertCategoriesMapped(byCategory.result().getContent());
+        assertThat(byCategory.selects()).hasSize(1);
+        assertCategoriesMapped(filtered.result().getContent());
+        assertThat(filtered.selects()).hasSize(1);
+    }
+
+    @Test
+    void cursorPagesLoadCategoriesInOneSelect() {
+        Recorded<CursorResponse<DishResponse>> first = SqlStatementCounter.record(
+                () -> dishService.scrollDishes(null, true, null, 5));
+        Recorded<CursorResponse<DishResponse>> next = SqlStatementCounter.record(
+                () -> dishService.scrollDishes(null, true, first.result().getNextCursor(), 5));
+
+        assertCategoriesMapped(first.result().getContent());
+        assertThat(first.selects()).hasSize(1);
+        assertCategoriesMapped(next.result().getContent());
+        assertThat(next.selects()).hasSize(1);
+    }
+
+    @Test
+    void searchByNameUsesFixedNumberOfStatements() {
+        Recorded<Page<DishResponse>> recorded = SqlStatementCounter.record(
+                () -> dishService.searchDishesByName("Борщ", PageRequest.of(0, 100)));
+
+        assertThat(recorded.result().getContent()).hasSizeGreaterThanOrEqualTo(CATEGORIES * DISHES_PER_CATEGORY);
+        assertCategoriesMapped(recorded.result().getContent());
+        // порог сходства, ID найденных блюд, блюда вместе с категориями
+        assertThat(recorded.selects()).hasSize(3);
+    }
+
+    @Test
+    void categoryListsUseOneSelect() {
+        Recorded<List<CategoryResponse>> all = SqlStatementCounter.record(categoryService::getAllCategories);
+        Recorded<List<CategoryResponse>> active = SqlStatementCounter.record(categoryService::getActiveCategories);
+
+        assertThat(all.result()).hasSizeGreaterThanOrEqualTo(CATEGORIES);
+        assertThat(all.selects()).hasSize(1);
+        assertThat(active.result()).hasSizeGreaterThanOrEqualTo(CATEGORIES);
+        assertThat(active.selects()).hasSize(1);
+    }
+
+    @Test
+    void menuCategoriesLoadDishesInOneSelect() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Recorded<List<CategoryWithDishesResponse>> recorded = SqlStatementCounter.record(() -> readOnly.execute(
+                status -> categoryRepository.findActiveCategoriesWithDishes().stream()
+                        .filter(category -> categoryIds.contains(category.getId()))
+                        .map(category -> CategoryWithDishesResponse.builder()
+                                .id(category.getId())
+                                .name(category.getName())
+                                .dishes(dishMapper.toResponseList(category.getDishes()))
+                                .dishCount(category.getDishes().size())
+                                .build())
+                        .toList()));
+
+        assertThat(recorded.result()).hasSize(CATEGORIES);
+        assertThat(recorded.result()).allSatisfy(category -> {
+            assertThat(category.getDishCount()).isEqualTo(DISHES_PER_CATEGORY);
+            assertCategoriesMapped(category.getDishes());
+        });
+        assertThat(recorded.selects()).hasSize(1);
+    }
+
+    private static void assertCategoriesMapped(List<DishResponse> dishes) {
+        assertThat(dishes).isNotEmpty();
+        assertThat(dishes).allSatisfy(dish -> assertThat(dish.getCategory()).isNotNull());
+    }
+}
@@ -0,0 +1,108 @@
+package azhue.katering.azhurkateringbackendjava.security.jwt.util;
+
+import azhue.katering.azhurkateringbackendjava.security.jwt.model.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Сравнение проверки access токена в фильтре аутентификации.
+ *
+ * <ul>
+ *   <li>{@code perClaimParsing} - прежний путь: {@code isAccessToken}, {@code extractEmail},
+ *       {@code validateToken} и {@code isTokenExpired} разбирают токен по отдельности,
+ *       каждый раз заново создавая ключ и парсер (четыре проверки HMAC на запрос)</li>
+ *   <li>{@code singleVerify} - {@link JwtUtil#verifyToken(String)} с промахом кэша: токен
+ *       удаляется из кэша перед проверкой, одна проверка подписи на запрос</li>
+ *   <li>{@code cachedVerify} - {@link JwtUtil#verifyToken(String)} с попаданием в кэш
+ *       проверенных токенов</li>
+ * </ul>
+ *
+ * <p>Запуск: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtVerificationBenchmark}</p>
+ *
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key-benchmark-secret-key-0123456789";
+    private static final String EMAIL = "user@azhur-katering.ru";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10_000L);
+        jwtUtil.init();
+        token = jwtUtil.generateAccessToken(EMAIL, UUID.randomUUID().toString(), "USER");
+    }
+
+    @Benchmark
+    public void perClaimParsing(Blackhole blackhole) {
+        String type = legacyExtractClaim(token, claims -> claims.get("type", String.class));
+        blackhole.consume(VerifiedToken.TYPE_ACCESS.equals(type));
+
+        String email = legacyExtractClaim(token, Claims::getSubject);
+        String validatedEmail = legacyExtractClaim(token, Claims::getSubject);
+        Date expiration = legacyExtractClaim(token, Claims::getExpiration);
+        blackhole.consume(email.equals(validatedEmail) && !expiration.before(new Date()));
+    }
+
+    @Benchmark
+    public void singleVerify(Blackhole blackhole) {
+        jwtUtil.evictFromCache(token);
+        blackhole.consume(jwtUtil.verifyToken(token)
+                .filter(VerifiedToken::isAccessToken)
+                .filter(verified -> EMAIL.equals(verified.subject()) && !verified.isExpired())
+                .isPresent());
+    }
+
+    @Benchmark
+    public void cachedVerify(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.verifyToken(token)
+                .filter(VerifiedToken::isAccessToken)
+                .filter(verified -> EMAIL.equals(verified.subject()) && !verified.isExpired())
+                .isPresent());
+    }
+
+    /**
+     * Разбор одного claim так, как это делал JwtUtil до однократной проверки
+     */
+    private <T> T legacyExtractClaim(String jwt, Function<Claims, T> claimsResolver) {
+        Claims claims = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+        return claimsResolver.apply(claims);
+    }
+}
@@ -0,0 +1,34 @@
+package azhue.katering.azhurkateringbackendjava.support;
+
+import azhue.katering.azhurkateringbackendjava.TestcontainersConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Интеграционный тест на полном контексте приложения.
+ *
+ * <p>Поднимает PostgreSQL (со всеми миграциями Flyway) и Redis в контейнерах
+ * из {@link TestcontainersConfiguration} и включает профили {@code dev} и {@code test}.
+ * Без Docker тест пропускается.</p>
+ *
+ * @version 1.0.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles({"dev", "test"})
+@Testcontainers(disabledWithoutDocker = true)
+public @interface IntegrationTest {
+}
@@ -0,0 +1,75 @@
+package azhue.katering.azhurkateringbackendjava.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Счетчик SQL запросов, выполненных Hibernate.
+ *
+ * <p>Подключается в профиле {@code test} через
+ * {@code hibernate.session_factory.statement_inspector}. Запросы записываются
+ * только внутри {@link #record(Supplier)} и только в вызывающем потоке, поэтому
+ * фоновые задачи (снимок меню, outbox, обслуживание секций) не искажают счет.</p>
+ *
+ * <pre>{@code
+ * Recorded<List<DishResponse>> recorded = SqlStatementCounter.record(dishService::getAvailableDishes);
+ * assertThat(recorded.selects()).hasSize(1);
+ * }</pre>
+ *
+ * @version 1.0.0
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    /**
+     * Результат вызова и выполненные им запросы
+     *
+     * @param result результат вызова
+     * @param statements SQL запросы в порядке выполнения
+     */
+    public record Recorded<T>(T result, List<String> statements) {
+
+        /**
+         * Возвращает только SELECT запросы
+         */
+        public List<String> selects() {
+            return statements.stream()
+                    .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                    .toList();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Выполняет вызов и записывает SQL запросы, выполненные в текущем потоке
+     */
+    public static <T> Recorded<T> record(Supplier<T> call) {
+        List<String> previous = STATEMENTS.get();
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            T result = call.get();
+            return new Recorded<>(result, List.copyOf(statements));
+        } finally {
+            if (previous != null) {
+                previous.addAll(statements);
+                STATEMENTS.set(previous);
+            } else {
+                STATEMENTS.remove();
+            }
+        }
+    }
+}